@@ -0,0 +1,55 @@
+package desafio_quality.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, adding the GC profiler and, unless -rff is given,
+ * writing the results as JSON to jmh-results/desafio_quality-&lt;version&gt;.json so runs of different
+ * versions can be compared.
+ */
+public final class BenchmarkRunner {
+
+    private static final Path RESULTS = Paths.get("jmh-results");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        boolean gcProfiled = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc")
+                        || profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(RESULTS);
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(RESULTS.resolve("desafio_quality-" + version() + ".json").toString());
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    private static String version() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = BenchmarkRunner.class.getResourceAsStream("/benchmark.properties")) {
+            properties.load(in);
+        }
+        return properties.getProperty("version");
+    }
+}
@@ -0,0 +1,104 @@
+package desafio_quality.benchmarks;
+
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.entities.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The in-memory computations and mappings over a property's rooms, by the number of rooms it has.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    public int roomCount;
+
+    private Property property;
+    private List<Room> rooms;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        District district = new District("Centro", new BigDecimal("5000.00"));
+        property = new Property("Bem Viver", district);
+        rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(new Room("Quarto", 1 + random.nextInt(2400) / 100.0, 1 + random.nextInt(3200) / 100.0, property));
+        }
+        property.setRooms(rooms);
+    }
+
+    /**
+     * Property.getTotalArea returns the persisted column; the sum over the rooms happens in setRooms,
+     * which also values the property.
+     */
+    @Benchmark
+    public double totalArea() {
+        property.setRooms(rooms);
+        return property.getTotalArea();
+    }
+
+    @Benchmark
+    public PropertyValueDTO propertyValueDTO() {
+        return PropertyValueDTO.toDTO(property);
+    }
+
+    /**
+     * The comparator PropertyService.getLargestRoom used before the database ordered the rooms.
+     */
+    @Benchmark
+    public RoomDTO largestRoomComparator() {
+        return RoomDTO.toDTO(rooms.stream().max(Comparator.comparingDouble(Room::getArea)).orElseThrow());
+    }
+
+    /**
+     * The indexed loop RoomReadModel uses for the same answer.
+     */
+    @Benchmark
+    public RoomDTO largestRoomLoop() {
+        Room largest = rooms.get(0);
+        for (int i = 1; i < rooms.size(); i++) {
+            if (rooms.get(i).getArea() > largest.getArea()) {
+                largest = rooms.get(i);
+            }
+        }
+        return RoomDTO.toDTO(largest);
+    }
+
+    @Benchmark
+    public PropertyDTO propertyDTO() {
+        return PropertyDTO.toDTO(property);
+    }
+
+    @Benchmark
+    public List<RoomDTO> roomDTOs() {
+        return rooms.stream().map(RoomDTO::toDTO).collect(Collectors.toList());
+    }
+}
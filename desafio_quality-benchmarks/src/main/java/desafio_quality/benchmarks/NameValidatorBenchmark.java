@@ -0,0 +1,69 @@
+package desafio_quality.benchmarks;
+
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.dtos.validators.NameValidator;
+import desafio_quality.dtos.validators.Named;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintValidatorContext;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NameValidator.isValid for a valid name and for each way a name can be rejected. Room counts do not
+ * apply here; the names are the parameter instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameValidatorBenchmark {
+
+    @Param({"Quarto de hóspedes", "quarto de hóspedes", " "})
+    public String name;
+
+    private NameValidator validator;
+    private ConstraintValidatorContext context;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        validator = new NameValidator();
+        validator.initialize(UpsertRoomDTO.class.getDeclaredField("name").getAnnotation(Named.class));
+        context = stub(ConstraintValidatorContext.class, new HashMap<>());
+    }
+
+    /**
+     * A context whose builder methods return more stubs, created once per type, so rejected names
+     * measure the validator rather than Hibernate Validator's violation bookkeeping.
+     */
+    private static <T> T stub(Class<T> type, Map<Class<?>, Object> stubs) {
+        return type.cast(stubs.computeIfAbsent(type, t -> Proxy.newProxyInstance(
+                NameValidatorBenchmark.class.getClassLoader(), new Class<?>[] { t },
+                (proxy, method, args) -> {
+                    Class<?> returned = method.getReturnType();
+                    if (returned.isInterface()) {
+                        return stubs.containsKey(returned) ? stubs.get(returned) : stub(returned, stubs);
+                    }
+                    return returned == boolean.class ? Boolean.FALSE : null;
+                })));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(name, context);
+    }
+}
@@ -0,0 +1,85 @@
+package desafio_quality.benchmarks;
+
+import desafio_quality.valuation.FixedPointValuation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The fixed-point valuation against the BigDecimal formulas it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuationBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private final double[] areas = new double[VALUES];
+    private final BigDecimal[] prices = new BigDecimal[VALUES];
+    private final long[] priceCents = new long[VALUES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            double area = 0;
+            for (int room = random.nextInt(8); room >= 0; room--) {
+                area += (1 + random.nextInt(2400) / 100.0) * (1 + random.nextInt(3200) / 100.0);
+            }
+            areas[i] = area;
+            prices[i] = BigDecimal.valueOf(300_000 + random.nextInt(1_500_000), 2);
+            priceCents[i] = FixedPointValuation.toCents(prices[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (VALUES - 1);
+        return next;
+    }
+
+    /**
+     * The original PropertyValueDTO.toDTO arithmetic, on the binary expansion of the double.
+     */
+    @Benchmark
+    public BigDecimal bigDecimalFromDouble() {
+        int i = nextIndex();
+        return new BigDecimal(areas[i]).multiply(prices[i]);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalRounded() {
+        int i = nextIndex();
+        return BigDecimal.valueOf(areas[i]).setScale(4, RoundingMode.HALF_UP)
+                .multiply(prices[i])
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        int i = nextIndex();
+        return FixedPointValuation.valueOf(areas[i], prices[i]);
+    }
+
+    @Benchmark
+    public long fixedPointCents() {
+        int i = nextIndex();
+        return FixedPointValuation.valueInCents(FixedPointValuation.toSquareCentimeters(areas[i]), priceCents[i]);
+    }
+}
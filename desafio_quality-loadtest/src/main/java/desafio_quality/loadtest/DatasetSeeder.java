@@ -0,0 +1,58 @@
+package desafio_quality.loadtest;
+
+import desafio_quality.services.PropertyService;
+import desafio_quality.services.RoomReadModel;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the empty database with districts, properties and rooms whose ids run from 1 to the configured
+ * counts, so the workload can address any of them without reading them first. Rows are generated in the
+ * database with one set-based insert per table; the derived totals, values and stats are then rebuilt by
+ * the application itself, the same way the nightly reconciliation does.
+ */
+public class DatasetSeeder {
+
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PropertyService propertyService;
+    private final RoomReadModel roomReadModel;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, PropertyService propertyService, RoomReadModel roomReadModel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.propertyService = propertyService;
+        this.roomReadModel = roomReadModel;
+    }
+
+    public void seed(LoadTestSettings settings) {
+        Long existing = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM district", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("The load test seeds its own dataset and needs an empty database");
+        }
+
+        this.jdbcTemplate.update("INSERT INTO district (id, name, square_meter_value) " +
+                "SELECT X, CONCAT('Bairro ', X), 3000 + MOD(X * 7919, 12000) FROM SYSTEM_RANGE(1, ?)",
+                settings.getDistricts());
+        this.jdbcTemplate.update("INSERT INTO property (id, name, district_id, room_count, total_area, property_value) " +
+                "SELECT X, CONCAT('Imóvel ', X), 1 + MOD(X * 7919, ?), 0, 0, 0 FROM SYSTEM_RANGE(1, ?)",
+                settings.getDistricts(), settings.getProperties());
+        this.jdbcTemplate.update("INSERT INTO room (id, name, width, length, area, property_id) " +
+                "SELECT g.id, g.name, g.width, g.length, g.width * g.length, g.property_id FROM (" +
+                "SELECT X AS id, CASEWHEN(MOD(X, 4) = 0, 'Sala', CASEWHEN(MOD(X, 4) = 1, 'Quarto', " +
+                "CASEWHEN(MOD(X, 4) = 2, 'Cozinha', 'Banheiro'))) AS name, " +
+                "1 + MOD(X * 7919, 20) AS width, 1 + MOD(X * 104729, 15) AS length, " +
+                "1 + (X - 1) / ? AS property_id FROM SYSTEM_RANGE(1, ?)) g",
+                settings.getRoomsPerProperty(), settings.getRooms());
+
+        restartSequence("district_seq", settings.getDistricts());
+        restartSequence("property_seq", settings.getProperties());
+        restartSequence("room_seq", settings.getRooms());
+
+        this.propertyService.reconcileTotalAreas();
+        this.roomReadModel.reload();
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        this.jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_BLOCK + 1));
+    }
+}
@@ -0,0 +1,120 @@
+package desafio_quality.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives the workload from closed-loop clients, each sending its next request as soon as the previous one
+ * answers. Latencies are recorded per operation in microseconds, only inside the measurement window that
+ * follows the warmup; responses outside 2xx and failed exchanges are counted as errors by cause.
+ * <p>
+ * Closed-loop clients back off when the server slows down, so the percentiles describe the latency seen at
+ * the throughput reached, not the latency a fixed arrival rate would have met.
+ * <p>
+ * The application's threads and retained heap are measured before the clients start and again at the end of
+ * the measurement window, while every client still has a request in flight or a connection open.
+ */
+public class LoadDriver {
+
+    static final String CLIENT_THREAD_PREFIX = "loadtest-client-";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Workload workload;
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient;
+    private final Map<Operation, Stats> stats = new LinkedHashMap<>();
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    public LoadDriver(Workload workload, LoadTestSettings settings, HttpClient httpClient) {
+        this.workload = workload;
+        this.settings = settings;
+        this.httpClient = httpClient;
+        for (Operation operation : workload.getOperations()) {
+            this.stats.put(operation, new Stats());
+        }
+    }
+
+    public LoadResult run() throws InterruptedException {
+        ResourceUsage idle = ResourceUsage.measure();
+        List<Thread> clients = new ArrayList<>(this.settings.getClients());
+        for (int i = 0; i < this.settings.getClients(); i++) {
+            Random random = new Random(this.settings.getSeed() + i);
+            Thread client = new Thread(() -> drive(random), CLIENT_THREAD_PREFIX + i);
+            client.setDaemon(true);
+            clients.add(client);
+            client.start();
+        }
+
+        Thread.sleep(this.settings.getWarmup().toMillis());
+        this.measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(this.settings.getDuration().toMillis());
+        this.measuring = false;
+        long elapsed = System.nanoTime() - start;
+        ResourceUsage loaded = ResourceUsage.measure();
+        this.stopped = true;
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        List<LoadResult.OperationResult> results = new ArrayList<>(this.stats.size());
+        this.stats.forEach((operation, stats) -> results.add(new LoadResult.OperationResult(
+                operation, stats.latencies.getIntervalHistogram(), stats.errorCounts())));
+        return new LoadResult(this.settings, elapsed, results, idle, loaded);
+    }
+
+    private void drive(Random random) {
+        while (!this.stopped) {
+            Operation operation = this.workload.next(random);
+            String error = null;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = this.httpClient.send(operation.request(random),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    error = "HTTP " + response.statusCode();
+                }
+            } catch (IOException e) {
+                error = e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (this.measuring) {
+                Stats stats = this.stats.get(operation);
+                stats.latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latency), HIGHEST_TRACKABLE_MICROS));
+                if (error != null) {
+                    stats.errors.computeIfAbsent(error, cause -> new LongAdder()).increment();
+                }
+            }
+        }
+    }
+
+    private static class Stats {
+
+        private final Recorder latencies = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private Map<String, Long> errorCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            this.errors.forEach((cause, count) -> counts.put(cause, count.sum()));
+            return counts;
+        }
+    }
+}
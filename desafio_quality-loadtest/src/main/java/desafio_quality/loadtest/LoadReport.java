@@ -0,0 +1,228 @@
+package desafio_quality.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Prints a run as a table, saves it as JSON and compares it with the JSON of an earlier run. An operation
+ * regresses when its p99 grows, or its throughput falls, by more than the configured threshold, or when it
+ * starts failing where the baseline did not. Runs of the same mix on different stacks are printed side by side.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p95", "p99", "p999"};
+
+    private final ObjectMapper objectMapper;
+    private final PrintStream out;
+
+    public LoadReport(ObjectMapper objectMapper, PrintStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    public void print(LoadResult result) {
+        LoadTestSettings settings = result.getSettings();
+        this.out.printf(Locale.ROOT, "%ndesafio_quality %s on %s: %d clients, %.1fs measured after %ds of warmup, "
+                        + "%d districts, %d properties, %d rooms%n%n",
+                settings.getVersion(), settings.getStack().getName(), settings.getClients(), result.getElapsedSeconds(),
+                settings.getWarmup().getSeconds(), settings.getDistricts(), settings.getProperties(),
+                settings.getRooms());
+        this.out.printf(Locale.ROOT, "%-32s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation (ms)", "requests", "errors", "req/s", "p50", "p95", "p99", "p999", "max");
+        for (LoadResult.OperationResult operation : result.getOperations()) {
+            this.out.printf(Locale.ROOT, "%-32s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getOperation().getRoute(), operation.getRequests(), operation.getErrors(),
+                    result.throughput(operation), operation.percentile(50), operation.percentile(95),
+                    operation.percentile(99), operation.percentile(99.9), operation.max());
+            operation.getErrorsByCause().forEach((cause, count) ->
+                    this.out.printf(Locale.ROOT, "    %s: %d%n", cause, count));
+        }
+        this.out.printf(Locale.ROOT, "%-32s %9d %8d %9.1f%n%n",
+                "total", result.getRequests(), result.getErrors(), result.getThroughput());
+        this.out.printf(Locale.ROOT, "Application threads: %d idle, %d under load (%.2f per client)%n",
+                result.getIdle().getThreads(), result.getLoaded().getThreads(), result.getThreadsPerClient());
+        this.out.printf(Locale.ROOT, "Heap after GC: %.1f MB idle, %.1f MB under load (%.1f KB per client)%n%n",
+                megabytes(result.getIdle().getHeapBytes()), megabytes(result.getLoaded().getHeapBytes()),
+                result.getHeapKilobytesPerClient());
+    }
+
+    /**
+     * Prints the throughput and latencies of each operation, then the threads and heap per client, with a
+     * column per run.
+     */
+    public void printComparison(List<LoadResult> results) {
+        StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%-32s", "operation (req/s, p50/p99 ms)"));
+        for (LoadResult result : results) {
+            header.append(String.format(Locale.ROOT, " %26s", result.getSettings().getStack().getName()));
+        }
+        this.out.printf("%nSide by side, %d clients%n%n%s%n", results.get(0).getSettings().getClients(), header);
+
+        for (LoadResult.OperationResult operation : results.get(0).getOperations()) {
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-32s", operation.getOperation().getRoute()));
+            for (LoadResult result : results) {
+                LoadResult.OperationResult same = find(result, operation.getOperation().getName());
+                line.append(String.format(Locale.ROOT, " %9.1f %7.2f/%8.2f",
+                        result.throughput(same), same.percentile(50), same.percentile(99)));
+            }
+            this.out.println(line);
+        }
+
+        printRow("total req/s", results, result -> String.format(Locale.ROOT, "%.1f", result.getThroughput()));
+        printRow("errors", results, result -> String.valueOf(result.getErrors()));
+        printRow("threads under load", results, result -> String.valueOf(result.getLoaded().getThreads()));
+        printRow("threads per client", results, result -> String.format(Locale.ROOT, "%.2f", result.getThreadsPerClient()));
+        printRow("heap per client (KB)", results,
+                result -> String.format(Locale.ROOT, "%.1f", result.getHeapKilobytesPerClient()));
+        this.out.println();
+    }
+
+    private void printRow(String name, List<LoadResult> results, Function<LoadResult, String> value) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-32s", name));
+        for (LoadResult result : results) {
+            line.append(String.format(Locale.ROOT, " %26s", value.apply(result)));
+        }
+        this.out.println(line);
+    }
+
+    private static LoadResult.OperationResult find(LoadResult result, String name) {
+        for (LoadResult.OperationResult operation : result.getOperations()) {
+            if (name.equals(operation.getOperation().getName())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("The runs compared do not share the operation " + name);
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    public void write(LoadResult result, Path path) throws IOException {
+        LoadTestSettings settings = result.getSettings();
+        ObjectNode root = this.objectMapper.createObjectNode();
+        root.put("version", settings.getVersion());
+        root.put("stack", settings.getStack().getName());
+        root.put("clients", settings.getClients());
+        root.put("warmupSeconds", settings.getWarmup().getSeconds());
+        root.put("elapsedSeconds", result.getElapsedSeconds());
+        ObjectNode dataset = root.putObject("dataset");
+        dataset.put("districts", settings.getDistricts());
+        dataset.put("properties", settings.getProperties());
+        dataset.put("roomsPerProperty", settings.getRoomsPerProperty());
+        dataset.put("seed", settings.getSeed());
+        root.put("requests", result.getRequests());
+        root.put("errors", result.getErrors());
+        root.put("throughput", result.getThroughput());
+        ObjectNode resources = root.putObject("resources");
+        resources.put("idleThreads", result.getIdle().getThreads());
+        resources.put("loadedThreads", result.getLoaded().getThreads());
+        resources.put("threadsPerClient", result.getThreadsPerClient());
+        resources.put("idleHeapBytes", result.getIdle().getHeapBytes());
+        resources.put("loadedHeapBytes", result.getLoaded().getHeapBytes());
+        resources.put("heapKilobytesPerClient", result.getHeapKilobytesPerClient());
+
+        ArrayNode operations = root.putArray("operations");
+        for (LoadResult.OperationResult operation : result.getOperations()) {
+            ObjectNode node = operations.addObject();
+            node.put("name", operation.getOperation().getName());
+            node.put("route", operation.getOperation().getRoute());
+            node.put("weight", operation.getOperation().getWeight());
+            node.put("requests", operation.getRequests());
+            node.put("errors", operation.getErrors());
+            ObjectNode errors = node.putObject("errorsByCause");
+            operation.getErrorsByCause().forEach(errors::put);
+            node.put("throughput", result.throughput(operation));
+            ObjectNode latency = node.putObject("latencyMillis");
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                latency.put(PERCENTILE_NAMES[i], operation.percentile(PERCENTILES[i]));
+            }
+            latency.put("max", operation.max());
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), root);
+        this.out.printf("Results written to %s%n", path);
+    }
+
+    /**
+     * Prints how each operation moved against the baseline and returns the ones that regressed.
+     */
+    public List<String> compare(LoadResult result, Path baselinePath, double threshold) throws IOException {
+        JsonNode baseline = this.objectMapper.readTree(baselinePath.toFile());
+        this.out.printf(Locale.ROOT, "%nAgainst %s (version %s), flagging changes beyond %.0f%%%n%n",
+                baselinePath, baseline.path("version").asText("?"), threshold * 100);
+        LoadTestSettings settings = result.getSettings();
+        JsonNode dataset = baseline.path("dataset");
+        if (!baseline.path("stack").asText(WebStack.SERVLET.getName()).equals(settings.getStack().getName())) {
+            this.out.println("Warning: the baseline ran on another stack");
+        }
+        if (baseline.path("clients").asInt() != settings.getClients()
+                || dataset.path("districts").asInt() != settings.getDistricts()
+                || dataset.path("properties").asInt() != settings.getProperties()
+                || dataset.path("roomsPerProperty").asInt() != settings.getRoomsPerProperty()) {
+            this.out.println("Warning: the baseline ran with other clients or dataset, so the runs are not comparable");
+        }
+        this.out.printf(Locale.ROOT, "%-32s %12s %12s %12s%n", "operation", "req/s", "p50", "p99");
+
+        List<String> regressions = new ArrayList<>();
+        for (LoadResult.OperationResult operation : result.getOperations()) {
+            JsonNode before = find(baseline, operation.getOperation().getName());
+            if (before == null) {
+                this.out.printf("%-32s %12s%n", operation.getOperation().getRoute(), "new");
+                continue;
+            }
+            double throughputBefore = before.path("throughput").asDouble();
+            double p50Before = before.path("latencyMillis").path("p50").asDouble();
+            double p99Before = before.path("latencyMillis").path("p99").asDouble();
+            double throughputChange = change(throughputBefore, result.throughput(operation));
+            double p50Change = change(p50Before, operation.percentile(50));
+            double p99Change = change(p99Before, operation.percentile(99));
+
+            List<String> reasons = new ArrayList<>();
+            if (throughputChange < -threshold) {
+                reasons.add(String.format(Locale.ROOT, "throughput %+.0f%%", throughputChange * 100));
+            }
+            if (p99Change > threshold) {
+                reasons.add(String.format(Locale.ROOT, "p99 %+.0f%%", p99Change * 100));
+            }
+            if (operation.getErrors() > 0 && before.path("errors").asLong() == 0) {
+                reasons.add(operation.getErrors() + " errors");
+            }
+
+            this.out.printf(Locale.ROOT, "%-32s %+11.1f%% %+11.1f%% %+11.1f%%%s%n",
+                    operation.getOperation().getRoute(), throughputChange * 100, p50Change * 100, p99Change * 100,
+                    reasons.isEmpty() ? "" : "   REGRESSION");
+            if (!reasons.isEmpty()) {
+                regressions.add(operation.getOperation().getRoute() + ": " + String.join(", ", reasons));
+            }
+        }
+        return regressions;
+    }
+
+    private static JsonNode find(JsonNode baseline, String name) {
+        for (JsonNode operation : baseline.path("operations")) {
+            if (name.equals(operation.path("name").asText())) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
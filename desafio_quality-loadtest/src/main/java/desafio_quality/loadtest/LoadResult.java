@@ -0,0 +1,124 @@
+package desafio_quality.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one run measured: the settings it ran with, the length of the measurement window, the application's
+ * threads and heap idle and under load and, per operation, the latency histogram in microseconds and the
+ * errors by cause.
+ */
+public class LoadResult {
+
+    private final LoadTestSettings settings;
+    private final long elapsedNanos;
+    private final List<OperationResult> operations;
+    private final ResourceUsage idle;
+    private final ResourceUsage loaded;
+
+    public LoadResult(LoadTestSettings settings, long elapsedNanos, List<OperationResult> operations,
+                      ResourceUsage idle, ResourceUsage loaded) {
+        this.settings = settings;
+        this.elapsedNanos = elapsedNanos;
+        this.operations = operations;
+        this.idle = idle;
+        this.loaded = loaded;
+    }
+
+    public LoadTestSettings getSettings() {
+        return settings;
+    }
+
+    public double getElapsedSeconds() {
+        return this.elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public List<OperationResult> getOperations() {
+        return operations;
+    }
+
+    public long getRequests() {
+        return this.operations.stream().mapToLong(OperationResult::getRequests).sum();
+    }
+
+    public long getErrors() {
+        return this.operations.stream().mapToLong(OperationResult::getErrors).sum();
+    }
+
+    public double getThroughput() {
+        return getRequests() / getElapsedSeconds();
+    }
+
+    public ResourceUsage getIdle() {
+        return idle;
+    }
+
+    public ResourceUsage getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The threads the application added to serve the clients, per client.
+     */
+    public double getThreadsPerClient() {
+        return (this.loaded.getThreads() - this.idle.getThreads()) / (double) this.settings.getClients();
+    }
+
+    /**
+     * The heap retained under load beyond the idle heap, per client, in kilobytes.
+     */
+    public double getHeapKilobytesPerClient() {
+        return (this.loaded.getHeapBytes() - this.idle.getHeapBytes()) / 1024.0 / this.settings.getClients();
+    }
+
+    public double throughput(OperationResult operation) {
+        return operation.getRequests() / getElapsedSeconds();
+    }
+
+    public static class OperationResult {
+
+        private final Operation operation;
+        private final Histogram latencies;
+        private final Map<String, Long> errors;
+
+        public OperationResult(Operation operation, Histogram latencies, Map<String, Long> errors) {
+            this.operation = operation;
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Histogram getLatencies() {
+            return latencies;
+        }
+
+        public Map<String, Long> getErrorsByCause() {
+            return errors;
+        }
+
+        public long getRequests() {
+            return this.latencies.getTotalCount();
+        }
+
+        public long getErrors() {
+            return this.errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * The latency at the percentile, in milliseconds.
+         */
+        public double percentile(double percentile) {
+            return this.latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public double max() {
+            return this.latencies.getMaxValue() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package desafio_quality.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.DesafioQualityApplication;
+import desafio_quality.services.PropertyService;
+import desafio_quality.services.RoomReadModel;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application on a free local port with its in-memory database, seeds the dataset and drives the
+ * workload against it over HTTP, all in this JVM and without touching the network beyond the loopback.
+ * With loadtest.stack=compare it does so on the servlet stack and then on the reactive one, each with a fresh
+ * database, and prints both runs side by side.
+ * Exits with 1 when a baseline is given and some operation regressed against it.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<WebStack> stacks = LoadTestSettings.stacks(args);
+        List<LoadResult> results = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        LoadReport report = null;
+
+        for (WebStack stack : stacks) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(DesafioQualityApplication.class)
+                    .profiles(stack.getProfiles())
+                    .properties(
+                            "server.port=0",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN")
+                    .run(args);
+
+            try {
+                LoadTestSettings settings = new LoadTestSettings(context.getEnvironment(), stack);
+                ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+                long start = System.nanoTime();
+                new DatasetSeeder(context.getBean(JdbcTemplate.class), context.getBean(PropertyService.class),
+                        context.getBean(RoomReadModel.class)).seed(settings);
+                System.out.printf("Seeded %d districts, %d properties and %d rooms in %.1fs%n",
+                        settings.getDistricts(), settings.getProperties(), settings.getRooms(),
+                        (System.nanoTime() - start) / 1e9);
+
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                Workload workload = new Workload(URI.create("http://localhost:" + port), settings, objectMapper);
+                System.out.printf("Driving %d operations from %d clients on the %s stack: %ds of warmup, %ds measured%n",
+                        workload.getOperations().size(), settings.getClients(), stack.getName(),
+                        settings.getWarmup().getSeconds(), settings.getDuration().getSeconds());
+                LoadResult result = new LoadDriver(workload, settings, httpClient).run();
+                results.add(result);
+
+                report = new LoadReport(objectMapper, System.out);
+                report.print(result);
+                report.write(result, settings.getOutput());
+                if (settings.getBaseline() != null) {
+                    regressions.addAll(report.compare(result, settings.getBaseline(), settings.getRegressionThreshold()));
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        if (results.size() > 1) {
+            report.printComparison(results);
+        }
+        if (!regressions.isEmpty()) {
+            System.out.printf("%n%d operations regressed:%n", regressions.size());
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,153 @@
+package desafio_quality.loadtest;
+
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The load test settings, read from the same environment as the application so they can be given as
+ * --loadtest.* arguments, system properties or environment variables.
+ */
+public class LoadTestSettings {
+
+    private static final String STACK = "loadtest.stack";
+    private static final String DEFAULT_STACK = "servlet";
+
+    private final WebStack stack;
+    private final List<WebStack> stacks;
+    private final String version;
+    private final int districts;
+    private final int properties;
+    private final int roomsPerProperty;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    private final Path output;
+    private final Path baseline;
+    private final double regressionThreshold;
+    private final Environment environment;
+
+    public LoadTestSettings(Environment environment, WebStack stack) {
+        this.stack = stack;
+        this.stacks = WebStack.parse(environment.getProperty(STACK, DEFAULT_STACK));
+        this.version = version();
+        this.districts = environment.getProperty("loadtest.districts", Integer.class, 50);
+        this.properties = environment.getProperty("loadtest.properties", Integer.class, 20_000);
+        this.roomsPerProperty = environment.getProperty("loadtest.rooms-per-property", Integer.class, 5);
+        this.clients = environment.getProperty("loadtest.clients", Integer.class, 32);
+        this.warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        this.duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+        this.seed = environment.getProperty("loadtest.seed", Long.class, 42L);
+        this.output = output(environment.getProperty("loadtest.output",
+                "loadtest-results/desafio_quality-" + this.version + ".json"), stack, this.stacks.size() > 1);
+        String baseline = environment.getProperty("loadtest.baseline");
+        this.baseline = baseline == null || baseline.isBlank() ? null : Paths.get(baseline);
+        this.regressionThreshold = environment.getProperty("loadtest.regression-threshold", Double.class, 0.2);
+        this.environment = environment;
+
+        if (this.districts < 1 || this.properties < 1 || this.roomsPerProperty < 1 || this.clients < 1) {
+            throw new IllegalArgumentException(
+                    "loadtest.districts, loadtest.properties, loadtest.rooms-per-property and loadtest.clients must be positive");
+        }
+    }
+
+    /**
+     * The stacks loadtest.stack asks for, read before the application, and so its environment, exists.
+     */
+    public static List<WebStack> stacks(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return WebStack.parse(environment.getProperty(STACK, DEFAULT_STACK));
+    }
+
+    /**
+     * The output as given for a servlet run on its own, so earlier results stay comparable, and with the name of
+     * the stack before the extension otherwise.
+     */
+    private static Path output(String output, WebStack stack, boolean compare) {
+        if (stack == WebStack.SERVLET && !compare) {
+            return Paths.get(output);
+        }
+        int extension = output.endsWith(".json") ? output.length() - ".json".length() : output.length();
+        return Paths.get(output.substring(0, extension) + "-" + stack.getName() + output.substring(extension));
+    }
+
+    /**
+     * The weight of an operation in the mix, overridable with loadtest.weight.&lt;operation&gt;; 0 leaves it out.
+     */
+    public int weight(String operation, int defaultWeight) {
+        return this.environment.getProperty("loadtest.weight." + operation, Integer.class, defaultWeight);
+    }
+
+    public WebStack getStack() {
+        return stack;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getDistricts() {
+        return districts;
+    }
+
+    public int getProperties() {
+        return properties;
+    }
+
+    public int getRoomsPerProperty() {
+        return roomsPerProperty;
+    }
+
+    public long getRooms() {
+        return (long) properties * roomsPerProperty;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public Path getBaseline() {
+        return baseline;
+    }
+
+    public double getRegressionThreshold() {
+        return regressionThreshold;
+    }
+
+    private static String version() {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestSettings.class.getResourceAsStream("/loadtest.properties")) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties.getProperty("version");
+    }
+}
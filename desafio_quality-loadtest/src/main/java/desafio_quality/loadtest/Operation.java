@@ -0,0 +1,40 @@
+package desafio_quality.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * One kind of call in the workload: a name used in settings and reports, the route it exercises, its
+ * weight in the mix and how to build a request for it from the client's random source.
+ */
+public class Operation {
+
+    private final String name;
+    private final String route;
+    private final int weight;
+    private final Function<Random, HttpRequest> requests;
+
+    public Operation(String name, String route, int weight, Function<Random, HttpRequest> requests) {
+        this.name = name;
+        this.route = route;
+        this.weight = weight;
+        this.requests = requests;
+    }
+
+    public HttpRequest request(Random random) {
+        return this.requests.apply(random);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
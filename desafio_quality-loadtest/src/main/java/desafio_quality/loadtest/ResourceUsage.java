@@ -0,0 +1,54 @@
+package desafio_quality.loadtest;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The application's threads and the heap still reachable after a full collection, taken in this JVM where
+ * the application and the load test clients both run. The client threads, and those of the HTTP client they
+ * share, are not counted; the heap includes the clients' side of each connection, which is the same whatever
+ * stack serves it.
+ */
+public class ResourceUsage {
+
+    private static final String[] CLIENT_THREAD_PREFIXES = {LoadDriver.CLIENT_THREAD_PREFIX, "HttpClient-"};
+
+    private final int threads;
+    private final long heapBytes;
+
+    public ResourceUsage(int threads, long heapBytes) {
+        this.threads = threads;
+        this.heapBytes = heapBytes;
+    }
+
+    /**
+     * Collects the heap before reading it, so what is left is what the application and the connections hold.
+     */
+    public static ResourceUsage measure() {
+        System.gc();
+        long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        int threads = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!isClientThread(thread.getName())) {
+                threads++;
+            }
+        }
+        return new ResourceUsage(threads, heapBytes);
+    }
+
+    private static boolean isClientThread(String name) {
+        for (String prefix : CLIENT_THREAD_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+}
@@ -0,0 +1,45 @@
+package desafio_quality.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The web stack the application is booted with: Spring MVC on Tomcat, with a thread per request, or the
+ * WebFlux and R2DBC API of the reactive profile on Netty's event loops.
+ */
+public enum WebStack {
+
+    SERVLET(new String[0]),
+    REACTIVE(new String[]{"reactive"});
+
+    private final String[] profiles;
+
+    WebStack(String[] profiles) {
+        this.profiles = profiles;
+    }
+
+    public String[] getProfiles() {
+        return profiles.clone();
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The stacks to run for loadtest.stack: servlet, reactive or compare, which runs both one after the other.
+     */
+    public static List<WebStack> parse(String stack) {
+        switch (stack.toLowerCase(Locale.ROOT)) {
+            case "servlet":
+                return List.of(SERVLET);
+            case "reactive":
+                return List.of(REACTIVE);
+            case "compare":
+                return List.of(SERVLET, REACTIVE);
+            default:
+                throw new IllegalArgumentException(
+                        "loadtest.stack must be servlet, reactive or compare, not " + stack);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package desafio_quality.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * The weighted mix of calls to the property, room and district endpoints. Reads dominate, as they do in
+ * use; writes go to rooms and properties of the seeded dataset so the caches, derived totals and district
+ * stats are invalidated while the reads run. Both web stacks serve every call, so they answer the same mix.
+ */
+public class Workload {
+
+    private static final String[] ROOM_NAMES = {"Quarto", "Sala", "Cozinha", "Banheiro", "Escritório"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PAGE_SIZE = 20;
+
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+
+    public Workload(URI baseUri, LoadTestSettings settings, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.operations = operations();
+        if (this.operations.isEmpty()) {
+            throw new IllegalArgumentException("Every operation of the load test has weight 0");
+        }
+
+        this.cumulativeWeights = new int[this.operations.size()];
+        int total = 0;
+        for (int i = 0; i < this.operations.size(); i++) {
+            total += this.operations.get(i).getWeight();
+            this.cumulativeWeights[i] = total;
+        }
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public Operation next(Random random) {
+        int target = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (target < this.cumulativeWeights[i]) {
+                return this.operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Weights are not cumulative");
+    }
+
+    private List<Operation> operations() {
+        List<Operation> all = List.of(
+                operation("property", "GET /properties/{id}", 10,
+                        random -> get("/properties/" + propertyId(random))),
+                operation("property-rooms", "GET /properties/{id}/rooms", 6,
+                        random -> get("/properties/" + propertyId(random) + "/rooms")),
+                operation("property-total-area", "GET /properties/{id}/totalArea", 10,
+                        random -> get("/properties/" + propertyId(random) + "/totalArea")),
+                operation("property-value", "GET /properties/{id}/value", 10,
+                        random -> get("/properties/" + propertyId(random) + "/value")),
+                operation("property-largest-room", "GET /properties/{id}/largestRoom", 6,
+                        random -> get("/properties/" + propertyId(random) + "/largestRoom")),
+                operation("property-rooms-area", "GET /properties/{id}/roomsArea", 6,
+                        random -> get("/properties/" + propertyId(random) + "/roomsArea")),
+                operation("property-page", "GET /properties?pageNumber", 3,
+                        random -> get("/properties?pageSize=" + PAGE_SIZE
+                                + "&pageNumber=" + random.nextInt(pages(this.settings.getProperties())))),
+                operation("property-search", "GET /properties/search", 4,
+                        random -> get("/properties/search?districtId=" + districtId(random)
+                                + "&minArea=" + (50 + random.nextInt(500))
+                                + "&sortBy=value&direction=desc&pageSize=" + PAGE_SIZE)),
+                operation("property-ranking", "GET /properties/rankings/area", 2,
+                        random -> get("/properties/rankings/area?limit=" + PAGE_SIZE
+                                + "&districtId=" + districtId(random))),
+                operation("property-values", "POST /properties/values", 3,
+                        random -> post("/properties/values", LongStream.range(0, PAGE_SIZE)
+                                .map(i -> propertyId(random))
+                                .boxed()
+                                .collect(Collectors.toList()))),
+                operation("property-update", "PUT /properties/{id}", 2,
+                        random -> put("/properties/" + propertyId(random),
+                                new UpsertPropertyDTO("Casa " + random.nextInt(100_000), districtId(random)))),
+                operation("room", "GET /rooms/{id}", 8,
+                        random -> get("/rooms/" + roomId(random))),
+                operation("room-page", "GET /rooms?pageNumber", 3,
+                        random -> get("/rooms?pageSize=" + PAGE_SIZE
+                                + "&pageNumber=" + random.nextInt(pages(this.settings.getRooms())))),
+                operation("room-create", "POST /rooms/property/{id}", 4,
+                        random -> post("/rooms/property/" + propertyId(random), room(random))),
+                operation("room-update", "PUT /rooms/{id}", 3,
+                        random -> put("/rooms/" + roomId(random), room(random))),
+                operation("district", "GET /districts/{id}", 4,
+                        random -> get("/districts/" + districtId(random))),
+                operation("district-page", "GET /districts?pageNumber", 2,
+                        random -> get("/districts?pageSize=" + PAGE_SIZE
+                                + "&pageNumber=" + random.nextInt(pages(this.settings.getDistricts())))),
+                operation("district-stats", "GET /districts/{id}/stats", 4,
+                        random -> get("/districts/" + districtId(random) + "/stats")));
+
+        List<Operation> weighted = new ArrayList<>();
+        for (Operation operation : all) {
+            if (operation.getWeight() < 0) {
+                throw new IllegalArgumentException("The weight of " + operation.getName() + " cannot be negative");
+            }
+            if (operation.getWeight() > 0) {
+                weighted.add(operation);
+            }
+        }
+        return Collections.unmodifiableList(weighted);
+    }
+
+    private Operation operation(String name, String route, int defaultWeight,
+                                Function<Random, HttpRequest> requests) {
+        return new Operation(name, route, this.settings.weight(name, defaultWeight), requests);
+    }
+
+    private long propertyId(Random random) {
+        return 1 + random.nextInt(this.settings.getProperties());
+    }
+
+    private long districtId(Random random) {
+        return 1 + random.nextInt(this.settings.getDistricts());
+    }
+
+    private long roomId(Random random) {
+        return 1 + (long) (random.nextDouble() * this.settings.getRooms());
+    }
+
+    private static int pages(long rows) {
+        return (int) Math.max(1, (rows + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    private static UpsertRoomDTO room(Random random) {
+        return new UpsertRoomDTO(ROOM_NAMES[random.nextInt(ROOM_NAMES.length)],
+                1 + random.nextInt(25), 1 + random.nextInt(33));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, Object body) {
+        return request(path).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(this.baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+    }
+
+    private String json(Object body) {
+        try {
+            return this.objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -2,8 +2,13 @@ package desafio_quality;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * R2dbcAutoConfiguration is left out because a ConnectionFactory bean makes Spring Boot back off from the
+ * JDBC DataSource that JPA depends on. The reactive stack builds its own pool in ReactiveConfiguration.
+ */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class DesafioQualityApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,28 @@
+package desafio_quality.configurations;
+
+import desafio_quality.services.SyntheticDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("perf")
+public class PerfConfiguration implements CommandLineRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerfConfiguration.class);
+
+    private final SyntheticDataService syntheticDataService;
+
+    public PerfConfiguration(SyntheticDataService syntheticDataService) {
+        this.syntheticDataService = syntheticDataService;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.nanoTime();
+        long rooms = syntheticDataService.generate();
+        LOGGER.info("Generated synthetic dataset with {} rooms in {} ms", rooms, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,81 @@
+package desafio_quality.configurations;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * The R2DBC connections of the reactive read API, to the same in-memory H2 database JPA creates and writes,
+ * with the credentials of the JDBC DataSource.
+ * The pool is only reachable through the DatabaseClient, so it never counts as a ConnectionFactory bean and
+ * the JDBC DataSource stays configured next to it.
+ * The H2 driver blocks the thread that runs a query, so queries run on a fixed pool of one thread per
+ * connection that takes them from a shared queue. With as many threads as connections, a query does not wait
+ * for a connection to be freed and then run on the thread that freed it, and no query waits behind a busy
+ * thread while another is idle, as it can in the per-thread queues of the bounded elastic scheduler.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+    private final Scheduler databaseScheduler;
+
+    public ReactiveConfiguration(
+            @Value("${properties.reactive.r2dbc-url:r2dbc:h2:mem:///desafio-quality}") String url,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${properties.reactive.pool-size:10}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(1)
+                .maxSize(poolSize)
+                .build());
+        this.databaseScheduler = Schedulers.fromExecutorService(
+                Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("r2dbc-")), "r2dbc");
+    }
+
+    /**
+     * Serves on Netty's event loops, which Spring Boot would otherwise pass over for Tomcat, the servlet stack's
+     * server, also on the classpath.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(this.connectionPool);
+    }
+
+    /**
+     * The threads the reactive repositories subscribe their queries on.
+     */
+    @Bean
+    public Scheduler databaseScheduler() {
+        return this.databaseScheduler;
+    }
+
+    @Override
+    public void destroy() {
+        this.connectionPool.dispose();
+        this.databaseScheduler.dispose();
+    }
+}
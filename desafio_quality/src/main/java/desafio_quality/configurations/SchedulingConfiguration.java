@@ -0,0 +1,26 @@
+package desafio_quality.configurations;
+
+import desafio_quality.services.PropertyService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+    private final PropertyService propertyService;
+
+    public SchedulingConfiguration(PropertyService propertyService) {
+        this.propertyService = propertyService;
+    }
+
+    /**
+     * Rebuilds Property.totalArea and roomCount from the room table, correcting any drift
+     * left by the incremental updates.
+     */
+    @Scheduled(cron = "${properties.total-area.reconciliation-cron:0 0 3 * * *}")
+    public void reconcileTotalAreas() {
+        this.propertyService.reconcileTotalAreas();
+    }
+}
@@ -0,0 +1,71 @@
+package desafio_quality.configurations;
+
+import desafio_quality.metrics.RequestSqlStats;
+import desafio_quality.metrics.SqlStatementInspector;
+import desafio_quality.metrics.SqlTrackingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts what Hibernate does for each request: statements through a StatementInspector, entity loads and
+ * collection initializations through event listeners, all reported by SqlTrackingFilter.
+ */
+@Configuration
+public class SqlTrackingConfiguration {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SqlTrackingConfiguration(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Bean
+    public static HibernatePropertiesCustomizer sqlStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<SqlTrackingFilter> sqlTrackingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${properties.sql-tracking.response-headers:true}") boolean responseHeaders,
+            @Value("${properties.sql-tracking.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        FilterRegistrationBean<SqlTrackingFilter> registration = new FilterRegistrationBean<>(
+                new SqlTrackingFilter(meterRegistry, responseHeaders, repeatedStatementThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @PostConstruct
+    public void registerLoadListeners() {
+        EventListenerRegistry listeners = this.entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+        });
+        listeners.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.collectionLoaded();
+            }
+        });
+    }
+}
@@ -2,16 +2,26 @@ package desafio_quality.controllers;
 
 import desafio_quality.dtos.ErrorMessageDTO;
 import desafio_quality.dtos.ExceptionDTO;
+import desafio_quality.exceptions.InvalidCursorException;
+import desafio_quality.exceptions.PreconditionFailedException;
 import desafio_quality.exceptions.PropertyHasNoRoomsException;
 import desafio_quality.exceptions.ResourceNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.ElementKind;
+import javax.validation.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,12 +35,43 @@ public class ControllerAdvice {
         return new ResponseEntity<>(new ExceptionDTO(ex.getMessage()), HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ExceptionDTO> handlePreconditionFailedExceptions(RuntimeException ex){
+        return new ResponseEntity<>(new ExceptionDTO(ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Reached only when an update kept losing to concurrent ones through all of its retries.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ExceptionDTO> handleConflictExceptions(RuntimeException ex){
+        return new ResponseEntity<>(new ExceptionDTO(ex.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ExceptionDTO> handleBadRequestExceptions(RuntimeException ex){
+        return new ResponseEntity<>(new ExceptionDTO(ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public Map<String, List<ErrorMessageDTO>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    @ExceptionHandler({ MethodArgumentNotValidException.class, BindException.class })
+    public Map<String, List<ErrorMessageDTO>> handleValidationExceptions(BindException ex) {
+        return errorsOf(ex.getBindingResult());
+    }
+
+    /**
+     * The binding failures of the reactive controllers, answered like those of the servlet ones.
+     */
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public Map<String, List<ErrorMessageDTO>> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        return errorsOf(ex.getBindingResult());
+    }
+
+    private static Map<String, List<ErrorMessageDTO>> errorsOf(BindingResult bindingResult) {
         Map<String, List<ErrorMessageDTO>> errors = new HashMap<>();
 
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
 
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
@@ -45,4 +86,43 @@ public class ControllerAdvice {
 
         return errors;
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(ConstraintViolationException.class)
+    public Map<String, List<ErrorMessageDTO>> handleConstraintViolationExceptions(ConstraintViolationException ex) {
+        Map<String, List<ErrorMessageDTO>> errors = new HashMap<>();
+
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            String fieldName = fieldNameOf(violation.getPropertyPath());
+
+            List<ErrorMessageDTO> errorMessages =
+                errors.getOrDefault(fieldName, new ArrayList<>());
+
+            errorMessages.add(new ErrorMessageDTO(violation.getMessage()));
+
+            errors.put(fieldName, errorMessages);
+        }
+
+        return errors;
+    }
+
+    /**
+     * Drops the method node of a method validation path, so "createRooms.upsertRoomDtos[0].name"
+     * is reported as "upsertRoomDtos[0].name".
+     */
+    private static String fieldNameOf(Path propertyPath) {
+        StringBuilder fieldName = new StringBuilder();
+        for (Path.Node node : propertyPath) {
+            if (node.getKind() == ElementKind.METHOD) {
+                continue;
+            }
+            if (node.getIndex() != null) {
+                fieldName.append('[').append(node.getIndex()).append(']');
+            }
+            if (node.getName() != null) {
+                fieldName.append(fieldName.length() > 0 ? "." : "").append(node.getName());
+            }
+        }
+        return fieldName.toString();
+    }
 }
\ No newline at end of file
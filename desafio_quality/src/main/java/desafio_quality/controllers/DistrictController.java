@@ -1,22 +1,41 @@
 package desafio_quality.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
 import desafio_quality.services.DistrictService;
+import desafio_quality.services.Versioned;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Validated
 @RequestMapping("districts")
 public class DistrictController {
 
     private final DistrictService districtService;
+    private final ObjectMapper mapper;
 
-    public DistrictController(DistrictService districtService) {
+    public DistrictController(DistrictService districtService, ObjectMapper mapper) {
         this.districtService = districtService;
+        this.mapper = mapper;
     }
 
     @GetMapping
@@ -24,11 +43,52 @@ public class DistrictController {
         return this.districtService.getAllDistricts();
     }
 
+    @GetMapping(params = "pageNumber")
+    public Page<DistrictDTO> getAllDistricts(
+            @RequestParam Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize){
+        return this.districtService.getAllDistricts(pageNumber, pageSize);
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPageDTO<DistrictDTO> getAllDistricts(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 bairro.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 bairros.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount){
+        return this.districtService.getDistrictsAfter(cursor, pageSize, includeCount);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDistricts(){
+        return NdjsonResponses.of(this.mapper, this.districtService::streamAllDistricts);
+    }
+
+    @GetMapping("stats")
+    public List<DistrictStatsDTO> getAllStats(){
+        return this.districtService.getAllStats();
+    }
+
     @GetMapping("{districtId}")
-    public DistrictDTO getByIdDistrict(@PathVariable Long districtId){
+    public DistrictDTO getByIdDistrict(@PathVariable Long districtId, WebRequest request){
+        if (request.checkNotModified(this.districtService.getDistrictETag(districtId))) {
+            return null;
+        }
         return this.districtService.getDistrictById(districtId);
     }
 
+    @GetMapping("{districtId}/stats")
+    public DistrictStatsDTO getStats(@PathVariable Long districtId){
+        return this.districtService.getStats(districtId);
+    }
+
+    @GetMapping("{districtId}/revaluation")
+    public RevaluationJobDTO getRevaluation(@PathVariable Long districtId){
+        return this.districtService.getRevaluation(districtId);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public DistrictDTO createDistrict(@RequestBody @Valid CreateDistrictDTO createDistrictDTO){
@@ -36,8 +96,12 @@ public class DistrictController {
     }
 
     @PutMapping("{districtId}")
-    public DistrictDTO updateDistrict(@PathVariable Long districtId, @RequestBody @Valid CreateDistrictDTO createDistrictDTO){
-        return this.districtService.updateDistrict(districtId, createDistrictDTO);
+    public ResponseEntity<DistrictDTO> updateDistrict(
+            @PathVariable Long districtId,
+            @RequestBody @Valid CreateDistrictDTO createDistrictDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Versioned<DistrictDTO> district = this.districtService.updateDistrict(districtId, createDistrictDTO, ifMatch);
+        return ResponseEntity.ok().eTag(district.getETag()).body(district.getBody());
     }
 
     @DeleteMapping("{districtId}")
@@ -3,21 +3,40 @@ package desafio_quality.controllers;
 import desafio_quality.dtos.PropertyRoomsAreaDTO;
 import desafio_quality.dtos.RoomDTO;
 import desafio_quality.dtos.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import desafio_quality.services.PropertyService;
+import desafio_quality.services.Versioned;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Validated
 @RequestMapping("properties")
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final ObjectMapper mapper;
 
-    public PropertyController(PropertyService propertyService) {
+    public PropertyController(PropertyService propertyService, ObjectMapper mapper) {
         this.propertyService = propertyService;
+        this.mapper = mapper;
     }
 
     @PostMapping("")
@@ -26,8 +45,14 @@ public class PropertyController {
         return this.propertyService.createProperty(createProperty);
     }
 
+    /**
+     * Answers a matching If-None-Match with 304 before the property is loaded.
+     */
     @GetMapping("{propertyId}")
-    public PropertyDTO getProperty(@PathVariable Long propertyId) {
+    public PropertyDTO getProperty(@PathVariable Long propertyId, WebRequest request) {
+        if (request.checkNotModified(this.propertyService.getPropertyETag(propertyId))) {
+            return null;
+        }
         return this.propertyService.getPropertyById(propertyId);
     }
 
@@ -36,14 +61,48 @@ public class PropertyController {
         return this.propertyService.getAllProperties();
     }
 
+    @GetMapping(value = "", params = "pageNumber")
+    public Page<PropertyDTO> getAllProperties(
+            @RequestParam Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) {
+        return this.propertyService.getAllProperties(pageNumber, pageSize);
+    }
+
+    @GetMapping(value = "", params = "cursor")
+    public CursorPageDTO<PropertyDTO> getAllProperties(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 propriedade.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 propriedades.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return this.propertyService.getPropertiesAfter(cursor, pageSize, includeCount);
+    }
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProperties() {
+        return NdjsonResponses.of(this.mapper, this.propertyService::streamAllProperties);
+    }
+
     @GetMapping("{propertyId}/rooms")
-    public List<RoomDTO> getPropertyRooms(@PathVariable Long propertyId) {
+    public List<RoomDTO> getPropertyRooms(@PathVariable Long propertyId, WebRequest request) {
+        if (request.checkNotModified(this.propertyService.getPropertyRoomsETag(propertyId))) {
+            return null;
+        }
         return this.propertyService.getPropertyRooms(propertyId);
     }
 
+    /**
+     * Applied only when If-Match, if sent, matches the current ETag of the property, and answered with 412
+     * otherwise.
+     */
     @PutMapping("{propertyId}")
-    public PropertyDTO updateProperty(@PathVariable Long propertyId, @RequestBody @Valid UpsertPropertyDTO upsertPropertyDTO) {
-        return this.propertyService.updateProperty(propertyId, upsertPropertyDTO);
+    public ResponseEntity<PropertyDTO> updateProperty(
+            @PathVariable Long propertyId,
+            @RequestBody @Valid UpsertPropertyDTO upsertPropertyDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<PropertyDTO> property = this.propertyService.updateProperty(propertyId, upsertPropertyDTO, ifMatch);
+        return ResponseEntity.ok().eTag(property.getETag()).body(property.getBody());
     }
 
     @DeleteMapping("{propertyId}")
@@ -58,6 +117,50 @@ public class PropertyController {
         return propertyService.getValue(id);
     }
 
+    @PostMapping("values")
+    public List<PropertyValuationDTO> getValues(
+            @RequestBody
+            @NotEmpty(message = "A lista de IDs não pode estar vazia.")
+            @Size(max = 5000, message = "A lista de IDs não pode exceder 5000 IDs.")
+            List<@NotNull(message = "O ID da propriedade não pode estar vazio.") Long> propertyIds) {
+        return propertyService.getValues(propertyIds);
+    }
+
+    @GetMapping("search")
+    public Page<PropertySummaryDTO> searchProperties(@Valid PropertySearchDTO search) {
+        return propertyService.searchProperties(search);
+    }
+
+    @GetMapping("rankings/area")
+    public List<PropertySummaryDTO> getLargestProperties(
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "O limite deve ser de pelo menos 1 propriedade.")
+            @Max(value = 1000, message = "O limite não pode exceder 1000 propriedades.")
+            int limit) {
+        return propertyService.getLargestProperties(districtId, limit);
+    }
+
+    @GetMapping("rankings/value")
+    public List<PropertySummaryDTO> getMostValuableProperties(
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "O limite deve ser de pelo menos 1 propriedade.")
+            @Max(value = 1000, message = "O limite não pode exceder 1000 propriedades.")
+            int limit) {
+        return propertyService.getMostValuableProperties(districtId, limit);
+    }
+
+    @GetMapping("values/cache")
+    public CacheStatsDTO getValueCacheStats() {
+        return propertyService.getValueCacheStats();
+    }
+
+    @GetMapping("rooms/readModel")
+    public RoomReadModelStatsDTO getRoomReadModelStats() {
+        return propertyService.getRoomReadModelStats();
+    }
+
     @GetMapping("{id}/totalArea")
     public PropertyAreaDTO getTotalArea(@PathVariable Long id){
         return propertyService.getTotalArea(id);
@@ -69,6 +172,14 @@ public class PropertyController {
         return propertyService.getLargestRoom(propertyId);
     }
 
+    @GetMapping("{propertyId}/roomsByArea")
+    public List<RoomAreaDTO> getRoomsByArea(
+            @PathVariable(value = "propertyId") Long propertyId,
+            @RequestParam(required = false) Double minArea,
+            @RequestParam(required = false) Double maxArea){
+        return propertyService.getRoomsByArea(propertyId, minArea, maxArea);
+    }
+
     @GetMapping("{propertyId}/roomsArea")
     public PropertyRoomsAreaDTO getRoomsArea(@PathVariable(value = "propertyId") Long propertyId){
         return propertyService.getRoomsArea(propertyId);
@@ -0,0 +1,120 @@
+package desafio_quality.controllers;
+
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.services.ReactiveDistrictService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * The endpoints of DistrictController on WebFlux, with the same paths, parameters, validation and JSON.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Validated
+@RequestMapping("districts")
+public class ReactiveDistrictController {
+
+    private final ReactiveDistrictService districtService;
+
+    public ReactiveDistrictController(ReactiveDistrictService districtService) {
+        this.districtService = districtService;
+    }
+
+    @GetMapping
+    public Flux<DistrictDTO> getAllDistricts() {
+        return this.districtService.getAllDistricts();
+    }
+
+    @GetMapping(params = "pageNumber")
+    public Mono<Page<DistrictDTO>> getAllDistricts(
+            @RequestParam Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) {
+        return this.districtService.getAllDistricts(pageNumber, pageSize);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<CursorPageDTO<DistrictDTO>> getAllDistricts(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 bairro.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 bairros.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return this.districtService.getDistrictsAfter(cursor, pageSize, includeCount);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DistrictDTO> streamAllDistricts() {
+        return this.districtService.getAllDistricts();
+    }
+
+    @GetMapping("stats")
+    public Flux<DistrictStatsDTO> getAllStats() {
+        return this.districtService.getAllStats();
+    }
+
+    @GetMapping("{districtId}")
+    public Mono<DistrictDTO> getByIdDistrict(@PathVariable Long districtId, ServerWebExchange exchange) {
+        return this.districtService.getDistrictETag(districtId).flatMap(eTag -> exchange.checkNotModified(eTag)
+                ? Mono.empty()
+                : this.districtService.getDistrictById(districtId));
+    }
+
+    @GetMapping("{districtId}/stats")
+    public Mono<DistrictStatsDTO> getStats(@PathVariable Long districtId) {
+        return this.districtService.getStats(districtId);
+    }
+
+    @GetMapping("{districtId}/revaluation")
+    public Mono<RevaluationJobDTO> getRevaluation(@PathVariable Long districtId) {
+        return this.districtService.getRevaluation(districtId);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<DistrictDTO> createDistrict(@RequestBody @Valid CreateDistrictDTO createDistrictDTO) {
+        return this.districtService.createDistrict(createDistrictDTO);
+    }
+
+    @PutMapping("{districtId}")
+    public Mono<ResponseEntity<DistrictDTO>> updateDistrict(
+            @PathVariable Long districtId,
+            @RequestBody @Valid CreateDistrictDTO createDistrictDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return this.districtService.updateDistrict(districtId, createDistrictDTO, ifMatch)
+                .map(district -> ResponseEntity.ok().eTag(district.getETag()).body(district.getBody()));
+    }
+
+    @DeleteMapping("{districtId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteDistrict(@PathVariable Long districtId) {
+        return this.districtService.deleteDistrict(districtId);
+    }
+}
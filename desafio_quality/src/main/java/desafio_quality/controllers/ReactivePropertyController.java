@@ -0,0 +1,203 @@
+package desafio_quality.controllers;
+
+import desafio_quality.dtos.CacheStatsDTO;
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.PropertyAreaDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.PropertySearchDTO;
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.RoomReadModelStatsDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.services.ReactivePropertyService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * The endpoints of PropertyController on WebFlux, with the same paths, parameters, validation and JSON.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Validated
+@RequestMapping("properties")
+public class ReactivePropertyController {
+
+    private final ReactivePropertyService propertyService;
+
+    public ReactivePropertyController(ReactivePropertyService propertyService) {
+        this.propertyService = propertyService;
+    }
+
+    @PostMapping("")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<PropertyDTO> createProperty(@RequestBody @Valid UpsertPropertyDTO createProperty) {
+        return this.propertyService.createProperty(createProperty);
+    }
+
+    /**
+     * Answers a matching If-None-Match with 304 before the property is loaded.
+     */
+    @GetMapping("{propertyId}")
+    public Mono<PropertyDTO> getProperty(@PathVariable Long propertyId, ServerWebExchange exchange) {
+        return this.propertyService.getPropertyETag(propertyId).flatMap(eTag -> exchange.checkNotModified(eTag)
+                ? Mono.empty()
+                : this.propertyService.getPropertyById(propertyId));
+    }
+
+    @GetMapping("")
+    public Flux<PropertyDTO> getAllProperties() {
+        return this.propertyService.getAllProperties();
+    }
+
+    @GetMapping(value = "", params = "pageNumber")
+    public Mono<Page<PropertyDTO>> getAllProperties(
+            @RequestParam Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) {
+        return this.propertyService.getAllProperties(pageNumber, pageSize);
+    }
+
+    @GetMapping(value = "", params = "cursor")
+    public Mono<CursorPageDTO<PropertyDTO>> getAllProperties(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 propriedade.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 propriedades.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return this.propertyService.getPropertiesAfter(cursor, pageSize, includeCount);
+    }
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PropertyDTO> streamAllProperties() {
+        return this.propertyService.getAllProperties();
+    }
+
+    @GetMapping("{propertyId}/rooms")
+    public Mono<List<RoomDTO>> getPropertyRooms(@PathVariable Long propertyId, ServerWebExchange exchange) {
+        return this.propertyService.getPropertyRoomsETag(propertyId).flatMap(eTag -> exchange.checkNotModified(eTag)
+                ? Mono.empty()
+                : this.propertyService.getPropertyRooms(propertyId));
+    }
+
+    /**
+     * Applied only when If-Match, if sent, matches the current ETag of the property, and answered with 412
+     * otherwise.
+     */
+    @PutMapping("{propertyId}")
+    public Mono<ResponseEntity<PropertyDTO>> updateProperty(
+            @PathVariable Long propertyId,
+            @RequestBody @Valid UpsertPropertyDTO upsertPropertyDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return this.propertyService.updateProperty(propertyId, upsertPropertyDTO, ifMatch)
+                .map(property -> ResponseEntity.ok().eTag(property.getETag()).body(property.getBody()));
+    }
+
+    @DeleteMapping("{propertyId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteProperty(@PathVariable Long propertyId) {
+        return this.propertyService.deleteProperty(propertyId);
+    }
+
+    @GetMapping("{id}/value")
+    public Mono<PropertyValueDTO> getValue(@PathVariable Long id) {
+        return this.propertyService.getValue(id);
+    }
+
+    @PostMapping("values")
+    public Mono<List<PropertyValuationDTO>> getValues(
+            @RequestBody
+            @NotEmpty(message = "A lista de IDs não pode estar vazia.")
+            @Size(max = 5000, message = "A lista de IDs não pode exceder 5000 IDs.")
+            List<@NotNull(message = "O ID da propriedade não pode estar vazio.") Long> propertyIds) {
+        return this.propertyService.getValues(propertyIds);
+    }
+
+    @GetMapping("search")
+    public Mono<Page<PropertySummaryDTO>> searchProperties(@Valid PropertySearchDTO search) {
+        return this.propertyService.searchProperties(search);
+    }
+
+    @GetMapping("rankings/area")
+    public Mono<List<PropertySummaryDTO>> getLargestProperties(
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "O limite deve ser de pelo menos 1 propriedade.")
+            @Max(value = 1000, message = "O limite não pode exceder 1000 propriedades.")
+            int limit) {
+        return this.propertyService.getLargestProperties(districtId, limit);
+    }
+
+    @GetMapping("rankings/value")
+    public Mono<List<PropertySummaryDTO>> getMostValuableProperties(
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "O limite deve ser de pelo menos 1 propriedade.")
+            @Max(value = 1000, message = "O limite não pode exceder 1000 propriedades.")
+            int limit) {
+        return this.propertyService.getMostValuableProperties(districtId, limit);
+    }
+
+    @GetMapping("values/cache")
+    public Mono<CacheStatsDTO> getValueCacheStats() {
+        return this.propertyService.getValueCacheStats();
+    }
+
+    @GetMapping("rooms/readModel")
+    public Mono<RoomReadModelStatsDTO> getRoomReadModelStats() {
+        return this.propertyService.getRoomReadModelStats();
+    }
+
+    @GetMapping("{id}/totalArea")
+    public Mono<PropertyAreaDTO> getTotalArea(@PathVariable Long id) {
+        return this.propertyService.getTotalArea(id);
+    }
+
+    @GetMapping("{propertyId}/largestRoom")
+    public Mono<RoomDTO> getLargestRoom(@PathVariable(value = "propertyId") Long propertyId) {
+        return this.propertyService.getLargestRoom(propertyId);
+    }
+
+    @GetMapping("{propertyId}/roomsByArea")
+    public Mono<List<RoomAreaDTO>> getRoomsByArea(
+            @PathVariable(value = "propertyId") Long propertyId,
+            @RequestParam(required = false) Double minArea,
+            @RequestParam(required = false) Double maxArea) {
+        return this.propertyService.getRoomsByArea(propertyId, minArea, maxArea);
+    }
+
+    @GetMapping("{propertyId}/roomsArea")
+    public Mono<PropertyRoomsAreaDTO> getRoomsArea(@PathVariable(value = "propertyId") Long propertyId) {
+        return this.propertyService.getRoomsArea(propertyId);
+    }
+}
@@ -0,0 +1,107 @@
+package desafio_quality.controllers;
+
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.services.ReactiveRoomService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * The endpoints of RoomController on WebFlux, with the same paths, parameters, validation and JSON.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Validated
+@RequestMapping("rooms")
+public class ReactiveRoomController {
+
+    private final ReactiveRoomService roomService;
+
+    public ReactiveRoomController(ReactiveRoomService roomService) {
+        this.roomService = roomService;
+    }
+
+    @GetMapping
+    public Mono<Page<RoomDTO>> getAllRooms(
+            @RequestParam(required = false) Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) {
+        return this.roomService.getAllRooms(pageNumber, pageSize);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<CursorPageDTO<RoomDTO>> getAllRooms(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 cômodo.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 cômodos.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return this.roomService.getRoomsAfter(cursor, pageSize, includeCount);
+    }
+
+    @GetMapping("{roomId}")
+    public Mono<RoomDTO> getRoomById(@PathVariable Long roomId, ServerWebExchange exchange) {
+        return this.roomService.getRoomETag(roomId).flatMap(eTag -> exchange.checkNotModified(eTag)
+                ? Mono.empty()
+                : this.roomService.getRoomById(roomId));
+    }
+
+    @PostMapping("property/{propertyId}")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<RoomDTO> createRoom(
+            @PathVariable Long propertyId,
+            @RequestBody @Valid UpsertRoomDTO upsertRoomDto) {
+        return this.roomService.createRoom(propertyId, upsertRoomDto);
+    }
+
+    @PostMapping("property/{propertyId}/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<List<RoomDTO>> createRooms(
+            @PathVariable Long propertyId,
+            @RequestBody
+            @NotEmpty(message = "A lista de cômodos não pode estar vazia.")
+            @Size(max = 1000, message = "A lista de cômodos não pode exceder 1000 cômodos.")
+            List<@Valid UpsertRoomDTO> upsertRoomDtos) {
+        return this.roomService.createRooms(propertyId, upsertRoomDtos);
+    }
+
+    @PutMapping("{roomId}")
+    public Mono<ResponseEntity<RoomDTO>> updateRoom(
+            @PathVariable Long roomId,
+            @RequestBody @Valid UpsertRoomDTO upsertRoomDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return this.roomService.updateRoom(roomId, upsertRoomDto, ifMatch)
+                .map(room -> ResponseEntity.ok().eTag(room.getETag()).body(room.getBody()));
+    }
+
+    @DeleteMapping("{roomId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteRoom(@PathVariable Long roomId) {
+        return this.roomService.deleteRoom(roomId);
+    }
+}
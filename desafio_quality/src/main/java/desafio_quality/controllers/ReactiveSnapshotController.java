@@ -0,0 +1,32 @@
+package desafio_quality.controllers;
+
+import desafio_quality.dtos.SnapshotDTO;
+import desafio_quality.services.ReactiveSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * SnapshotController on WebFlux.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("snapshot")
+public class ReactiveSnapshotController {
+
+    private final ReactiveSnapshotService snapshotService;
+
+    public ReactiveSnapshotController(ReactiveSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<SnapshotDTO> writeSnapshot() {
+        return this.snapshotService.write();
+    }
+}
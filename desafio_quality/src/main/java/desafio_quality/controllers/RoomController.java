@@ -1,27 +1,43 @@
 package desafio_quality.controllers;
 
+import java.util.List;
+
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.RoomDTO;
 import desafio_quality.dtos.UpsertRoomDTO;
 import desafio_quality.services.RoomService;
+import desafio_quality.services.Versioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Validated
 @RequestMapping("rooms")
 public class RoomController {
 
@@ -40,10 +56,26 @@ public class RoomController {
         return this.roomService.getAllRooms(pageNumber, pageSize);
     }
 
+    @Operation(summary = "Get all rooms using cursor pagination")
+    @Parameter(name = "cursor", required = true, description = "The nextCursor of the previous page, empty for the first page")
+    @GetMapping(params = "cursor")
+    public CursorPageDTO<RoomDTO> getAllRooms(
+            @RequestParam String cursor,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "A página deve ter pelo menos 1 cômodo.")
+            @Max(value = CursorPageDTO.MAX_PAGE_SIZE, message = "A página não pode exceder 100 cômodos.")
+            Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return this.roomService.getRoomsAfter(cursor, pageSize, includeCount);
+    }
+
     @Operation(summary = "Get a specific room by ID")
     @Parameter(name = "roomId", required = true, description = "The room ID", example = "1")
     @GetMapping("{roomId}")
-    public RoomDTO getRoomById(@PathVariable Long roomId) {
+    public RoomDTO getRoomById(@PathVariable Long roomId, WebRequest request) {
+        if (request.checkNotModified(this.roomService.getRoomETag(roomId))) {
+            return null;
+        }
         return this.roomService.getRoomById(roomId);
     }
 
@@ -57,13 +89,28 @@ public class RoomController {
         return this.roomService.createRoom(propertyId, upsertRoomDto);
     }
 
+    @Operation(summary = "Create many rooms of a property at once")
+    @Parameter(name = "propertyId", required = true, description = "The property ID", example = "1")
+    @PostMapping("property/{propertyId}/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<RoomDTO> createRooms(
+            @PathVariable Long propertyId,
+            @RequestBody
+            @NotEmpty(message = "A lista de cômodos não pode estar vazia.")
+            @Size(max = 1000, message = "A lista de cômodos não pode exceder 1000 cômodos.")
+            List<@Valid UpsertRoomDTO> upsertRoomDtos) {
+        return this.roomService.createRooms(propertyId, upsertRoomDtos);
+    }
+
     @Operation(summary = "Update an existing room")
     @Parameter(name = "roomId", required = true, description = "The room ID", example = "1")
     @PutMapping("{roomId}")
-    public RoomDTO updateRoom(
+    public ResponseEntity<RoomDTO> updateRoom(
             @PathVariable Long roomId,
-            @RequestBody @Valid UpsertRoomDTO upsertRoomDto) {
-        return this.roomService.updateRoom(roomId, upsertRoomDto);
+            @RequestBody @Valid UpsertRoomDTO upsertRoomDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<RoomDTO> room = this.roomService.updateRoom(roomId, upsertRoomDto, ifMatch);
+        return ResponseEntity.ok().eTag(room.getETag()).body(room.getBody());
     }
 
     @Operation(summary = "Delete an existing room")
@@ -0,0 +1,94 @@
+package desafio_quality.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import desafio_quality.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A keyset page: the content plus an opaque token pointing after its last element.
+ * nextCursor is null on the last page and totalElements is only present when requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> {
+
+    /**
+     * The largest page a cursor request is served, so one request cannot fetch a whole table.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> content;
+    private String nextCursor;
+    private Long totalElements;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Builds a page from a query that fetched up to pageSize + 1 elements after the cursor,
+     * the extra element only signalling that a next page exists.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> fetched, int pageSize, Function<T, Long> idOf, Long totalElements) {
+        if (fetched.size() <= pageSize) {
+            return new CursorPageDTO<>(fetched, null, totalElements);
+        }
+        List<T> content = fetched.subList(0, pageSize);
+        return new CursorPageDTO<>(content, encodeCursor(idOf.apply(content.get(pageSize - 1))), totalElements);
+    }
+
+    /**
+     * The requested page size, or the default when absent or not positive, capped at MAX_PAGE_SIZE.
+     */
+    public static int pageSizeOf(Integer pageSize, int defaultPageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the id the cursor points after, or 0 for a null or empty cursor (the first page).
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursorException(cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package desafio_quality.dtos;
+
+import desafio_quality.repositories.DistrictStatsRepository;
+
+import java.math.BigDecimal;
+
+public class DistrictStatsDTO {
+
+    private Long districtId;
+    private String name;
+    private long propertyCount;
+    private long roomCount;
+    private double totalArea;
+    private BigDecimal totalValue;
+
+    public DistrictStatsDTO() {
+    }
+
+    public DistrictStatsDTO(
+            Long districtId,
+            String name,
+            long propertyCount,
+            long roomCount,
+            double totalArea,
+            BigDecimal totalValue) {
+        this.districtId = districtId;
+        this.name = name;
+        this.propertyCount = propertyCount;
+        this.roomCount = roomCount;
+        this.totalArea = totalArea;
+        this.totalValue = totalValue;
+    }
+
+    public static DistrictStatsDTO toDTO(DistrictStatsRepository.DistrictStatsView view) {
+        return new DistrictStatsDTO(
+                view.getDistrictId(),
+                view.getName(),
+                view.getPropertyCount(),
+                view.getRoomCount(),
+                view.getTotalArea(),
+                view.getTotalValue()
+        );
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPropertyCount() {
+        return propertyCount;
+    }
+
+    public long getRoomCount() {
+        return roomCount;
+    }
+
+    public double getTotalArea() {
+        return totalArea;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+}
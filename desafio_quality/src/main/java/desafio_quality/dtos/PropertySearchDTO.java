@@ -0,0 +1,145 @@
+package desafio_quality.dtos;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+
+public class PropertySearchDTO {
+
+    private Long districtId;
+
+    private String name;
+
+    @PositiveOrZero(message = "A área mínima não pode ser negativa.")
+    private Double minArea;
+
+    @PositiveOrZero(message = "A área máxima não pode ser negativa.")
+    private Double maxArea;
+
+    @PositiveOrZero(message = "O valor mínimo não pode ser negativo.")
+    private BigDecimal minValue;
+
+    @PositiveOrZero(message = "O valor máximo não pode ser negativo.")
+    private BigDecimal maxValue;
+
+    @PositiveOrZero(message = "O número mínimo de cômodos não pode ser negativo.")
+    private Integer minRooms;
+
+    @PositiveOrZero(message = "O número máximo de cômodos não pode ser negativo.")
+    private Integer maxRooms;
+
+    @Pattern(regexp = "id|name|totalArea|value|roomCount",
+            message = "A ordenação deve ser por id, name, totalArea, value ou roomCount.")
+    private String sortBy = "id";
+
+    @Pattern(regexp = "asc|desc", message = "A direção da ordenação deve ser asc ou desc.")
+    private String direction = "asc";
+
+    @Min(value = 0, message = "O número da página não pode ser negativo.")
+    private int pageNumber = 0;
+
+    @Min(value = 1, message = "A página deve ter pelo menos 1 propriedade.")
+    @Max(value = 100, message = "A página não pode exceder 100 propriedades.")
+    private int pageSize = 5;
+
+    public PropertySearchDTO() {
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public void setDistrictId(Long districtId) {
+        this.districtId = districtId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getMinArea() {
+        return minArea;
+    }
+
+    public void setMinArea(Double minArea) {
+        this.minArea = minArea;
+    }
+
+    public Double getMaxArea() {
+        return maxArea;
+    }
+
+    public void setMaxArea(Double maxArea) {
+        this.maxArea = maxArea;
+    }
+
+    public BigDecimal getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(BigDecimal minValue) {
+        this.minValue = minValue;
+    }
+
+    public BigDecimal getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(BigDecimal maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public Integer getMinRooms() {
+        return minRooms;
+    }
+
+    public void setMinRooms(Integer minRooms) {
+        this.minRooms = minRooms;
+    }
+
+    public Integer getMaxRooms() {
+        return maxRooms;
+    }
+
+    public void setMaxRooms(Integer maxRooms) {
+        this.maxRooms = maxRooms;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public void setPageNumber(int pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
@@ -0,0 +1,55 @@
+package desafio_quality.dtos;
+
+import java.math.BigDecimal;
+
+public class PropertySummaryDTO {
+
+    private Long id;
+    private String name;
+    private Long districtId;
+    private double totalArea;
+    private BigDecimal value;
+    private int roomCount;
+
+    public PropertySummaryDTO() {
+    }
+
+    public PropertySummaryDTO(
+            Long id,
+            String name,
+            Long districtId,
+            double totalArea,
+            BigDecimal value,
+            int roomCount) {
+        this.id = id;
+        this.name = name;
+        this.districtId = districtId;
+        this.totalArea = totalArea;
+        this.value = value;
+        this.roomCount = roomCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public double getTotalArea() {
+        return totalArea;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+}
@@ -0,0 +1,48 @@
+package desafio_quality.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertyValuationDTO {
+
+    private Long id;
+    private BigDecimal value;
+    private Double totalArea;
+    private String error;
+
+    public PropertyValuationDTO() {
+    }
+
+    public PropertyValuationDTO(Long id, BigDecimal value, double totalArea) {
+        this.id = id;
+        this.value = value;
+        this.totalArea = totalArea;
+    }
+
+    private PropertyValuationDTO(Long id, String error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    public static PropertyValuationDTO missing(Long id) {
+        return new PropertyValuationDTO(id, "Property with ID " + id + " does not exist.");
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public Double getTotalArea() {
+        return totalArea;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
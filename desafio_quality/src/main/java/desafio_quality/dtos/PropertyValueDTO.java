@@ -16,11 +16,7 @@ public class PropertyValueDTO {
     }
 
     public static PropertyValueDTO toDTO(Property property) {
-        BigDecimal totalArea = new BigDecimal(property.getTotalArea());
-        BigDecimal districtSquareMeterValue = property.getDistrict().getSquareMeterValue();
-        BigDecimal value = totalArea.multiply(districtSquareMeterValue);
-
-        return new PropertyValueDTO(value);
+        return new PropertyValueDTO(property.getValue());
     }
 
     public BigDecimal getValue() {
@@ -0,0 +1,74 @@
+package desafio_quality.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevaluationJobDTO {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private Long districtId;
+    private Status status;
+    private Long totalProperties;
+    private long revaluedProperties;
+    private int completedChunks;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public RevaluationJobDTO() {
+    }
+
+    public RevaluationJobDTO(
+            Long districtId,
+            Status status,
+            Long totalProperties,
+            long revaluedProperties,
+            int completedChunks,
+            Instant startedAt,
+            Instant finishedAt,
+            String error) {
+        this.districtId = districtId;
+        this.status = status;
+        this.totalProperties = totalProperties;
+        this.revaluedProperties = revaluedProperties;
+        this.completedChunks = completedChunks;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getTotalProperties() {
+        return totalProperties;
+    }
+
+    public long getRevaluedProperties() {
+        return revaluedProperties;
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,48 @@
+package desafio_quality.dtos;
+
+public class RoomReadModelStatsDTO {
+
+    private boolean enabled;
+    private boolean ready;
+    private long propertyCount;
+    private long roomCount;
+    private long pendingPropertyCount;
+    private long estimatedBytes;
+
+    public RoomReadModelStatsDTO() {
+    }
+
+    public RoomReadModelStatsDTO(boolean enabled, boolean ready, long propertyCount, long roomCount,
+                                 long pendingPropertyCount, long estimatedBytes) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.propertyCount = propertyCount;
+        this.roomCount = roomCount;
+        this.pendingPropertyCount = pendingPropertyCount;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getPropertyCount() {
+        return propertyCount;
+    }
+
+    public long getRoomCount() {
+        return roomCount;
+    }
+
+    public long getPendingPropertyCount() {
+        return pendingPropertyCount;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
@@ -0,0 +1,48 @@
+package desafio_quality.dtos;
+
+public class SnapshotDTO {
+
+    private String path;
+    private long districtCount;
+    private long propertyCount;
+    private long roomCount;
+    private long sizeInBytes;
+    private long elapsedMillis;
+
+    public SnapshotDTO() {
+    }
+
+    public SnapshotDTO(String path, long districtCount, long propertyCount, long roomCount,
+                       long sizeInBytes, long elapsedMillis) {
+        this.path = path;
+        this.districtCount = districtCount;
+        this.propertyCount = propertyCount;
+        this.roomCount = roomCount;
+        this.sizeInBytes = sizeInBytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getDistrictCount() {
+        return districtCount;
+    }
+
+    public long getPropertyCount() {
+        return propertyCount;
+    }
+
+    public long getRoomCount() {
+        return roomCount;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
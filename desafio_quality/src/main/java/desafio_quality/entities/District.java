@@ -9,12 +9,21 @@ import java.util.List;
 public class District {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "district_seq")
+    @SequenceGenerator(name = "district_seq", sequenceName = "district_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private BigDecimal squareMeterValue;
 
+    /**
+     * Incremented by Hibernate on every update; the ETags of the district and of its properties are made
+     * of it. Rows inserted over plain JDBC start at the column default.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @OneToMany(mappedBy = "district")
     private List<Property> properties = new ArrayList<>();
 
@@ -38,6 +47,10 @@ public class District {
         return squareMeterValue;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public List<Property> getProperties() {
         return properties;
     }
@@ -0,0 +1,45 @@
+package desafio_quality.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Running totals of a district, kept in step with its properties and rooms by DistrictStatsService.
+ */
+@Entity
+@Table(name = "district_stats")
+public class DistrictStats {
+
+    @Id
+    private Long districtId;
+
+    private long propertyCount;
+    private long roomCount;
+    private double totalArea;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    public DistrictStats() {
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public long getPropertyCount() {
+        return propertyCount;
+    }
+
+    public long getRoomCount() {
+        return roomCount;
+    }
+
+    public double getTotalArea() {
+        return totalArea;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+}
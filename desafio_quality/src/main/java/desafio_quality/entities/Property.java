@@ -1,25 +1,65 @@
 package desafio_quality.entities;
 
+import desafio_quality.valuation.FixedPointValuation;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+    @Index(name = "idx_property_area_rank", columnList = "total_area DESC, id"),
+    @Index(name = "idx_property_value_rank", columnList = "property_value DESC, id"),
+    @Index(name = "idx_property_district_area_rank", columnList = "district_id, total_area DESC, id"),
+    @Index(name = "idx_property_district_value_rank", columnList = "district_id, property_value DESC, id")
+})
 public class Property {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "property_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
     @ManyToOne
-    @JoinColumn
+    @JoinColumn(name = "district_id")
     private District district;
 
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Room> rooms = new ArrayList<>();
 
+    /**
+     * Denormalized sum of the rooms' areas and number of rooms. Kept up to date by RoomService through
+     * PropertyRepository#incrementRoomTotals and rebuilt by PropertyRepository#reconcileTotalAreas.
+     */
+    @Column(name = "total_area", nullable = false)
+    private double totalArea;
+
+    @Column(name = "room_count", nullable = false)
+    private int roomCount;
+
+    /**
+     * Persisted valuation: totalArea times the district's square meter value, in cents. Room changes
+     * update it together with totalArea; district repricings are applied by RevaluationService.
+     */
+    @Column(name = "property_value", precision = 19, scale = 2)
+    private BigDecimal value = BigDecimal.ZERO;
+
+    /**
+     * Incremented by Hibernate on every update, and by PropertyRepository#incrementRoomTotals or
+     * PropertyRepository#incrementVersion whenever one of its rooms is added, changed or removed, so it
+     * versions the rooms too. Rows inserted over plain JDBC start at the column default.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Property() {
     }
 
@@ -28,6 +68,14 @@ public class Property {
         this.district = district;
     }
 
+    /**
+     * Same formula as PropertyRepository#VALUE_OF_TOTAL_AREA: the area rounded to 4 decimals
+     * times the square meter value, rounded to cents.
+     */
+    public static BigDecimal valueOf(double totalArea, BigDecimal squareMeterValue) {
+        return FixedPointValuation.valueOf(totalArea, squareMeterValue);
+    }
+
     public Long getId() {
         return id;
     }
@@ -45,11 +93,28 @@ public class Property {
     }
 
     public double getTotalArea(){
-        return rooms.stream().map(Room::getArea).reduce(0.0, (a, b) -> a + b);
+        return totalArea;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public void setRooms(List<Room> rooms) {
         this.rooms = rooms;
+        this.totalArea = rooms.stream().mapToDouble(Room::getArea).sum();
+        this.roomCount = rooms.size();
+        if (this.district != null) {
+            this.value = valueOf(this.totalArea, this.district.getSquareMeterValue());
+        }
     }
 
     public void setName(String name) {
@@ -3,18 +3,34 @@ package desafio_quality.entities;
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_room_property_area", columnList = "property_id, area DESC, id"))
 public class Room {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private double width;
     private double length;
 
+    /**
+     * width times length, kept in step by the constructor and the setters so the database can sort and filter on it.
+     */
+    @Column(nullable = false)
+    private double area;
+
+    /**
+     * Incremented by Hibernate on every update. A room's changes also move the version of its property,
+     * which is what the ETags of the property's responses are made of.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne
-    @JoinColumn
+    @JoinColumn(name = "property_id")
     private Property property;
 
     
@@ -28,6 +44,7 @@ public class Room {
         this.name = name;
         this.width = width;
         this.length = length;
+        this.area = width * length;
         this.property = property;
     }
 
@@ -49,6 +66,7 @@ public class Room {
 
     public void setWidth(double width) {
         this.width = width;
+        this.area = width * this.length;
     }
 
     public double getLength() {
@@ -57,6 +75,7 @@ public class Room {
 
     public void setLength(double length) {
         this.length = length;
+        this.area = this.width * length;
     }
 
     public Property getProperty() {
@@ -64,6 +83,10 @@ public class Room {
     }
 
     public double getArea(){
-        return this.length * this.width;
+        return this.area;
+    }
+
+    public long getVersion() {
+        return this.version;
     }
 }
@@ -0,0 +1,8 @@
+package desafio_quality.exceptions;
+
+public class InvalidCursorException extends RuntimeException{
+
+    public InvalidCursorException(String cursor){
+        super("Cursor " + cursor + " is not valid.");
+    }
+}
@@ -0,0 +1,8 @@
+package desafio_quality.exceptions;
+
+public class PreconditionFailedException extends RuntimeException{
+
+    public PreconditionFailedException(String resource){
+        super(resource + " was changed since the version given in If-Match.");
+    }
+}
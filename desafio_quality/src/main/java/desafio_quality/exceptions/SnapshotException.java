@@ -0,0 +1,12 @@
+package desafio_quality.exceptions;
+
+public class SnapshotException extends RuntimeException{
+
+    public SnapshotException(String message){
+        super(message);
+    }
+
+    public SnapshotException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,87 @@
+package desafio_quality.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * What the persistence layer did while serving the current request: the statements Hibernate prepared,
+ * grouped by shape, the entities it loaded and the collections it initialized. Bound to the request thread
+ * by SqlTrackingFilter; work done on other threads is not counted.
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> statementsByShape = new HashMap<>();
+    private int statements;
+    private int entityLoads;
+    private int collectionLoads;
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The stats of the request being served on this thread, or null outside of one.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The statement with its literals replaced by ? and its IN lists collapsed to one parameter, so
+     * executions that differ only in their values or in the padding of their IN lists share a shape.
+     */
+    public static String shapeOf(String sql) {
+        String shape = STRING.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("(?)");
+    }
+
+    public void statementPrepared(String sql) {
+        this.statements++;
+        this.statementsByShape.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    public void entityLoaded() {
+        this.entityLoads++;
+    }
+
+    public void collectionLoaded() {
+        this.collectionLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionLoads() {
+        return collectionLoads;
+    }
+
+    /**
+     * The shape executed the most times, or null when no statement ran.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        return this.statementsByShape.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
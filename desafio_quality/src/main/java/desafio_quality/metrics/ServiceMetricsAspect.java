@@ -0,0 +1,101 @@
+package desafio_quality.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of the @Service beans as service.calls, tagged with the service, the method
+ * and the simple name of the exception it failed with, or "none". The controllers above them are timed by
+ * Spring Boot as http.server.requests.
+ * A method returning a Mono or Flux only assembles the pipeline when called, so its call is timed from each
+ * subscription until the pipeline completes, fails or is cancelled, and tagged with the exception it signals.
+ * Timers are registered on the first call of each method and outcome and looked up by method afterwards.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String METRIC = "service.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Call call = new Call(method);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            call.failed(e);
+            call.stop();
+            throw e;
+        }
+
+        if (result instanceof Mono) {
+            Mono<?> mono = (Mono<?>) result;
+            return Mono.defer(() -> {
+                Call subscription = new Call(method);
+                return mono.doOnError(subscription::failed).doFinally(signal -> subscription.stop());
+            });
+        }
+        if (result instanceof Flux) {
+            Flux<?> flux = (Flux<?>) result;
+            return Flux.defer(() -> {
+                Call subscription = new Call(method);
+                return flux.doOnError(subscription::failed).doFinally(signal -> subscription.stop());
+            });
+        }
+        call.stop();
+        return result;
+    }
+
+    private Timer timerOf(Method method, String exception) {
+        return this.timers
+                .computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(exception, e -> Timer.builder(METRIC)
+                        .description("Calls to the public methods of the services")
+                        .tag("service", method.getDeclaringClass().getSimpleName())
+                        .tag("method", method.getName())
+                        .tag("exception", exception)
+                        .register(this.meterRegistry));
+    }
+
+    /**
+     * One timed call, started when created.
+     */
+    private class Call {
+
+        private final Method method;
+        private final Timer.Sample sample = Timer.start(meterRegistry);
+        private volatile String exception = "none";
+
+        private Call(Method method) {
+            this.method = method;
+        }
+
+        private void failed(Throwable e) {
+            this.exception = e.getClass().getSimpleName();
+        }
+
+        private void stop() {
+            this.sample.stop(timerOf(this.method, this.exception));
+        }
+    }
+}
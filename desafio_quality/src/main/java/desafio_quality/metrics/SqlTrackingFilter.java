@@ -0,0 +1,169 @@
+package desafio_quality.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the statements, entity loads and collection loads of each request. The counts are recorded as
+ * distribution summaries tagged like http.server.requests and, when responseHeaders is on, returned in the
+ * X-SQL-Statements, X-Entity-Loads and X-Collection-Loads headers as they stand when the response starts
+ * being written. A request that runs one statement shape more than repeatedStatementThreshold times is
+ * logged as a suspected N+1, with its endpoint and the shape.
+ * Summaries are registered on the first request of each method, uri and status and looked up afterwards.
+ */
+public class SqlTrackingFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Loads";
+    public static final String COLLECTION_LOADS_HEADER = "X-Collection-Loads";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlTrackingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaders;
+    private final int repeatedStatementThreshold;
+    private final Map<List<String>, Summaries> summaries = new ConcurrentHashMap<>();
+
+    public SqlTrackingFilter(MeterRegistry meterRegistry, boolean responseHeaders, int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeaders = responseHeaders;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        HttpServletResponse tracked = this.responseHeaders ? new HeaderWritingResponse(response, stats) : response;
+        try {
+            chain.doFilter(request, tracked);
+            if (tracked instanceof HeaderWritingResponse) {
+                ((HeaderWritingResponse) tracked).writeHeaders();
+            }
+        } finally {
+            RequestSqlStats.end();
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String status = Integer.toString(response.getStatus());
+
+        Summaries summaries = this.summaries.computeIfAbsent(List.of(request.getMethod(), uri, status),
+                tags -> new Summaries(this.meterRegistry, tags.get(0), tags.get(1), tags.get(2)));
+        summaries.statements.record(stats.getStatements());
+        summaries.entityLoads.record(stats.getEntityLoads());
+        summaries.collectionLoads.record(stats.getCollectionLoads());
+
+        Map.Entry<String, Integer> repeated = stats.getMostRepeatedStatement();
+        if (repeated != null && repeated.getValue() > this.repeatedStatementThreshold) {
+            LOGGER.warn("Suspected N+1 on {} {}: the same statement ran {} times out of {}: {}",
+                    request.getMethod(), pattern != null ? uri : request.getRequestURI(),
+                    repeated.getValue(), stats.getStatements(), repeated.getKey());
+        }
+    }
+
+    private static class Summaries {
+
+        private final DistributionSummary statements;
+        private final DistributionSummary entityLoads;
+        private final DistributionSummary collectionLoads;
+
+        private Summaries(MeterRegistry meterRegistry, String method, String uri, String status) {
+            this.statements = summary(meterRegistry, "http.server.requests.sql.statements",
+                    "SQL statements prepared per request", method, uri, status);
+            this.entityLoads = summary(meterRegistry, "http.server.requests.entity.loads",
+                    "Entities loaded per request", method, uri, status);
+            this.collectionLoads = summary(meterRegistry, "http.server.requests.collection.loads",
+                    "Collections initialized per request", method, uri, status);
+        }
+
+        private static DistributionSummary summary(MeterRegistry meterRegistry, String name, String description,
+                                                   String method, String uri, String status) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("status", status)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Adds the headers right before the body starts, or at the end for responses without one.
+     */
+    private static class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final RequestSqlStats stats;
+        private boolean written;
+
+        private HeaderWritingResponse(HttpServletResponse response, RequestSqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeHeaders() {
+            if (this.written || isCommitted()) {
+                return;
+            }
+            this.written = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(this.stats.getStatements()));
+            setHeader(ENTITY_LOADS_HEADER, Integer.toString(this.stats.getEntityLoads()));
+            setHeader(COLLECTION_LOADS_HEADER, Integer.toString(this.stats.getCollectionLoads()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
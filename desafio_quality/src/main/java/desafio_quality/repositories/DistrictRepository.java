@@ -2,7 +2,31 @@ package desafio_quality.repositories;
 
 
 import desafio_quality.entities.District;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DistrictRepository extends JpaRepository<District, Long> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    @Query("select d.version from District d where d.id = :districtId")
+    Optional<Long> findVersionById(@Param("districtId") Long districtId);
+
+    @Query("select d from District d where d.id > :lastId order by d.id")
+    List<District> findAllAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select d from District d order by d.id")
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<District> streamAll();
 }
@@ -0,0 +1,104 @@
+package desafio_quality.repositories;
+
+import desafio_quality.entities.DistrictStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface DistrictStatsRepository extends JpaRepository<DistrictStats, Long> {
+
+    /**
+     * Aggregates every district from its properties and rooms, to be completed with a WHERE or ORDER BY on d.
+     */
+    String LIVE_STATS =
+            "SELECT d.id AS districtId, d.name AS name, " +
+            "COALESCE(p.property_count, 0) AS propertyCount, COALESCE(r.room_count, 0) AS roomCount, " +
+            "COALESCE(r.total_area, 0) AS totalArea, COALESCE(p.total_value, 0) AS totalValue " +
+            "FROM district d " +
+            "LEFT JOIN (SELECT district_id, COUNT(*) AS property_count, SUM(property_value) AS total_value " +
+            "FROM property GROUP BY district_id) p ON p.district_id = d.id " +
+            "LEFT JOIN (SELECT pr.district_id, COUNT(*) AS room_count, SUM(r.area) AS total_area " +
+            "FROM room r JOIN property pr ON pr.id = r.property_id GROUP BY pr.district_id) r ON r.district_id = d.id ";
+
+    String SUMMARY_STATS =
+            "SELECT s.district_id AS districtId, d.name AS name, s.property_count AS propertyCount, " +
+            "s.room_count AS roomCount, s.total_area AS totalArea, s.total_value AS totalValue " +
+            "FROM district_stats s JOIN district d ON d.id = s.district_id ";
+
+    interface DistrictStatsView {
+        Long getDistrictId();
+        String getName();
+        Long getPropertyCount();
+        Long getRoomCount();
+        Double getTotalArea();
+        BigDecimal getTotalValue();
+    }
+
+    @Query(nativeQuery = true, value = LIVE_STATS + "ORDER BY d.id")
+    List<DistrictStatsView> findAllLive();
+
+    /**
+     * Same figures as LIVE_STATS for a single district, filtering inside the aggregates
+     * so only that district's properties and rooms are read.
+     */
+    @Query(nativeQuery = true, value =
+            "SELECT d.id AS districtId, d.name AS name, " +
+            "(SELECT COUNT(*) FROM property p WHERE p.district_id = d.id) AS propertyCount, " +
+            "(SELECT COUNT(*) FROM room r JOIN property p ON p.id = r.property_id " +
+            "WHERE p.district_id = d.id) AS roomCount, " +
+            "(SELECT COALESCE(SUM(r.area), 0) FROM room r JOIN property p ON p.id = r.property_id " +
+            "WHERE p.district_id = d.id) AS totalArea, " +
+            "(SELECT COALESCE(SUM(p.property_value), 0) FROM property p WHERE p.district_id = d.id) AS totalValue " +
+            "FROM district d WHERE d.id = :districtId")
+    Optional<DistrictStatsView> findLiveById(@Param("districtId") Long districtId);
+
+    @Query(nativeQuery = true, value = SUMMARY_STATS + "ORDER BY s.district_id")
+    List<DistrictStatsView> findAllSummaries();
+
+    @Query(nativeQuery = true, value = SUMMARY_STATS + "WHERE s.district_id = :districtId")
+    Optional<DistrictStatsView> findSummaryById(@Param("districtId") Long districtId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "INSERT INTO district_stats (district_id, property_count, room_count, total_area, total_value) " +
+            "VALUES (:districtId, 0, 0, 0, 0)")
+    int insertEmpty(@Param("districtId") Long districtId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE district_stats SET property_count = property_count + :properties, " +
+            "room_count = room_count + :rooms, total_area = total_area + :area, " +
+            "total_value = total_value + :value WHERE district_id = :districtId")
+    int applyDelta(
+            @Param("districtId") Long districtId,
+            @Param("properties") long properties,
+            @Param("rooms") long rooms,
+            @Param("area") double area,
+            @Param("value") BigDecimal value);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE district_stats s SET total_value = " +
+            "(SELECT COALESCE(SUM(p.property_value), 0) FROM property p WHERE p.district_id = s.district_id) " +
+            "WHERE s.district_id = :districtId")
+    int refreshTotalValue(@Param("districtId") Long districtId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "DELETE FROM district_stats WHERE district_id = :districtId")
+    int deleteByDistrictId(@Param("districtId") Long districtId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "DELETE FROM district_stats")
+    int deleteAllSummaries();
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "INSERT INTO district_stats (district_id, property_count, room_count, total_area, total_value) " +
+            "SELECT districtId, propertyCount, roomCount, totalArea, totalValue FROM (" + LIVE_STATS + ")")
+    int insertAllFromLive();
+}
@@ -1,8 +1,188 @@
 package desafio_quality.repositories;
 
 
+import desafio_quality.dtos.PropertyAreaDTO;
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
 import desafio_quality.entities.Property;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertySearchRepository {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * SQL counterpart of Property#valueOf for the stored total area of p.
+     */
+    String VALUE_OF_TOTAL_AREA =
+            "ROUND((SELECT d.square_meter_value FROM district d WHERE d.id = p.district_id) * " +
+            "CAST(p.total_area AS DECIMAL(19, 4)), 2)";
+
+    /**
+     * SQL counterpart of Property#valueOf for the total area of p grown by :delta.
+     */
+    String VALUE_OF_TOTAL_AREA_PLUS_DELTA =
+            "ROUND((SELECT d.square_meter_value FROM district d WHERE d.id = p.district_id) * " +
+            "CAST(p.total_area + :delta AS DECIMAL(19, 4)), 2)";
+
+    interface ValuationView {
+        Long getDistrictId();
+        BigDecimal getValue();
+        Long getVersion();
+    }
+
+    interface VersionView {
+        Long getVersion();
+        Long getDistrictVersion();
+    }
+
+    interface RoomAreaView {
+        Long getPropertyId();
+        String getPropertyName();
+        Long getRoomId();
+        String getRoomName();
+        Double getArea();
+    }
+
+    /**
+     * Loads every property together with its district and rooms in a single statement,
+     * so mapping them to PropertyDTO does not trigger lazy loads per row.
+     */
+    @Query("select distinct p from Property p left join fetch p.district left join fetch p.rooms order by p.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Property> findAllWithDistrictAndRooms();
+
+    @Query("select distinct p from Property p left join fetch p.district left join fetch p.rooms " +
+           "where p.id in :ids order by p.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Property> findAllWithDistrictAndRoomsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select p.id from Property p", countQuery = "select count(p) from Property p")
+    Page<Long> findIds(Pageable pageable);
+
+    @Query("select p.id from Property p where p.id > :lastId order by p.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Scrolls over every property with its district and rooms. Rows are ordered by the property id so
+     * Hibernate can assemble each property from consecutive rows; the caller must detach what it consumed.
+     */
+    @Query("select p from Property p left join fetch p.district left join fetch p.rooms order by p.id")
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Property> streamAll();
+
+    @Query("select p.version as version, d.version as districtVersion from Property p left join p.district d " +
+           "where p.id = :propertyId")
+    Optional<VersionView> findVersionsById(@Param("propertyId") Long propertyId);
+
+    @Query("select new desafio_quality.dtos.PropertyAreaDTO(p.totalArea) from Property p where p.id = :propertyId")
+    Optional<PropertyAreaDTO> findTotalAreaById(@Param("propertyId") Long propertyId);
+
+    @Query("select d.id as districtId, p.value as value, p.version as version " +
+           "from Property p left join p.district d where p.id = :propertyId")
+    Optional<ValuationView> findValuationById(@Param("propertyId") Long propertyId);
+
+    /**
+     * Same as findValuationById, keeping the property row locked until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.district.id as districtId, p.value as value, p.version as version " +
+           "from Property p where p.id = :propertyId")
+    Optional<ValuationView> findValuationByIdForUpdate(@Param("propertyId") Long propertyId);
+
+    @Query("select new desafio_quality.dtos.PropertyValuationDTO(p.id, p.value, p.totalArea) " +
+           "from Property p where p.id in :ids")
+    List<PropertyValuationDTO> findValuationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    String RANKING = "select new desafio_quality.dtos.PropertySummaryDTO(" +
+            "p.id, p.name, p.district.id, p.totalArea, p.value, p.roomCount) from Property p ";
+
+    /**
+     * The ranking queries order exactly like the idx_property_*_rank indexes, so the database reads
+     * the first rows of the index instead of sorting the table. The limit is taken from the Pageable.
+     */
+    @Query(RANKING + "order by p.totalArea desc, p.id")
+    List<PropertySummaryDTO> findLargest(Pageable pageable);
+
+    @Query(RANKING + "where p.district.id = :districtId order by p.totalArea desc, p.id")
+    List<PropertySummaryDTO> findLargestByDistrictId(@Param("districtId") Long districtId, Pageable pageable);
+
+    @Query(RANKING + "order by p.value desc, p.id")
+    List<PropertySummaryDTO> findMostValuable(Pageable pageable);
+
+    @Query(RANKING + "where p.district.id = :districtId order by p.value desc, p.id")
+    List<PropertySummaryDTO> findMostValuableByDistrictId(@Param("districtId") Long districtId, Pageable pageable);
+
+    @Query("select count(p) from Property p where p.district.id = :districtId")
+    long countByDistrictId(@Param("districtId") Long districtId);
+
+    @Query("select p.id from Property p where p.district.id = :districtId and p.id > :lastId order by p.id")
+    List<Long> findIdsByDistrictAfter(
+            @Param("districtId") Long districtId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * One row per room of the property, or a single row with null room columns when it has none.
+     * An empty result means the property does not exist.
+     */
+    @Query("select p.id as propertyId, p.name as propertyName, " +
+           "r.id as roomId, r.name as roomName, r.area as area " +
+           "from Property p left join p.rooms r where p.id = :propertyId order by r.id")
+    List<RoomAreaView> findRoomAreasById(@Param("propertyId") Long propertyId);
+
+    String INCREMENT_ROOM_TOTALS =
+            "UPDATE property p SET room_count = p.room_count + :rooms, total_area = p.total_area + :delta, " +
+            "property_value = " + VALUE_OF_TOTAL_AREA_PLUS_DELTA + ", " +
+            "version = p.version + 1 WHERE p.id = :propertyId";
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = INCREMENT_ROOM_TOTALS)
+    int incrementRoomTotals(
+            @Param("propertyId") Long propertyId, @Param("rooms") int rooms, @Param("delta") double delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE property p SET version = p.version + 1 WHERE p.id = :propertyId")
+    int incrementVersion(@Param("propertyId") Long propertyId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE property p SET property_value = " + VALUE_OF_TOTAL_AREA + " " +
+            "WHERE p.id = :propertyId")
+    int revalueProperty(@Param("propertyId") Long propertyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE property p SET property_value = " + VALUE_OF_TOTAL_AREA + " " +
+            "WHERE p.district_id = :districtId AND p.id > :fromId AND p.id <= :toId")
+    int revalueDistrictRange(
+            @Param("districtId") Long districtId, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE property p SET property_value = " + VALUE_OF_TOTAL_AREA)
+    int revalueAll();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "UPDATE property p SET total_area = " +
+            "COALESCE((SELECT SUM(r.area) FROM room r WHERE r.property_id = p.id), 0), " +
+            "room_count = (SELECT COUNT(*) FROM room r WHERE r.property_id = p.id)")
+    int reconcileTotalAreas();
 }
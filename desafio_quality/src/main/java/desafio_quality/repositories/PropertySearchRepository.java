@@ -0,0 +1,16 @@
+package desafio_quality.repositories;
+
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.entities.Property;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface PropertySearchRepository {
+
+    /**
+     * Selects the summary columns of the matching properties straight into PropertySummaryDTO,
+     * without loading entities, districts or rooms.
+     */
+    Page<PropertySummaryDTO> findSummaries(Specification<Property> specification, Pageable pageable);
+}
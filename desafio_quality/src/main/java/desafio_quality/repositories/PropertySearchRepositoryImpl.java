@@ -0,0 +1,69 @@
+package desafio_quality.repositories;
+
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.entities.Property;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+class PropertySearchRepositoryImpl implements PropertySearchRepository {
+
+    private final EntityManager entityManager;
+
+    PropertySearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<PropertySummaryDTO> findSummaries(Specification<Property> specification, Pageable pageable) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<PropertySummaryDTO> query = cb.createQuery(PropertySummaryDTO.class);
+        Root<Property> property = query.from(Property.class);
+        query.select(cb.construct(PropertySummaryDTO.class,
+                property.get("id"),
+                property.get("name"),
+                property.get("district").get("id"),
+                property.get("totalArea"),
+                property.get("value"),
+                property.get("roomCount")));
+        applyPredicate(query, property, cb, specification);
+        query.orderBy(toOrders(pageable.getSort(), property, cb));
+
+        List<PropertySummaryDTO> content = this.entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Property> specification) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Property> property = query.from(Property.class);
+        query.select(cb.count(property));
+        applyPredicate(query, property, cb, specification);
+
+        return this.entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applyPredicate(
+            CriteriaQuery<?> query, Root<Property> property, CriteriaBuilder cb, Specification<Property> specification) {
+        Predicate predicate = specification.toPredicate(property, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package desafio_quality.repositories;
+
+import desafio_quality.entities.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Predicates of the property search. Each returns null when it has nothing to filter on, which
+ * Specification#and skips, so they compose freely from optional request parameters.
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> inDistrict(Long districtId) {
+        if (districtId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("district").get("id"), districtId);
+    }
+
+    public static Specification<Property> nameContains(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+    }
+
+    public static Specification<Property> totalAreaBetween(Double min, Double max) {
+        return between("totalArea", min, max);
+    }
+
+    public static Specification<Property> valueBetween(BigDecimal min, BigDecimal max) {
+        return between("value", min, max);
+    }
+
+    public static Specification<Property> roomCountBetween(Integer min, Integer max) {
+        return between("roomCount", min, max);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Property> between(String attribute, T min, T max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.get(attribute), max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), min);
+            }
+            return cb.between(root.get(attribute), min, max);
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package desafio_quality.repositories;
+
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads districts and their stats over R2DBC for the reactive read API, with the SQL of DistrictStatsRepository.
+ * Queries are subscribed on the database scheduler, since the H2 driver blocks the subscribing thread.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDistrictRepository {
+
+    private static final String DISTRICTS = "SELECT d.id, d.name, d.square_meter_value FROM district d ";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    public ReactiveDistrictRepository(DatabaseClient databaseClient, Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    public Flux<DistrictDTO> findAll() {
+        return this.databaseClient
+                .sql(DISTRICTS + "ORDER BY d.id")
+                .map(ReactiveDistrictRepository::toDistrictDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<DistrictDTO> findById(Long districtId) {
+        return this.databaseClient
+                .sql(DISTRICTS + "WHERE d.id = :districtId")
+                .bind("districtId", districtId)
+                .map(ReactiveDistrictRepository::toDistrictDTO)
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> findVersionById(Long districtId) {
+        return this.databaseClient
+                .sql("SELECT version FROM district WHERE id = :districtId")
+                .bind("districtId", districtId)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<DistrictDTO> findAll(long offset, int limit) {
+        return this.databaseClient
+                .sql(DISTRICTS + "ORDER BY d.id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveDistrictRepository::toDistrictDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<DistrictDTO> findAllAfter(long lastId, int limit) {
+        return this.databaseClient
+                .sql(DISTRICTS + "WHERE d.id > :lastId ORDER BY d.id LIMIT :limit")
+                .bind("lastId", lastId)
+                .bind("limit", limit)
+                .map(ReactiveDistrictRepository::toDistrictDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> count() {
+        return this.databaseClient
+                .sql("SELECT COUNT(*) AS total FROM district")
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<DistrictStatsDTO> findAllStats(boolean summaryTableEnabled) {
+        return this.databaseClient
+                .sql(summaryTableEnabled
+                        ? DistrictStatsRepository.SUMMARY_STATS + "ORDER BY s.district_id"
+                        : DistrictStatsRepository.LIVE_STATS + "ORDER BY d.id")
+                .map(ReactiveDistrictRepository::toDistrictStatsDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * The stats of one district, filtering LIVE_STATS on d rather than repeating the per-district aggregates of
+     * DistrictStatsRepository#findLiveById.
+     */
+    public Mono<DistrictStatsDTO> findStatsById(Long districtId, boolean summaryTableEnabled) {
+        return this.databaseClient
+                .sql(summaryTableEnabled
+                        ? DistrictStatsRepository.SUMMARY_STATS + "WHERE s.district_id = :districtId"
+                        : DistrictStatsRepository.LIVE_STATS + "WHERE d.id = :districtId")
+                .bind("districtId", districtId)
+                .map(ReactiveDistrictRepository::toDistrictStatsDTO)
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    private static DistrictDTO toDistrictDTO(Row row) {
+        return new DistrictDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("square_meter_value", BigDecimal.class));
+    }
+
+    private static DistrictStatsDTO toDistrictStatsDTO(Row row) {
+        return new DistrictStatsDTO(
+                row.get("districtId", Long.class),
+                row.get("name", String.class),
+                row.get("propertyCount", Long.class),
+                row.get("roomCount", Long.class),
+                row.get("totalArea", Double.class),
+                row.get("totalValue", BigDecimal.class));
+    }
+}
@@ -0,0 +1,380 @@
+package desafio_quality.repositories;
+
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.PropertyAreaDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.PropertySearchDTO;
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads properties over R2DBC for the reactive read API, with the same rows PropertyRepository reads over JPA.
+ * The H2 driver runs each query on the thread that subscribes, blocking it until the rows are read, so every
+ * query is subscribed on the database scheduler of ReactiveConfiguration rather than on Netty's event loop.
+ * That is thread offload, not non-blocking I/O: a query still holds a database thread while it runs, but the
+ * event loop stays free to accept and answer other connections.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePropertyRepository {
+
+    /**
+     * One row per room of each property, or a single row with null room columns when it has none, to be
+     * completed with a WHERE on p and always ordered by p.id, r.id so the rows of a property are adjacent.
+     */
+    private static final String PROPERTIES_WITH_DISTRICT_AND_ROOMS =
+            "SELECT p.id AS property_id, p.name AS property_name, " +
+            "d.id AS district_id, d.name AS district_name, d.square_meter_value, " +
+            "r.id AS room_id, r.name AS room_name, r.width, r.length " +
+            "FROM property p LEFT JOIN district d ON d.id = p.district_id " +
+            "LEFT JOIN room r ON r.property_id = p.id ";
+
+    private static final String ORDER_BY_PROPERTY_AND_ROOM = "ORDER BY p.id, r.id";
+
+    private static final String SUMMARIES =
+            "SELECT p.id, p.name, p.district_id, p.total_area, p.property_value, p.room_count FROM property p ";
+
+    /**
+     * The columns the search can sort by, keyed by the attribute names PropertySearchDTO accepts.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "totalArea", "p.total_area",
+            "value", "p.property_value",
+            "roomCount", "p.room_count");
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    public ReactivePropertyRepository(DatabaseClient databaseClient, Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    /**
+     * Every property, built as its last row goes by, so memory holds one property at a time however many
+     * there are.
+     */
+    public Flux<PropertyDTO> findAll() {
+        return this.toProperties(this.databaseClient
+                .sql(PROPERTIES_WITH_DISTRICT_AND_ROOMS + ORDER_BY_PROPERTY_AND_ROOM)
+                .map(PropertyRow::of)
+                .all());
+    }
+
+    public Flux<PropertyDTO> findAllByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return this.toProperties(this.databaseClient
+                .sql(PROPERTIES_WITH_DISTRICT_AND_ROOMS + "WHERE p.id IN (:ids) " + ORDER_BY_PROPERTY_AND_ROOM)
+                .bind("ids", ids)
+                .map(PropertyRow::of)
+                .all());
+    }
+
+    public Mono<PropertyDTO> findById(Long propertyId) {
+        return this.toProperties(this.databaseClient
+                .sql(PROPERTIES_WITH_DISTRICT_AND_ROOMS + "WHERE p.id = :propertyId " + ORDER_BY_PROPERTY_AND_ROOM)
+                .bind("propertyId", propertyId)
+                .map(PropertyRow::of)
+                .all())
+                .next();
+    }
+
+    public Flux<Long> findIds(long offset, int limit) {
+        return this.databaseClient
+                .sql("SELECT id FROM property ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<Long> findIdsAfter(long lastId, int limit) {
+        return this.databaseClient
+                .sql("SELECT id FROM property WHERE id > :lastId ORDER BY id LIMIT :limit")
+                .bind("lastId", lastId)
+                .bind("limit", limit)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> count() {
+        return this.databaseClient
+                .sql("SELECT COUNT(*) AS total FROM property")
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Boolean> existsById(Long propertyId) {
+        return this.databaseClient
+                .sql("SELECT 1 AS found FROM property WHERE id = :propertyId")
+                .bind("propertyId", propertyId)
+                .map(row -> true)
+                .one()
+                .defaultIfEmpty(false)
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<PropertyRepository.VersionView> findVersionsById(Long propertyId) {
+        return this.databaseClient
+                .sql("SELECT p.version, d.version AS district_version FROM property p " +
+                     "LEFT JOIN district d ON d.id = p.district_id WHERE p.id = :propertyId")
+                .bind("propertyId", propertyId)
+                .map(row -> (PropertyRepository.VersionView) new Versions(
+                        row.get("version", Long.class), row.get("district_version", Long.class)))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<PropertyAreaDTO> findTotalAreaById(Long propertyId) {
+        return this.databaseClient
+                .sql("SELECT total_area FROM property WHERE id = :propertyId")
+                .bind("propertyId", propertyId)
+                .map(row -> new PropertyAreaDTO(row.get("total_area", Double.class)))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<PropertyValueDTO> findValueById(Long propertyId) {
+        return this.databaseClient
+                .sql("SELECT property_value FROM property WHERE id = :propertyId")
+                .bind("propertyId", propertyId)
+                .map(row -> new PropertyValueDTO(row.get("property_value", BigDecimal.class)))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * The name of the property and its rooms in id order, like PropertyRepository#findRoomAreasById;
+     * empty when the property does not exist, without reading its rooms.
+     */
+    public Mono<PropertyRoomsAreaDTO> findRoomsAreaById(Long propertyId) {
+        return this.databaseClient
+                .sql("SELECT name FROM property WHERE id = :propertyId")
+                .bind("propertyId", propertyId)
+                .map(row -> row.get("name", String.class))
+                .one()
+                .flatMap(name -> this.databaseClient
+                        .sql("SELECT r.id, r.name, r.area FROM room r WHERE r.property_id = :propertyId ORDER BY r.id")
+                        .bind("propertyId", propertyId)
+                        .map(row -> new RoomAreaDTO(
+                                row.get("id", Long.class), row.get("name", String.class), row.get("area", Double.class)))
+                        .all()
+                        .collectList()
+                        .map(rooms -> new PropertyRoomsAreaDTO(propertyId, name, rooms)))
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * Same rows as PropertyRepository#findValuationsByIdIn, in no particular order.
+     */
+    public Flux<PropertyValuationDTO> findValuationsByIdIn(Collection<Long> ids) {
+        return this.databaseClient
+                .sql("SELECT id, property_value, total_area FROM property WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> new PropertyValuationDTO(
+                        row.get("id", Long.class),
+                        row.get("property_value", BigDecimal.class),
+                        row.get("total_area", Double.class)))
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * The ranking queries order exactly like the idx_property_*_rank indexes, as PropertyRepository#findLargest
+     * and PropertyRepository#findMostValuable do.
+     */
+    public Flux<PropertySummaryDTO> findLargest(Long districtId, int limit) {
+        return findRanking("p.total_area", districtId, limit);
+    }
+
+    public Flux<PropertySummaryDTO> findMostValuable(Long districtId, int limit) {
+        return findRanking("p.property_value", districtId, limit);
+    }
+
+    private Flux<PropertySummaryDTO> findRanking(String column, Long districtId, int limit) {
+        String where = districtId != null ? "WHERE p.district_id = :districtId " : "";
+        DatabaseClient.GenericExecuteSpec spec = this.databaseClient
+                .sql(SUMMARIES + where + "ORDER BY " + column + " DESC, p.id LIMIT :limit")
+                .bind("limit", limit);
+        if (districtId != null) {
+            spec = spec.bind("districtId", districtId);
+        }
+        return spec.map(ReactivePropertyRepository::toSummaryDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * One page of the properties matching the filters of the search, with the predicates of
+     * PropertySpecifications and ordered by the requested attribute, then by id.
+     */
+    public Flux<PropertySummaryDTO> search(PropertySearchDTO search) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sortColumn = SORT_COLUMNS.get(search.getSortBy());
+        String direction = Sort.Direction.fromString(search.getDirection()).name();
+        String orderBy = "ORDER BY " + sortColumn + " " + direction + ("p.id".equals(sortColumn) ? "" : ", p.id");
+
+        bindings.put("limit", search.getPageSize());
+        bindings.put("offset", (long) search.getPageNumber() * search.getPageSize());
+        return bindAll(this.databaseClient.sql(
+                        SUMMARIES + where(search, bindings) + orderBy + " LIMIT :limit OFFSET :offset"), bindings)
+                .map(ReactivePropertyRepository::toSummaryDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> countSearch(PropertySearchDTO search) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        return bindAll(this.databaseClient.sql(
+                        "SELECT COUNT(*) AS total FROM property p " + where(search, bindings)), bindings)
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * The WHERE clause of the filters that were given, adding their values to the bindings.
+     */
+    private static String where(PropertySearchDTO search, Map<String, Object> bindings) {
+        List<String> predicates = new ArrayList<>();
+        if (search.getDistrictId() != null) {
+            predicates.add("p.district_id = :districtId");
+            bindings.put("districtId", search.getDistrictId());
+        }
+        if (search.getName() != null && !search.getName().isBlank()) {
+            predicates.add("LOWER(p.name) LIKE :name");
+            bindings.put("name", "%" + search.getName().toLowerCase() + "%");
+        }
+        between(predicates, bindings, "p.total_area", "Area", search.getMinArea(), search.getMaxArea());
+        between(predicates, bindings, "p.property_value", "Value", search.getMinValue(), search.getMaxValue());
+        between(predicates, bindings, "p.room_count", "Rooms", search.getMinRooms(), search.getMaxRooms());
+        return predicates.isEmpty() ? "" : "WHERE " + String.join(" AND ", predicates) + " ";
+    }
+
+    private static void between(List<String> predicates, Map<String, Object> bindings,
+                                String column, String name, Object min, Object max) {
+        if (min != null) {
+            predicates.add(column + " >= :min" + name);
+            bindings.put("min" + name, min);
+        }
+        if (max != null) {
+            predicates.add(column + " <= :max" + name);
+            bindings.put("max" + name, max);
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(
+            DatabaseClient.GenericExecuteSpec spec, Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static PropertySummaryDTO toSummaryDTO(Row row) {
+        return new PropertySummaryDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("district_id", Long.class),
+                row.get("total_area", Double.class),
+                row.get("property_value", BigDecimal.class),
+                row.get("room_count", Integer.class));
+    }
+
+    private Flux<PropertyDTO> toProperties(Flux<PropertyRow> rows) {
+        return rows.bufferUntilChanged(row -> row.propertyId)
+                .map(PropertyRow::toDTO)
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    private static class PropertyRow {
+
+        private final Long propertyId;
+        private final String propertyName;
+        private final DistrictDTO district;
+        private final RoomDTO room;
+
+        private PropertyRow(Long propertyId, String propertyName, DistrictDTO district, RoomDTO room) {
+            this.propertyId = propertyId;
+            this.propertyName = propertyName;
+            this.district = district;
+            this.room = room;
+        }
+
+        private static PropertyRow of(Row row) {
+            Long districtId = row.get("district_id", Long.class);
+            Long roomId = row.get("room_id", Long.class);
+            return new PropertyRow(
+                    row.get("property_id", Long.class),
+                    row.get("property_name", String.class),
+                    districtId == null ? null : new DistrictDTO(districtId,
+                            row.get("district_name", String.class),
+                            row.get("square_meter_value", BigDecimal.class)),
+                    roomId == null ? null : new RoomDTO(roomId,
+                            row.get("room_name", String.class),
+                            row.get("width", Double.class),
+                            row.get("length", Double.class)));
+        }
+
+        /**
+         * The property of the adjacent rows, with the room of each row that has one.
+         */
+        private static PropertyDTO toDTO(List<PropertyRow> rows) {
+            PropertyRow first = rows.get(0);
+            List<RoomDTO> rooms = new ArrayList<>(rows.size());
+            for (PropertyRow row : rows) {
+                if (row.room != null) {
+                    rooms.add(row.room);
+                }
+            }
+            return new PropertyDTO(first.propertyId, first.propertyName, first.district, rooms);
+        }
+    }
+
+    private static class Versions implements PropertyRepository.VersionView {
+
+        private final Long version;
+        private final Long districtVersion;
+
+        private Versions(Long version, Long districtVersion) {
+            this.version = version;
+            this.districtVersion = districtVersion;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+
+        @Override
+        public Long getDistrictVersion() {
+            return districtVersion;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package desafio_quality.repositories;
+
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reads rooms over R2DBC for the reactive read API, in the order RoomRepository reads them over JPA.
+ * Queries are subscribed on the database scheduler, since the H2 driver blocks the subscribing thread.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoomRepository {
+
+    private static final String ROOMS = "SELECT r.id, r.name, r.width, r.length FROM room r ";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    public ReactiveRoomRepository(DatabaseClient databaseClient, Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    public Mono<RoomDTO> findById(Long roomId) {
+        return this.databaseClient
+                .sql(ROOMS + "WHERE r.id = :roomId")
+                .bind("roomId", roomId)
+                .map(ReactiveRoomRepository::toRoomDTO)
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> findVersionById(Long roomId) {
+        return this.databaseClient
+                .sql("SELECT version FROM room WHERE id = :roomId")
+                .bind("roomId", roomId)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<RoomDTO> findAll(long offset, int limit) {
+        return this.databaseClient
+                .sql(ROOMS + "ORDER BY r.id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveRoomRepository::toRoomDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<RoomDTO> findAllAfter(long lastId, int limit) {
+        return this.databaseClient
+                .sql(ROOMS + "WHERE r.id > :lastId ORDER BY r.id LIMIT :limit")
+                .bind("lastId", lastId)
+                .bind("limit", limit)
+                .map(ReactiveRoomRepository::toRoomDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<Long> count() {
+        return this.databaseClient
+                .sql("SELECT COUNT(*) AS total FROM room")
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Flux<RoomDTO> findByPropertyId(Long propertyId) {
+        return this.databaseClient
+                .sql(ROOMS + "WHERE r.property_id = :propertyId ORDER BY r.id")
+                .bind("propertyId", propertyId)
+                .map(ReactiveRoomRepository::toRoomDTO)
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    public Mono<RoomDTO> findLargestByPropertyId(Long propertyId) {
+        return this.databaseClient
+                .sql(ROOMS + "WHERE r.property_id = :propertyId ORDER BY r.area DESC, r.id LIMIT 1")
+                .bind("propertyId", propertyId)
+                .map(ReactiveRoomRepository::toRoomDTO)
+                .one()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    /**
+     * A range scan of idx_room_property_area, already in the order of the index.
+     */
+    public Flux<RoomAreaDTO> findByPropertyIdAndAreaBetween(Long propertyId, double minArea, double maxArea) {
+        return this.databaseClient
+                .sql("SELECT r.id, r.name, r.area FROM room r WHERE r.property_id = :propertyId " +
+                     "AND r.area BETWEEN :minArea AND :maxArea ORDER BY r.area DESC, r.id")
+                .bind("propertyId", propertyId)
+                .bind("minArea", minArea)
+                .bind("maxArea", maxArea)
+                .map(row -> new RoomAreaDTO(
+                        row.get("id", Long.class), row.get("name", String.class), row.get("area", Double.class)))
+                .all()
+                .subscribeOn(this.databaseScheduler);
+    }
+
+    private static RoomDTO toRoomDTO(Row row) {
+        return new RoomDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("width", Double.class),
+                row.get("length", Double.class));
+    }
+}
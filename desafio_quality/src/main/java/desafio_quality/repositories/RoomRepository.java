@@ -1,7 +1,53 @@
 package desafio_quality.repositories;
 
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
 import desafio_quality.entities.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
+
+    /**
+     * Reads the page straight into DTOs, so the eager property of each room is not loaded one by one.
+     */
+    @Query(value = "select new desafio_quality.dtos.RoomDTO(r.id, r.name, r.width, r.length) from Room r",
+           countQuery = "select count(r) from Room r")
+    Page<RoomDTO> findAllDTOs(Pageable pageable);
+
+    @Query("select r.version from Room r where r.id = :roomId")
+    Optional<Long> findVersionById(@Param("roomId") Long roomId);
+
+    @Query("select new desafio_quality.dtos.RoomDTO(r.id, r.name, r.width, r.length) from Room r " +
+           "where r.id > :lastId order by r.id")
+    List<RoomDTO> findAllAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select new desafio_quality.dtos.RoomDTO(r.id, r.name, r.width, r.length) from Room r " +
+           "where r.property.id = :propertyId order by r.area desc, r.id")
+    List<RoomDTO> findLargestByPropertyId(@Param("propertyId") Long propertyId, Pageable pageable);
+
+    /**
+     * A range scan of idx_room_property_area, already in the order of the index.
+     */
+    @Query("select new desafio_quality.dtos.RoomAreaDTO(r.id, r.name, r.area) from Room r " +
+           "where r.property.id = :propertyId and r.area between :minArea and :maxArea order by r.area desc, r.id")
+    List<RoomAreaDTO> findByPropertyIdAndAreaBetween(
+            @Param("propertyId") Long propertyId,
+            @Param("minArea") double minArea,
+            @Param("maxArea") double maxArea);
+
+    /**
+     * Deletes the rooms of a property in one statement, so deleting the property cascades over an empty
+     * collection instead of loading every room.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Room r where r.property.id = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
 }
@@ -0,0 +1,25 @@
+package desafio_quality.services;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Calls a blocking service from a reactive one. The writes of the reactive stack go through the same JPA
+ * services as the servlet stack, so their transactions, retries and cache invalidations are shared; each call
+ * is subscribed on the bounded elastic scheduler, so it holds one of its threads and never Netty's event loop.
+ */
+final class Blocking {
+
+    private Blocking() {
+    }
+
+    static <T> Mono<T> call(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static Mono<Void> run(Runnable run) {
+        return Mono.<Void>fromRunnable(run).subscribeOn(Schedulers.boundedElastic());
+    }
+}
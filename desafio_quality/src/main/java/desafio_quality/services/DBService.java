@@ -17,11 +17,20 @@ public class DBService {
     private final DistrictRepository districtRepository;
     private final PropertyRepository propertyRepository;
     private final RoomRepository roomRepository;
-
-    public DBService(DistrictRepository districtRepository, PropertyRepository propertyRepository, RoomRepository roomRepository) {
+    private final DistrictStatsService districtStatsService;
+    private final RoomReadModel roomReadModel;
+
+    public DBService(
+            DistrictRepository districtRepository,
+            PropertyRepository propertyRepository,
+            RoomRepository roomRepository,
+            DistrictStatsService districtStatsService,
+            RoomReadModel roomReadModel) {
         this.districtRepository = districtRepository;
         this.propertyRepository = propertyRepository;
         this.roomRepository = roomRepository;
+        this.districtStatsService = districtStatsService;
+        this.roomReadModel = roomReadModel;
     }
 
     public void instantiateDB(){
@@ -61,10 +70,14 @@ public class DBService {
         p3.setRooms(List.of(r5, r6));
 
         propertyRepository.saveAll(List.of(p1, p2, p3));
+        districtStatsService.rebuild();
+        roomReadModel.reload();
     }
 
     public void knockDownDB() {
         propertyRepository.deleteAll();
         districtRepository.deleteAll();
+        districtStatsService.rebuild();
+        roomReadModel.reload();
     }
 }
@@ -1,22 +1,50 @@
 package desafio_quality.services;
 
 import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
 import desafio_quality.entities.District;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.repositories.DistrictRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DistrictService {
 
     private final DistrictRepository districtRepository;
+    private final PropertyValueCache propertyValueCache;
+    private final RevaluationService revaluationService;
+    private final DistrictStatsService districtStatsService;
+    private final EntityManager entityManager;
+    private final OptimisticRetry optimisticRetry;
+    private static final Integer defaultPageSize = 5;
 
-    public DistrictService(DistrictRepository districtRepository) {
+    public DistrictService(
+            DistrictRepository districtRepository,
+            PropertyValueCache propertyValueCache,
+            RevaluationService revaluationService,
+            DistrictStatsService districtStatsService,
+            EntityManager entityManager,
+            OptimisticRetry optimisticRetry) {
         this.districtRepository = districtRepository;
+        this.propertyValueCache = propertyValueCache;
+        this.revaluationService = revaluationService;
+        this.districtStatsService = districtStatsService;
+        this.entityManager = entityManager;
+        this.optimisticRetry = optimisticRetry;
     }
 
     public District findDistrictById(Long districtId){
@@ -30,31 +58,104 @@ public class DistrictService {
         return district.stream().map(DistrictDTO::toDTO).collect(Collectors.toList());
     }
 
+    public Page<DistrictDTO> getAllDistricts(Integer pageNumber, Integer pageSize) {
+        pageNumber = pageNumber != null ? pageNumber : 0;
+        pageSize = pageSize != null ? pageSize : defaultPageSize;
+
+        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        return this.districtRepository.findAll(paging).map(DistrictDTO::toDTO);
+    }
+
+    public CursorPageDTO<DistrictDTO> getDistrictsAfter(String cursor, Integer pageSize, boolean includeCount) {
+        long lastId = CursorPageDTO.decodeCursor(cursor);
+        pageSize = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
+
+        List<DistrictDTO> districts = this.districtRepository.findAllAfter(lastId, PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(DistrictDTO::toDTO)
+                .collect(Collectors.toList());
+
+        Long totalElements = includeCount ? this.districtRepository.count() : null;
+        return CursorPageDTO.of(districts, pageSize, DistrictDTO::getId, totalElements);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllDistricts(Consumer<DistrictDTO> consumer) {
+        try (Stream<District> districts = this.districtRepository.streamAll()) {
+            districts.forEach(district -> {
+                consumer.accept(DistrictDTO.toDTO(district));
+                this.entityManager.detach(district);
+            });
+        }
+    }
+
     public DistrictDTO getDistrictById(Long districtID){
         District district = this.findDistrictById(districtID);
         return DistrictDTO.toDTO(district);
     }
 
+    public String getDistrictETag(Long districtId){
+        return String.valueOf(this.districtRepository.findVersionById(districtId).orElseThrow(() ->
+                new ResourceNotFoundException("District "+ districtId+ " does not exist.")
+        ));
+    }
+
+    @Transactional
     public DistrictDTO createDistrict(CreateDistrictDTO createDistrict){
         District district = new District(createDistrict.getName(), createDistrict.getSquareMeterValue());
 
         district = this.districtRepository.save(district);
+        this.districtStatsService.districtCreated(district.getId());
         return DistrictDTO.toDTO(district);
     }
 
     public DistrictDTO updateDistrict(Long districtId, CreateDistrictDTO createDistrictDTO){
-        District district = findDistrictById(districtId);
+        return updateDistrict(districtId, createDistrictDTO, null).getBody();
+    }
 
-        district.setName(createDistrictDTO.getName());
-        district.setSquareMeterValue(createDistrictDTO.getSquareMeterValue());
+    /**
+     * Updates the district when ifMatch, if given, matches its current ETag, failing with
+     * PreconditionFailedException when another update commits first, or rerunning without ifMatch.
+     * A repricing is only revalued once the new price has committed.
+     */
+    public Versioned<DistrictDTO> updateDistrict(Long districtId, CreateDistrictDTO createDistrictDTO, String ifMatch){
+        boolean[] repriced = new boolean[1];
+        Versioned<DistrictDTO> updated = this.optimisticRetry.run(ifMatch, "District " + districtId, () -> {
+            District district = findDistrictById(districtId);
+            ETags.requireMatch(ifMatch, ETags.of(district), "District " + districtId);
+            repriced[0] = district.getSquareMeterValue() == null
+                    || district.getSquareMeterValue().compareTo(createDistrictDTO.getSquareMeterValue()) != 0;
 
-        district = this.districtRepository.save(district);
-        return DistrictDTO.toDTO(district);
+            district.setName(createDistrictDTO.getName());
+            district.setSquareMeterValue(createDistrictDTO.getSquareMeterValue());
+
+            district = this.districtRepository.saveAndFlush(district);
+            return new Versioned<>(DistrictDTO.toDTO(district), ETags.of(district));
+        });
+        if (repriced[0]) {
+            this.revaluationService.revalueDistrict(districtId);
+        }
+        return updated;
+    }
+
+    public RevaluationJobDTO getRevaluation(Long districtId){
+        return this.revaluationService.getLatestJob(districtId);
+    }
+
+    public DistrictStatsDTO getStats(Long districtId){
+        return this.districtStatsService.getStats(districtId);
+    }
+
+    public List<DistrictStatsDTO> getAllStats(){
+        return this.districtStatsService.getAllStats();
     }
 
+    @Transactional
     public void deleteDistrict(Long districtId){
         findDistrictById(districtId);
+        this.districtStatsService.districtDeleted(districtId);
         this.districtRepository.deleteById(districtId);
+        this.propertyValueCache.invalidateDistrict(districtId);
     }
 
 }
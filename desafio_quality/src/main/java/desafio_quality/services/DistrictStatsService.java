@@ -0,0 +1,93 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.exceptions.ResourceNotFoundException;
+import desafio_quality.repositories.DistrictStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serves per-district totals either by aggregating the property and room tables on every call or,
+ * when the summary table is enabled, from district_stats. That table is maintained by applying the
+ * delta of each write to its district's row, and rebuilt from the aggregates on startup and by the
+ * nightly reconciliation.
+ */
+@Service
+public class DistrictStatsService {
+
+    private final DistrictStatsRepository districtStatsRepository;
+    private final boolean summaryTableEnabled;
+
+    public DistrictStatsService(
+            DistrictStatsRepository districtStatsRepository,
+            @Value("${properties.district-stats.summary-table.enabled:false}") boolean summaryTableEnabled) {
+        this.districtStatsRepository = districtStatsRepository;
+        this.summaryTableEnabled = summaryTableEnabled;
+    }
+
+    public boolean isSummaryTableEnabled() {
+        return this.summaryTableEnabled;
+    }
+
+    public List<DistrictStatsDTO> getAllStats() {
+        List<DistrictStatsRepository.DistrictStatsView> stats = this.summaryTableEnabled
+                ? this.districtStatsRepository.findAllSummaries()
+                : this.districtStatsRepository.findAllLive();
+        return stats.stream().map(DistrictStatsDTO::toDTO).collect(Collectors.toList());
+    }
+
+    public DistrictStatsDTO getStats(Long districtId) {
+        return (this.summaryTableEnabled
+                ? this.districtStatsRepository.findSummaryById(districtId)
+                : this.districtStatsRepository.findLiveById(districtId))
+                .map(DistrictStatsDTO::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("District " + districtId + " does not exist."));
+    }
+
+    @Transactional
+    public void districtCreated(Long districtId) {
+        if (this.summaryTableEnabled) {
+            this.districtStatsRepository.insertEmpty(districtId);
+        }
+    }
+
+    @Transactional
+    public void districtDeleted(Long districtId) {
+        if (this.summaryTableEnabled) {
+            this.districtStatsRepository.deleteByDistrictId(districtId);
+        }
+    }
+
+    @Transactional
+    public void applyDelta(Long districtId, long properties, long rooms, double area, BigDecimal value) {
+        if (this.summaryTableEnabled && districtId != null) {
+            this.districtStatsRepository.applyDelta(districtId, properties, rooms, area, value);
+        }
+    }
+
+    /**
+     * Sums the persisted values of the district again, for writes that reprice many of its properties at once.
+     */
+    @Transactional
+    public void refreshTotalValue(Long districtId) {
+        if (this.summaryTableEnabled) {
+            this.districtStatsRepository.refreshTotalValue(districtId);
+        }
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (this.summaryTableEnabled) {
+            this.districtStatsRepository.deleteAllSummaries();
+            this.districtStatsRepository.insertAllFromLive();
+        }
+    }
+}
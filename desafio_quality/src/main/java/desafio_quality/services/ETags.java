@@ -0,0 +1,55 @@
+package desafio_quality.services;
+
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.entities.Room;
+import desafio_quality.exceptions.PreconditionFailedException;
+
+/**
+ * Strong ETags made of entity versions, unquoted, and the If-Match comparison of RFC 7232: a list of
+ * quoted ETags or "*", where weak ETags never match.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * A property's version, which its rooms move too, and the version of its district.
+     */
+    public static String ofProperty(long version, Long districtVersion) {
+        return version + "." + districtVersion;
+    }
+
+    public static String of(Property property) {
+        return ofProperty(property.getVersion(),
+                property.getDistrict() != null ? property.getDistrict().getVersion() : null);
+    }
+
+    public static String of(District district) {
+        return String.valueOf(district.getVersion());
+    }
+
+    public static String of(Room room) {
+        return String.valueOf(room.getVersion());
+    }
+
+    public static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals("\"" + eTag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fails unless ifMatch is absent or matches the current ETag of the resource.
+     */
+    public static void requireMatch(String ifMatch, String eTag, String resource) {
+        if (ifMatch != null && !matches(ifMatch, eTag)) {
+            throw new PreconditionFailedException(resource);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package desafio_quality.services;
+
+import desafio_quality.exceptions.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-writes guarded by entity versions instead of locks, and runs them again when a
+ * concurrent writer gets there first. Attempts are bounded by maxAttempts and spaced by a random backoff
+ * that doubles from backoffMillis, so writers colliding on a hot row spread out instead of colliding again.
+ * Retries are counted in optimistic.retries, tagged by how the conflict ended.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter retried;
+    private final Counter exhausted;
+    private final Counter preconditionFailed;
+
+    public OptimisticRetry(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${properties.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${properties.optimistic-retry.backoff-millis:2}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.retried = counter(meterRegistry, "retried");
+        this.exhausted = counter(meterRegistry, "exhausted");
+        this.preconditionFailed = counter(meterRegistry, "precondition_failed");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("optimistic.retries")
+                .description("Optimistic version conflicts, by how they ended")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public <T> T run(Supplier<T> work) {
+        return run(null, null, work);
+    }
+
+    /**
+     * Runs the work in a transaction of its own. Without an If-Match precondition, work that loses a version
+     * check is run again on the newer state; with one, the precondition no longer holds and it fails with
+     * PreconditionFailedException. Inside a caller's transaction the work runs just once, since running it
+     * again would only see the caller's stale state.
+     */
+    public <T> T run(String ifMatch, String resource, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (ifMatch != null) {
+                    this.preconditionFailed.increment();
+                    throw new PreconditionFailedException(resource);
+                }
+                if (attempt >= this.maxAttempts) {
+                    this.exhausted.increment();
+                    throw e;
+                }
+                this.retried.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long bound = this.backoffMillis << Math.min(attempt - 1, 10);
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while waiting to retry.", e);
+        }
+    }
+}
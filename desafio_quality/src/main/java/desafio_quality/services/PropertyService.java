@@ -9,41 +9,143 @@ import desafio_quality.entities.Room;
 import desafio_quality.exceptions.PropertyHasNoRoomsException;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.PropertySpecifications;
+import desafio_quality.repositories.RoomRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
+    private final RoomRepository roomRepository;
     private final DistrictService districtService;
+    private final PropertyValueCache propertyValueCache;
+    private final DistrictStatsService districtStatsService;
+    private final RoomReadModel roomReadModel;
+    private final EntityManager entityManager;
+    private final OptimisticRetry optimisticRetry;
+    private static final Integer defaultPageSize = 5;
+    static final int valuationChunkSize = 500;
 
-    public PropertyService(PropertyRepository propertyRepository, DistrictService districtService) {
+    public PropertyService(
+            PropertyRepository propertyRepository,
+            RoomRepository roomRepository,
+            DistrictService districtService,
+            PropertyValueCache propertyValueCache,
+            DistrictStatsService districtStatsService,
+            RoomReadModel roomReadModel,
+            EntityManager entityManager,
+            OptimisticRetry optimisticRetry) {
         this.propertyRepository = propertyRepository;
+        this.roomRepository = roomRepository;
         this.districtService = districtService;
+        this.propertyValueCache = propertyValueCache;
+        this.districtStatsService = districtStatsService;
+        this.roomReadModel = roomReadModel;
+        this.entityManager = entityManager;
+        this.optimisticRetry = optimisticRetry;
     }
 
     public Property findPropertyById(Long propertyId) {
         return this.propertyRepository.findById(propertyId).orElseThrow(() ->
-                new ResourceNotFoundException("Property with ID " + propertyId + " does not exist.")
+                propertyNotFound(propertyId)
         );
     }
 
+    static ResourceNotFoundException propertyNotFound(Long propertyId) {
+        return new ResourceNotFoundException("Property with ID " + propertyId + " does not exist.");
+    }
+
     public PropertyDTO getPropertyById(Long propertyId) {
         Property property = this.findPropertyById(propertyId);
         return PropertyDTO.toDTO(property);
     }
 
+    /**
+     * The ETag of a property, read with one index lookup, before and apart from the property itself.
+     */
+    public String getPropertyETag(Long propertyId) {
+        PropertyRepository.VersionView versions = this.findVersionsById(propertyId);
+        return ETags.ofProperty(versions.getVersion(), versions.getDistrictVersion());
+    }
+
+    public String getPropertyRoomsETag(Long propertyId) {
+        return String.valueOf(this.findVersionsById(propertyId).getVersion());
+    }
+
+    private PropertyRepository.VersionView findVersionsById(Long propertyId) {
+        return this.propertyRepository.findVersionsById(propertyId).orElseThrow(() ->
+                propertyNotFound(propertyId)
+        );
+    }
+
     public List<PropertyDTO> getAllProperties() {
-        List<Property> properties = this.propertyRepository.findAll();
+        List<Property> properties = this.propertyRepository.findAllWithDistrictAndRooms();
         return properties.stream()
                 .map(PropertyDTO::toDTO)
                 .collect(Collectors.toList());
     }
 
+    public Page<PropertyDTO> getAllProperties(Integer pageNumber, Integer pageSize) {
+        pageNumber = pageNumber != null ? pageNumber : 0;
+        pageSize = pageSize != null ? pageSize : defaultPageSize;
+
+        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        Page<Long> ids = this.propertyRepository.findIds(paging);
+
+        return new PageImpl<>(this.findPropertyDTOsByIds(ids.getContent()), paging, ids.getTotalElements());
+    }
+
+    public CursorPageDTO<PropertyDTO> getPropertiesAfter(String cursor, Integer pageSize, boolean includeCount) {
+        long lastId = CursorPageDTO.decodeCursor(cursor);
+        pageSize = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
+
+        List<Long> ids = this.propertyRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize + 1));
+
+        Long totalElements = includeCount ? this.propertyRepository.count() : null;
+        return CursorPageDTO.of(this.findPropertyDTOsByIds(ids), pageSize, PropertyDTO::getId, totalElements);
+    }
+
+    /**
+     * Hands every property to the consumer as it is read, detaching each one afterwards
+     * so the persistence context does not grow with the size of the portfolio.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProperties(Consumer<PropertyDTO> consumer) {
+        try (Stream<Property> properties = this.propertyRepository.streamAll()) {
+            properties.forEach(property -> {
+                consumer.accept(PropertyDTO.toDTO(property));
+                this.entityManager.detach(property);
+            });
+        }
+    }
+
+    private List<PropertyDTO> findPropertyDTOsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.propertyRepository.findAllWithDistrictAndRoomsByIdIn(ids).stream()
+                .map(PropertyDTO::toDTO)
+                .collect(Collectors.toList());
+    }
+
     public List<RoomDTO> getPropertyRooms(Long propertyId) {
         Property property = this.findPropertyById(propertyId);
         List<Room> rooms = property.getRooms();
@@ -52,52 +154,252 @@ public class PropertyService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public PropertyDTO createProperty(UpsertPropertyDTO createProperty) {
         District district = this.districtService.findDistrictById(createProperty.getDistrictId());
         Property property = new Property(createProperty.getName(), district);
         property = this.propertyRepository.save(property);
+        this.districtStatsService.applyDelta(district.getId(), 1, 0, 0, BigDecimal.ZERO);
+        this.roomReadModel.propertyChanged(property.getId());
         return PropertyDTO.toDTO(property);
     }
 
     public PropertyDTO updateProperty(Long propertyId, UpsertPropertyDTO updateProperty) {
+        return this.updateProperty(propertyId, updateProperty, null).getBody();
+    }
+
+    /**
+     * Updates the property when ifMatch, if given, matches its current ETag. The property's version is
+     * checked again as the update is written, so an update of the property or of one of its rooms committed
+     * meanwhile fails it with PreconditionFailedException, or reruns it when there is no ifMatch.
+     */
+    public Versioned<PropertyDTO> updateProperty(Long propertyId, UpsertPropertyDTO updateProperty, String ifMatch) {
+        return this.optimisticRetry.run(ifMatch, "Property " + propertyId, () ->
+                this.doUpdateProperty(propertyId, updateProperty, ifMatch));
+    }
+
+    private Versioned<PropertyDTO> doUpdateProperty(Long propertyId, UpsertPropertyDTO updateProperty, String ifMatch) {
         Property property = this.findPropertyById(propertyId);
+        ETags.requireMatch(ifMatch, ETags.of(property), "Property " + propertyId);
+        Long previousDistrictId = property.getDistrict() != null ? property.getDistrict().getId() : null;
+        BigDecimal previousValue = property.getValue();
         District district = this.districtService.findDistrictById(updateProperty.getDistrictId());
         property.setName(updateProperty.getName());
         property.setDistrict(district);
         property = this.propertyRepository.save(property);
-        return PropertyDTO.toDTO(property);
+        this.propertyRepository.revalueProperty(propertyId);
+        this.propertyValueCache.invalidateProperty(propertyId);
+        this.roomReadModel.propertyChanged(propertyId);
+
+        if (this.districtStatsService.isSummaryTableEnabled() && !Objects.equals(district.getId(), previousDistrictId)) {
+            BigDecimal value = this.propertyRepository.findValuationById(propertyId)
+                    .map(PropertyRepository.ValuationView::getValue)
+                    .orElse(BigDecimal.ZERO);
+            int rooms = property.getRoomCount();
+            double area = property.getTotalArea();
+            this.districtStatsService.applyDelta(previousDistrictId, -1, -rooms, -area, previousValue.negate());
+            this.districtStatsService.applyDelta(district.getId(), 1, rooms, area, value);
+        }
+        return new Versioned<>(PropertyDTO.toDTO(property), ETags.of(property));
     }
 
+    /**
+     * Rerun when a room of the property changes before the delete commits, since the district totals
+     * taken off would be those of the rooms it read.
+     */
     public void deleteProperty(Long propertyId) {
-        if (!this.propertyRepository.existsById(propertyId)) {
-            throw new ResourceNotFoundException("Property with ID " + propertyId + " does not exist.");
+        this.optimisticRetry.run(() -> {
+            Property property = this.findPropertyById(propertyId);
+            if (property.getDistrict() != null && this.districtStatsService.isSummaryTableEnabled()) {
+                this.districtStatsService.applyDelta(property.getDistrict().getId(),
+                        -1, -property.getRoomCount(), -property.getTotalArea(), property.getValue().negate());
+            }
+            this.roomRepository.deleteByPropertyId(propertyId);
+            this.propertyRepository.deleteById(propertyId);
+            this.propertyValueCache.invalidateProperty(propertyId);
+            this.roomReadModel.propertyChanged(propertyId);
+            return null;
+        });
+    }
+
+    /**
+     * Accounts for rooms added to or removed from the property, and for changes to their sizes,
+     * in its total area and value and in the totals of its district.
+     * <p>
+     * The change in value applied to the district is the difference between the valuations read before
+     * and after the update, so with the summary table the valuation before it is read with the property
+     * row locked. A concurrent room change of the same property waits for this transaction instead of
+     * committing in between, and the district delta is applied once, with no retry inside the transaction.
+     */
+    @Transactional
+    public void applyRoomChanges(Long propertyId, int addedRooms, double addedArea) {
+        boolean totalsChanged = addedRooms != 0 || addedArea != 0;
+        if (totalsChanged && this.districtStatsService.isSummaryTableEnabled()) {
+            this.applyRoomTotalsAndStats(propertyId, addedRooms, addedArea);
+        } else if (totalsChanged) {
+            this.propertyRepository.incrementRoomTotals(propertyId, addedRooms, addedArea);
+        } else {
+            this.propertyRepository.incrementVersion(propertyId);
+        }
+        if (addedArea != 0) {
+            this.propertyValueCache.invalidateProperty(propertyId);
+        }
+        this.roomReadModel.propertyChanged(propertyId);
+    }
+
+    private void applyRoomTotalsAndStats(Long propertyId, int addedRooms, double addedArea) {
+        PropertyRepository.ValuationView previous =
+                this.propertyRepository.findValuationByIdForUpdate(propertyId).orElse(null);
+        if (previous == null) {
+            return;
         }
-        this.propertyRepository.deleteById(propertyId);
+        this.propertyRepository.incrementRoomTotals(propertyId, addedRooms, addedArea);
+
+        BigDecimal value = addedArea == 0 ? previous.getValue() : this.propertyRepository
+                .findValuationById(propertyId)
+                .map(PropertyRepository.ValuationView::getValue)
+                .orElse(previous.getValue());
+        this.districtStatsService.applyDelta(previous.getDistrictId(),
+                0, addedRooms, addedArea, value.subtract(previous.getValue()));
+    }
+
+    @Transactional
+    public int reconcileTotalAreas() {
+        int reconciled = this.propertyRepository.reconcileTotalAreas();
+        this.propertyRepository.revalueAll();
+        this.propertyValueCache.invalidateAll();
+        this.districtStatsService.rebuild();
+        return reconciled;
     }
 
     public PropertyValueDTO getValue(Long propertyId) {
-        Property property = findPropertyById(propertyId);
-        return PropertyValueDTO.toDTO(property);
+        return this.propertyValueCache.get(propertyId, id -> {
+            PropertyRepository.ValuationView valuation = this.propertyRepository.findValuationById(id)
+                    .orElseThrow(() -> propertyNotFound(id));
+            return new PropertyValueCache.Entry(valuation.getDistrictId(), new PropertyValueDTO(valuation.getValue()));
+        });
+    }
+
+    /**
+     * Values the given properties with one query per chunk of ids, answering in the order they were asked.
+     * Ids that do not exist are reported in their own entry instead of failing the whole batch.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyValuationDTO> getValues(List<Long> propertyIds) {
+        List<Long> distinctIds = propertyIds.stream().distinct().collect(Collectors.toList());
+        Map<Long, PropertyValuationDTO> valuations = new HashMap<>(distinctIds.size());
+
+        for (int from = 0; from < distinctIds.size(); from += valuationChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + valuationChunkSize, distinctIds.size()));
+            this.propertyRepository.findValuationsByIdIn(chunk)
+                    .forEach(valuation -> valuations.put(valuation.getId(), valuation));
+        }
+
+        return propertyIds.stream()
+                .map(id -> valuations.getOrDefault(id, PropertyValuationDTO.missing(id)))
+                .collect(Collectors.toList());
+    }
+
+    public List<PropertySummaryDTO> getLargestProperties(Long districtId, int limit) {
+        Pageable top = PageRequest.of(0, limit);
+        return districtId == null
+                ? this.propertyRepository.findLargest(top)
+                : this.propertyRepository.findLargestByDistrictId(districtId, top);
+    }
+
+    public List<PropertySummaryDTO> getMostValuableProperties(Long districtId, int limit) {
+        Pageable top = PageRequest.of(0, limit);
+        return districtId == null
+                ? this.propertyRepository.findMostValuable(top)
+                : this.propertyRepository.findMostValuableByDistrictId(districtId, top);
+    }
+
+    /**
+     * Combines the filters that were given into one query. Results are always ordered by id last,
+     * so pages stay stable when many properties share the sorted value.
+     */
+    public Page<PropertySummaryDTO> searchProperties(PropertySearchDTO search) {
+        Specification<Property> specification = Specification
+                .where(PropertySpecifications.inDistrict(search.getDistrictId()))
+                .and(PropertySpecifications.nameContains(search.getName()))
+                .and(PropertySpecifications.totalAreaBetween(search.getMinArea(), search.getMaxArea()))
+                .and(PropertySpecifications.valueBetween(search.getMinValue(), search.getMaxValue()))
+                .and(PropertySpecifications.roomCountBetween(search.getMinRooms(), search.getMaxRooms()));
+
+        return this.propertyRepository.findSummaries(specification, searchPage(search));
+    }
+
+    static Pageable searchPage(PropertySearchDTO search) {
+        Sort sort = Sort.by(Sort.Direction.fromString(search.getDirection()), search.getSortBy());
+        if (!"id".equals(search.getSortBy())) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(search.getPageNumber(), search.getPageSize(), sort);
+    }
+
+    public CacheStatsDTO getValueCacheStats() {
+        return this.propertyValueCache.getStats();
+    }
+
+    public RoomReadModelStatsDTO getRoomReadModelStats() {
+        return this.roomReadModel.getStats();
     }
 
     public PropertyAreaDTO getTotalArea(Long propertyId) {
-        Property property = findPropertyById(propertyId);
-        return PropertyAreaDTO.toDTO(property);
+        if (this.roomReadModel.isReady()) {
+            return this.roomReadModel.getTotalArea(propertyId);
+        }
+        return this.propertyRepository.findTotalAreaById(propertyId).orElseThrow(() ->
+                propertyNotFound(propertyId)
+        );
     }
 
     public RoomDTO getLargestRoom(Long propertyId) {
-        Property property = findPropertyById(propertyId);
+        if (this.roomReadModel.isReady()) {
+            return this.roomReadModel.getLargestRoom(propertyId);
+        }
+        List<RoomDTO> largestRoom = this.roomRepository.findLargestByPropertyId(propertyId, PageRequest.of(0, 1));
 
-        Room largestRoom =  property.getRooms().stream()
-            .max(Comparator.comparing(Room::getArea))
-            .orElseThrow(() -> new PropertyHasNoRoomsException(propertyId));
+        if (largestRoom.isEmpty()) {
+            if (!this.propertyRepository.existsById(propertyId)) {
+                throw propertyNotFound(propertyId);
+            }
+            throw new PropertyHasNoRoomsException(propertyId);
+        }
 
-        return RoomDTO.toDTO(largestRoom);
+        return largestRoom.get(0);
+    }
+
+    public List<RoomAreaDTO> getRoomsByArea(Long propertyId, Double minArea, Double maxArea) {
+        double min = minArea != null ? minArea : 0;
+        double max = maxArea != null ? maxArea : Double.MAX_VALUE;
+        if (this.roomReadModel.isReady()) {
+            return this.roomReadModel.getRoomsByArea(propertyId, min, max);
+        }
+
+        List<RoomAreaDTO> rooms = this.roomRepository.findByPropertyIdAndAreaBetween(propertyId, min, max);
+
+        if (rooms.isEmpty() && !this.propertyRepository.existsById(propertyId)) {
+            throw propertyNotFound(propertyId);
+        }
+        return rooms;
     }
 
     public PropertyRoomsAreaDTO getRoomsArea(Long propertyId) {
-        Property property = findPropertyById(propertyId);
+        if (this.roomReadModel.isReady()) {
+            return this.roomReadModel.getRoomsArea(propertyId);
+        }
+        List<PropertyRepository.RoomAreaView> rows = this.propertyRepository.findRoomAreasById(propertyId);
+
+        if (rows.isEmpty()) {
+            throw propertyNotFound(propertyId);
+        }
+
+        List<RoomAreaDTO> rooms = rows.stream()
+                .filter(row -> Objects.nonNull(row.getRoomId()))
+                .map(row -> new RoomAreaDTO(row.getRoomId(), row.getRoomName(), row.getArea()))
+                .collect(Collectors.toList());
 
-        return PropertyRoomsAreaDTO.toDTO(property);
+        return new PropertyRoomsAreaDTO(rows.get(0).getPropertyId(), rows.get(0).getPropertyName(), rooms);
     }
 }
@@ -0,0 +1,134 @@
+package desafio_quality.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import desafio_quality.dtos.CacheStatsDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of property valuations keyed by property id. Each entry remembers the district it was
+ * priced with, so a district repricing only drops the valuations of that district. Invalidations requested
+ * inside a transaction are applied after it commits.
+ * A sweep over the entries does not see the ones still being loaded, so every district and full
+ * invalidation also moves a generation. An entry whose load started before the generation of its district
+ * moved may have read the old state; it is answered to the reader that loaded it but removed instead of
+ * being served again.
+ */
+@Component
+public class PropertyValueCache implements MeterBinder {
+
+    public static class Entry {
+        private final Long districtId;
+        private final PropertyValueDTO value;
+        private final long generation;
+
+        public Entry(Long districtId, PropertyValueDTO value) {
+            this(districtId, value, 0L);
+        }
+
+        private Entry(Long districtId, PropertyValueDTO value, long generation) {
+            this.districtId = districtId;
+            this.value = value;
+            this.generation = generation;
+        }
+
+        public Long getDistrictId() {
+            return districtId;
+        }
+
+        public PropertyValueDTO getValue() {
+            return value;
+        }
+    }
+
+    private final Cache<Long, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Long> districtGenerations = new ConcurrentHashMap<>();
+    private volatile long allGeneration;
+
+    public PropertyValueCache(@Value("${properties.value-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public PropertyValueDTO get(Long propertyId, Function<Long, Entry> loader) {
+        Entry entry = this.cache.get(propertyId, id -> {
+            long startedAt = this.generation.get();
+            Entry loaded = loader.apply(id);
+            return new Entry(loaded.getDistrictId(), loaded.getValue(), startedAt);
+        });
+        if (isStale(entry)) {
+            this.cache.asMap().remove(propertyId, entry);
+        }
+        return entry.getValue();
+    }
+
+    public void invalidateProperty(Long propertyId) {
+        afterCommit(() -> this.cache.invalidate(propertyId));
+    }
+
+    public void invalidateDistrict(Long districtId) {
+        afterCommit(() -> {
+            this.districtGenerations.put(districtId, this.generation.incrementAndGet());
+            this.cache.asMap().values().removeIf(entry -> Objects.equals(entry.getDistrictId(), districtId));
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            this.allGeneration = this.generation.incrementAndGet();
+            this.cache.invalidateAll();
+        });
+    }
+
+    /**
+     * Whether the district of the entry, or the whole cache, was invalidated after its load started.
+     */
+    private boolean isStale(Entry entry) {
+        if (this.allGeneration > entry.generation) {
+            return true;
+        }
+        Long districtGeneration = entry.getDistrictId() == null
+                ? null
+                : this.districtGenerations.get(entry.getDistrictId());
+        return districtGeneration != null && districtGeneration > entry.generation;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.cache, "propertyValues");
+    }
+
+    public CacheStatsDTO getStats() {
+        return CacheStatsDTO.toDTO(this.cache.estimatedSize(), this.cache.stats());
+    }
+
+    private static void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.exceptions.ResourceNotFoundException;
+import desafio_quality.repositories.ReactiveDistrictRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The reads of DistrictService without blocking a thread on the database. Stats come from the summary table
+ * or are aggregated live, as DistrictStatsService is configured. Revaluation jobs are the ones RevaluationService
+ * keeps in memory. Writes are made by DistrictService itself, off the event loop, and start the same revaluations.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDistrictService {
+
+    private final ReactiveDistrictRepository districtRepository;
+    private final DistrictStatsService districtStatsService;
+    private final RevaluationService revaluationService;
+    private final DistrictService districtService;
+    private static final Integer defaultPageSize = 5;
+
+    public ReactiveDistrictService(
+            ReactiveDistrictRepository districtRepository,
+            DistrictStatsService districtStatsService,
+            RevaluationService revaluationService,
+            DistrictService districtService) {
+        this.districtRepository = districtRepository;
+        this.districtStatsService = districtStatsService;
+        this.revaluationService = revaluationService;
+        this.districtService = districtService;
+    }
+
+    public Flux<DistrictDTO> getAllDistricts() {
+        return this.districtRepository.findAll();
+    }
+
+    public Mono<Page<DistrictDTO>> getAllDistricts(Integer pageNumber, Integer pageSize) {
+        pageNumber = pageNumber != null ? pageNumber : 0;
+        pageSize = pageSize != null ? pageSize : defaultPageSize;
+
+        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        return Mono.zip(this.districtRepository.findAll(paging.getOffset(), paging.getPageSize()).collectList(),
+                        this.districtRepository.count())
+                .map(page -> new PageImpl<>(page.getT1(), paging, page.getT2()));
+    }
+
+    public Mono<CursorPageDTO<DistrictDTO>> getDistrictsAfter(String cursor, Integer pageSize, boolean includeCount) {
+        return Mono.fromCallable(() -> CursorPageDTO.decodeCursor(cursor)).flatMap(lastId -> {
+            int size = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
+
+            Mono<List<DistrictDTO>> districts = this.districtRepository.findAllAfter(lastId, size + 1).collectList();
+            if (!includeCount) {
+                return districts.map(fetched -> CursorPageDTO.of(fetched, size, DistrictDTO::getId, null));
+            }
+            return Mono.zip(districts, this.districtRepository.count())
+                    .map(page -> CursorPageDTO.of(page.getT1(), size, DistrictDTO::getId, page.getT2()));
+        });
+    }
+
+    public Mono<DistrictDTO> getDistrictById(Long districtId) {
+        return this.districtRepository.findById(districtId)
+                .switchIfEmpty(Mono.error(() -> districtNotFound(districtId)));
+    }
+
+    public Mono<String> getDistrictETag(Long districtId) {
+        return this.districtRepository.findVersionById(districtId)
+                .map(String::valueOf)
+                .switchIfEmpty(Mono.error(() -> districtNotFound(districtId)));
+    }
+
+    public Flux<DistrictStatsDTO> getAllStats() {
+        return this.districtRepository.findAllStats(this.districtStatsService.isSummaryTableEnabled());
+    }
+
+    public Mono<DistrictStatsDTO> getStats(Long districtId) {
+        return this.districtRepository.findStatsById(districtId, this.districtStatsService.isSummaryTableEnabled())
+                .switchIfEmpty(Mono.error(() -> districtNotFound(districtId)));
+    }
+
+    public Mono<RevaluationJobDTO> getRevaluation(Long districtId) {
+        return Mono.fromCallable(() -> this.revaluationService.getLatestJob(districtId));
+    }
+
+    public Mono<DistrictDTO> createDistrict(CreateDistrictDTO createDistrict) {
+        return Blocking.call(() -> this.districtService.createDistrict(createDistrict));
+    }
+
+    public Mono<Versioned<DistrictDTO>> updateDistrict(
+            Long districtId, CreateDistrictDTO createDistrictDTO, String ifMatch) {
+        return Blocking.call(() -> this.districtService.updateDistrict(districtId, createDistrictDTO, ifMatch));
+    }
+
+    public Mono<Void> deleteDistrict(Long districtId) {
+        return Blocking.run(() -> this.districtService.deleteDistrict(districtId));
+    }
+
+    private static ResourceNotFoundException districtNotFound(Long districtId) {
+        return new ResourceNotFoundException("District " + districtId + " does not exist.");
+    }
+}
@@ -0,0 +1,213 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.CacheStatsDTO;
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.PropertyAreaDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.PropertySearchDTO;
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.RoomReadModelStatsDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.exceptions.PropertyHasNoRoomsException;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.ReactivePropertyRepository;
+import desafio_quality.repositories.ReactiveRoomRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The reads of PropertyService without blocking a thread on the database, answering with the same DTOs and
+ * failing with the same exceptions. Valuations are read from the property rows, so the valuation cache and
+ * the room read model are only reported on, as loaded in this application. Writes are made by PropertyService
+ * itself, off the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePropertyService {
+
+    private final ReactivePropertyRepository propertyRepository;
+    private final ReactiveRoomRepository roomRepository;
+    private final PropertyValueCache propertyValueCache;
+    private final RoomReadModel roomReadModel;
+    private final PropertyService propertyService;
+    private static final Integer defaultPageSize = 5;
+
+    public ReactivePropertyService(
+            ReactivePropertyRepository propertyRepository,
+            ReactiveRoomRepository roomRepository,
+            PropertyValueCache propertyValueCache,
+            RoomReadModel roomReadModel,
+            PropertyService propertyService) {
+        this.propertyRepository = propertyRepository;
+        this.roomRepository = roomRepository;
+        this.propertyValueCache = propertyValueCache;
+        this.roomReadModel = roomReadModel;
+        this.propertyService = propertyService;
+    }
+
+    public Mono<PropertyDTO> createProperty(UpsertPropertyDTO createProperty) {
+        return Blocking.call(() -> this.propertyService.createProperty(createProperty));
+    }
+
+    public Mono<Versioned<PropertyDTO>> updateProperty(
+            Long propertyId, UpsertPropertyDTO updateProperty, String ifMatch) {
+        return Blocking.call(() -> this.propertyService.updateProperty(propertyId, updateProperty, ifMatch));
+    }
+
+    public Mono<Void> deleteProperty(Long propertyId) {
+        return Blocking.run(() -> this.propertyService.deleteProperty(propertyId));
+    }
+
+    public Mono<PropertyDTO> getPropertyById(Long propertyId) {
+        return this.propertyRepository.findById(propertyId)
+                .switchIfEmpty(Mono.error(() -> PropertyService.propertyNotFound(propertyId)));
+    }
+
+    public Mono<String> getPropertyETag(Long propertyId) {
+        return this.findVersionsById(propertyId)
+                .map(versions -> ETags.ofProperty(versions.getVersion(), versions.getDistrictVersion()));
+    }
+
+    public Mono<String> getPropertyRoomsETag(Long propertyId) {
+        return this.findVersionsById(propertyId)
+                .map(versions -> String.valueOf(versions.getVersion()));
+    }
+
+    private Mono<PropertyRepository.VersionView> findVersionsById(Long propertyId) {
+        return this.propertyRepository.findVersionsById(propertyId)
+                .switchIfEmpty(Mono.error(() -> PropertyService.propertyNotFound(propertyId)));
+    }
+
+    public Flux<PropertyDTO> getAllProperties() {
+        return this.propertyRepository.findAll();
+    }
+
+    public Mono<Page<PropertyDTO>> getAllProperties(Integer pageNumber, Integer pageSize) {
+        pageNumber = pageNumber != null ? pageNumber : 0;
+        pageSize = pageSize != null ? pageSize : defaultPageSize;
+
+        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        Mono<List<PropertyDTO>> content = this.propertyRepository
+                .findIds(paging.getOffset(), paging.getPageSize())
+                .collectList()
+                .flatMap(ids -> this.propertyRepository.findAllByIdIn(ids).collectList());
+
+        return Mono.zip(content, this.propertyRepository.count())
+                .map(page -> new PageImpl<>(page.getT1(), paging, page.getT2()));
+    }
+
+    public Mono<CursorPageDTO<PropertyDTO>> getPropertiesAfter(String cursor, Integer pageSize, boolean includeCount) {
+        return Mono.fromCallable(() -> CursorPageDTO.decodeCursor(cursor)).flatMap(lastId -> {
+            int size = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
+
+            Mono<List<PropertyDTO>> properties = this.propertyRepository.findIdsAfter(lastId, size + 1)
+                    .collectList()
+                    .flatMap(ids -> this.propertyRepository.findAllByIdIn(ids).collectList());
+
+            if (!includeCount) {
+                return properties.map(fetched -> CursorPageDTO.of(fetched, size, PropertyDTO::getId, null));
+            }
+            return Mono.zip(properties, this.propertyRepository.count())
+                    .map(page -> CursorPageDTO.of(page.getT1(), size, PropertyDTO::getId, page.getT2()));
+        });
+    }
+
+    public Mono<List<RoomDTO>> getPropertyRooms(Long propertyId) {
+        return this.findVersionsById(propertyId)
+                .then(this.roomRepository.findByPropertyId(propertyId).collectList());
+    }
+
+    public Mono<PropertyValueDTO> getValue(Long propertyId) {
+        return this.propertyRepository.findValueById(propertyId)
+                .switchIfEmpty(Mono.error(() -> PropertyService.propertyNotFound(propertyId)));
+    }
+
+    public Mono<PropertyAreaDTO> getTotalArea(Long propertyId) {
+        return this.propertyRepository.findTotalAreaById(propertyId)
+                .switchIfEmpty(Mono.error(() -> PropertyService.propertyNotFound(propertyId)));
+    }
+
+    public Mono<RoomDTO> getLargestRoom(Long propertyId) {
+        return this.roomRepository.findLargestByPropertyId(propertyId)
+                .switchIfEmpty(this.propertyRepository.existsById(propertyId).flatMap(exists -> Mono.error(exists
+                        ? new PropertyHasNoRoomsException(propertyId)
+                        : PropertyService.propertyNotFound(propertyId))));
+    }
+
+    public Mono<List<RoomAreaDTO>> getRoomsByArea(Long propertyId, Double minArea, Double maxArea) {
+        double min = minArea != null ? minArea : 0;
+        double max = maxArea != null ? maxArea : Double.MAX_VALUE;
+
+        return this.roomRepository.findByPropertyIdAndAreaBetween(propertyId, min, max)
+                .collectList()
+                .flatMap(rooms -> !rooms.isEmpty() ? Mono.just(rooms) : this.propertyRepository.existsById(propertyId)
+                        .flatMap(exists -> exists
+                                ? Mono.just(rooms)
+                                : Mono.error(PropertyService.propertyNotFound(propertyId))));
+    }
+
+    public Mono<PropertyRoomsAreaDTO> getRoomsArea(Long propertyId) {
+        return this.propertyRepository.findRoomsAreaById(propertyId)
+                .switchIfEmpty(Mono.error(() -> PropertyService.propertyNotFound(propertyId)));
+    }
+
+    /**
+     * Values the given properties with one query per chunk of ids, in the order they were asked, reporting
+     * the ids that do not exist in their own entry like PropertyService#getValues.
+     */
+    public Mono<List<PropertyValuationDTO>> getValues(List<Long> propertyIds) {
+        return Flux.fromIterable(propertyIds)
+                .distinct()
+                .buffer(PropertyService.valuationChunkSize)
+                .concatMap(this.propertyRepository::findValuationsByIdIn)
+                .collectMap(PropertyValuationDTO::getId, Function.identity())
+                .map(valuations -> orderedAsAsked(propertyIds, valuations));
+    }
+
+    private static List<PropertyValuationDTO> orderedAsAsked(
+            List<Long> propertyIds, Map<Long, PropertyValuationDTO> valuations) {
+        return propertyIds.stream()
+                .map(id -> valuations.getOrDefault(id, PropertyValuationDTO.missing(id)))
+                .collect(Collectors.toList());
+    }
+
+    public Mono<List<PropertySummaryDTO>> getLargestProperties(Long districtId, int limit) {
+        return this.propertyRepository.findLargest(districtId, limit).collectList();
+    }
+
+    public Mono<List<PropertySummaryDTO>> getMostValuableProperties(Long districtId, int limit) {
+        return this.propertyRepository.findMostValuable(districtId, limit).collectList();
+    }
+
+    public Mono<Page<PropertySummaryDTO>> searchProperties(PropertySearchDTO search) {
+        Pageable paging = PropertyService.searchPage(search);
+        return Mono.zip(this.propertyRepository.search(search).collectList(),
+                        this.propertyRepository.countSearch(search))
+                .map(page -> new PageImpl<>(page.getT1(), paging, page.getT2()));
+    }
+
+    public Mono<CacheStatsDTO> getValueCacheStats() {
+        return Mono.fromSupplier(this.propertyValueCache::getStats);
+    }
+
+    public Mono<RoomReadModelStatsDTO> getRoomReadModelStats() {
+        return Mono.fromSupplier(this.roomReadModel::getStats);
+    }
+}
@@ -0,0 +1,88 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.exceptions.ResourceNotFoundException;
+import desafio_quality.repositories.ReactiveRoomRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The reads of RoomService without blocking a thread on the database. Writes are made by RoomService itself,
+ * off the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoomService {
+
+    private final ReactiveRoomRepository roomRepository;
+    private final RoomService roomService;
+    private static final Integer defaultPageSize = 5;
+
+    public ReactiveRoomService(ReactiveRoomRepository roomRepository, RoomService roomService) {
+        this.roomRepository = roomRepository;
+        this.roomService = roomService;
+    }
+
+    public Mono<Page<RoomDTO>> getAllRooms(Integer pageNumber, Integer pageSize) {
+        pageNumber = pageNumber != null ? pageNumber : 0;
+        pageSize = pageSize != null ? pageSize : defaultPageSize;
+
+        Pageable paging = PageRequest.of(pageNumber, pageSize);
+        return Mono.zip(this.roomRepository.findAll(paging.getOffset(), paging.getPageSize()).collectList(),
+                        this.roomRepository.count())
+                .map(page -> new PageImpl<>(page.getT1(), paging, page.getT2()));
+    }
+
+    public Mono<CursorPageDTO<RoomDTO>> getRoomsAfter(String cursor, Integer pageSize, boolean includeCount) {
+        return Mono.fromCallable(() -> CursorPageDTO.decodeCursor(cursor)).flatMap(lastId -> {
+            int size = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
+
+            Mono<List<RoomDTO>> rooms = this.roomRepository.findAllAfter(lastId, size + 1).collectList();
+            if (!includeCount) {
+                return rooms.map(fetched -> CursorPageDTO.of(fetched, size, RoomDTO::getId, null));
+            }
+            return Mono.zip(rooms, this.roomRepository.count())
+                    .map(page -> CursorPageDTO.of(page.getT1(), size, RoomDTO::getId, page.getT2()));
+        });
+    }
+
+    public Mono<String> getRoomETag(Long roomId) {
+        return this.roomRepository.findVersionById(roomId)
+                .map(String::valueOf)
+                .switchIfEmpty(Mono.error(() -> roomNotFound(roomId)));
+    }
+
+    public Mono<RoomDTO> getRoomById(Long roomId) {
+        return this.roomRepository.findById(roomId)
+                .switchIfEmpty(Mono.error(() -> roomNotFound(roomId)));
+    }
+
+    public Mono<RoomDTO> createRoom(Long propertyId, UpsertRoomDTO upsertRoomDto) {
+        return Blocking.call(() -> this.roomService.createRoom(propertyId, upsertRoomDto));
+    }
+
+    public Mono<List<RoomDTO>> createRooms(Long propertyId, List<UpsertRoomDTO> upsertRoomDtos) {
+        return Blocking.call(() -> this.roomService.createRooms(propertyId, upsertRoomDtos));
+    }
+
+    public Mono<Versioned<RoomDTO>> updateRoom(Long roomId, UpsertRoomDTO upsertRoomDto, String ifMatch) {
+        return Blocking.call(() -> this.roomService.updateRoom(roomId, upsertRoomDto, ifMatch));
+    }
+
+    public Mono<Void> deleteRoom(Long roomId) {
+        return Blocking.run(() -> this.roomService.deleteRoom(roomId));
+    }
+
+    private static ResourceNotFoundException roomNotFound(Long roomId) {
+        return new ResourceNotFoundException("Room " + roomId + " does not exist.");
+    }
+}
@@ -0,0 +1,24 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.SnapshotDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the snapshot with SnapshotService, off the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSnapshotService {
+
+    private final SnapshotService snapshotService;
+
+    public ReactiveSnapshotService(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    public Mono<SnapshotDTO> write() {
+        return Blocking.call(this.snapshotService::write);
+    }
+}
@@ -0,0 +1,154 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.exceptions.ResourceNotFoundException;
+import desafio_quality.repositories.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rewrites the persisted value of every property of a repriced district in the background. The
+ * district's properties are counted and split into id ranges of chunkSize rows by the job itself,
+ * each range revalued by one UPDATE in its own transaction on the worker pool; the cached valuations of the district are dropped as each chunk commits, and
+ * the district's total value is summed again once all of them are done.
+ */
+@Service
+public class RevaluationService {
+
+    private static class Job {
+        private final Long districtId;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong revaluedProperties = new AtomicLong();
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private volatile Long totalProperties;
+        private volatile RevaluationJobDTO.Status status = RevaluationJobDTO.Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(Long districtId) {
+            this.districtId = districtId;
+        }
+
+        private RevaluationJobDTO toDTO() {
+            return new RevaluationJobDTO(
+                    districtId,
+                    status,
+                    totalProperties,
+                    revaluedProperties.get(),
+                    completedChunks.get(),
+                    startedAt,
+                    finishedAt,
+                    error
+            );
+        }
+    }
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyValueCache propertyValueCache;
+    private final DistrictStatsService districtStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final Map<Long, Job> latestJobByDistrict = new ConcurrentHashMap<>();
+
+    public RevaluationService(
+            PropertyRepository propertyRepository,
+            PropertyValueCache propertyValueCache,
+            DistrictStatsService districtStatsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${properties.revaluation.threads:4}") int threads,
+            @Value("${properties.revaluation.chunk-size:1000}") int chunkSize) {
+        this.propertyRepository = propertyRepository;
+        this.propertyValueCache = propertyValueCache;
+        this.districtStatsService = districtStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Starts revaluing the district and returns at once. A job already running for the district keeps
+     * going: its chunks read the square meter value when they execute, so none can write the old price.
+     * The returned job has no total yet: the properties are counted on the worker pool, not on the caller.
+     */
+    public RevaluationJobDTO revalueDistrict(Long districtId) {
+        Job job = new Job(districtId);
+        this.latestJobByDistrict.put(districtId, job);
+
+        CompletableFuture.runAsync(() -> run(job), this.executor);
+        return job.toDTO();
+    }
+
+    public RevaluationJobDTO getLatestJob(Long districtId) {
+        Job job = this.latestJobByDistrict.get(districtId);
+        if (job == null) {
+            throw new ResourceNotFoundException("District " + districtId + " has not been revalued.");
+        }
+        return job.toDTO();
+    }
+
+    private void run(Job job) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        try {
+            job.totalProperties = this.propertyRepository.countByDistrictId(job.districtId);
+            long fromId = 0L;
+            boolean lastChunk = false;
+            while (!lastChunk) {
+                List<Long> lastIdOfChunk = this.propertyRepository.findIdsByDistrictAfter(
+                        job.districtId, fromId, PageRequest.of(this.chunkSize - 1, 1));
+                lastChunk = lastIdOfChunk.isEmpty();
+                long chunkFromId = fromId;
+                long chunkToId = lastChunk ? Long.MAX_VALUE : lastIdOfChunk.get(0);
+
+                chunks.add(CompletableFuture.runAsync(() -> revalueChunk(job, chunkFromId, chunkToId), this.executor));
+                fromId = chunkToId;
+            }
+        } catch (RuntimeException ex) {
+            chunks.add(CompletableFuture.failedFuture(ex));
+        }
+
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).whenComplete((ignored, ex) -> {
+            Throwable failure = ex;
+            try {
+                this.districtStatsService.refreshTotalValue(job.districtId);
+            } catch (RuntimeException refreshEx) {
+                failure = failure != null ? failure : refreshEx;
+            }
+            job.finishedAt = Instant.now();
+            if (failure != null) {
+                job.error = failure.getMessage();
+                job.status = RevaluationJobDTO.Status.FAILED;
+            } else {
+                job.status = RevaluationJobDTO.Status.COMPLETED;
+            }
+        });
+    }
+
+    private void revalueChunk(Job job, long fromId, long toId) {
+        Integer revalued = this.transactionTemplate.execute(
+                status -> this.propertyRepository.revalueDistrictRange(job.districtId, fromId, toId));
+        this.propertyValueCache.invalidateDistrict(job.districtId);
+        job.revaluedProperties.addAndGet(revalued);
+        job.completedChunks.incrementAndGet();
+    }
+}
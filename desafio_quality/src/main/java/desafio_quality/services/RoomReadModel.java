@@ -0,0 +1,415 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.PropertyAreaDTO;
+import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.RoomReadModelStatsDTO;
+import desafio_quality.exceptions.PropertyHasNoRoomsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional copy of every property's rooms kept in primitive columns: one array per room attribute,
+ * ordered by property and room id, with the offset of each property's first room and its persisted
+ * total area. Like the (property_id, area DESC, id) index, each property's rooms are also listed by area,
+ * largest first, so area queries stop at the bounds. The area endpoints read it without touching the database.
+ * <p>
+ * The columns are loaded once on startup and never modified. Properties written afterwards are read
+ * again from the database once their transaction commits and kept in a small overlay, which wins over
+ * the columns and is merged into a new set of columns when it grows past the compaction threshold.
+ */
+@Component
+public class RoomReadModel {
+
+    private static final String ROWS =
+            "select p.id, p.name, p.total_area, r.id, r.name, r.width, r.length " +
+            "from property p left join room r on r.property_id = p.id ";
+    private static final String ALL_ROWS = ROWS + "order by p.id, r.id";
+    private static final String PROPERTY_ROWS = ROWS + "where p.id = ? order by r.id";
+
+    private static final Columns EMPTY = new ColumnsBuilder().build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int compactionThreshold;
+
+    private volatile Columns columns;
+    private final Map<Long, Columns> overlay = new ConcurrentHashMap<>();
+
+    public RoomReadModel(
+            JdbcTemplate jdbcTemplate,
+            @Value("${properties.room-read-model.enabled:false}") boolean enabled,
+            @Value("${properties.room-read-model.compaction-threshold:10000}") int compactionThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Whether reads can be served from memory, which is only the case once the first load has finished.
+     */
+    public boolean isReady() {
+        return this.columns != null;
+    }
+
+    /**
+     * Reads every property and room into a fresh set of columns. Properties refreshed while the load runs
+     * keep their overlay entries, since those may be newer than what the load read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (!this.enabled) {
+            return;
+        }
+        Map<Long, Columns> loadedOver;
+        synchronized (this) {
+            loadedOver = new HashMap<>(this.overlay);
+        }
+
+        ColumnsBuilder builder = new ColumnsBuilder();
+        this.jdbcTemplate.query(ALL_ROWS, (RowCallbackHandler) builder::add);
+        Columns loaded = builder.build();
+
+        synchronized (this) {
+            this.columns = loaded;
+            loadedOver.forEach(this.overlay::remove);
+        }
+    }
+
+    /**
+     * Reads the property and its rooms again once the current transaction commits.
+     */
+    public void propertyChanged(Long propertyId) {
+        if (!this.enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(propertyId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(propertyId);
+            }
+        });
+    }
+
+    /**
+     * Synchronized so that when two commits touch the same property, the last read is also the last one stored.
+     */
+    private synchronized void refresh(Long propertyId) {
+        ColumnsBuilder builder = new ColumnsBuilder();
+        this.jdbcTemplate.query(PROPERTY_ROWS, (RowCallbackHandler) builder::add, propertyId);
+        this.overlay.put(propertyId, builder.build());
+
+        if (this.columns != null && this.overlay.size() > this.compactionThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Merges the overlay into a new set of columns. The columns are replaced before the overlay entries
+     * are dropped, so a reader that misses the overlay always finds the merged columns.
+     */
+    private void compact() {
+        Map<Long, Columns> merged = new TreeMap<>(this.overlay);
+        Columns current = this.columns;
+        ColumnsBuilder builder = new ColumnsBuilder();
+
+        int property = 0;
+        for (Map.Entry<Long, Columns> entry : merged.entrySet()) {
+            while (property < current.propertyIds.length && current.propertyIds[property] < entry.getKey()) {
+                builder.copy(current, property++);
+            }
+            if (property < current.propertyIds.length && current.propertyIds[property] == entry.getKey()) {
+                property++;
+            }
+            if (entry.getValue().propertyIds.length > 0) {
+                builder.copy(entry.getValue(), 0);
+            }
+        }
+        while (property < current.propertyIds.length) {
+            builder.copy(current, property++);
+        }
+
+        this.columns = builder.build();
+        merged.forEach(this.overlay::remove);
+    }
+
+    public PropertyAreaDTO getTotalArea(Long propertyId) {
+        Columns columns = columnsOf(propertyId);
+        return new PropertyAreaDTO(columns.totalAreas[columns.indexOf(propertyId)]);
+    }
+
+    /**
+     * The room with the largest area, ties going to the lowest id like the database query.
+     */
+    public RoomDTO getLargestRoom(Long propertyId) {
+        Columns columns = columnsOf(propertyId);
+        int property = columns.indexOf(propertyId);
+
+        if (columns.offsets[property] == columns.offsets[property + 1]) {
+            throw new PropertyHasNoRoomsException(propertyId);
+        }
+        int largest = columns.byArea[columns.offsets[property]];
+        return new RoomDTO(columns.roomIds[largest], columns.roomNames[largest],
+                columns.widths[largest], columns.lengths[largest]);
+    }
+
+    /**
+     * Rooms whose area falls within the bounds, largest first and by id among equal areas. The first one
+     * is found by binary search over the rooms listed by area, and the scan ends at the first one below minArea.
+     */
+    public List<RoomAreaDTO> getRoomsByArea(Long propertyId, double minArea, double maxArea) {
+        Columns columns = columnsOf(propertyId);
+        int property = columns.indexOf(propertyId);
+        int to = columns.offsets[property + 1];
+
+        int low = columns.offsets[property];
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (columns.area(columns.byArea[middle]) > maxArea) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        List<RoomAreaDTO> rooms = new ArrayList<>();
+        for (int position = low; position < to && columns.area(columns.byArea[position]) >= minArea; position++) {
+            rooms.add(columns.roomArea(columns.byArea[position]));
+        }
+        return rooms;
+    }
+
+    public PropertyRoomsAreaDTO getRoomsArea(Long propertyId) {
+        Columns columns = columnsOf(propertyId);
+        int property = columns.indexOf(propertyId);
+
+        List<RoomAreaDTO> rooms = new ArrayList<>(columns.offsets[property + 1] - columns.offsets[property]);
+        for (int room = columns.offsets[property]; room < columns.offsets[property + 1]; room++) {
+            rooms.add(columns.roomArea(room));
+        }
+        return new PropertyRoomsAreaDTO(propertyId, columns.propertyNames[property], rooms);
+    }
+
+    public RoomReadModelStatsDTO getStats() {
+        Columns columns = this.columns;
+        return new RoomReadModelStatsDTO(
+                this.enabled,
+                columns != null,
+                columns != null ? columns.propertyIds.length : 0,
+                columns != null ? columns.roomIds.length : 0,
+                this.overlay.size(),
+                columns != null ? columns.estimatedBytes() : 0);
+    }
+
+    /**
+     * The overlay entry of the property if it has one, otherwise the columns. Fails when neither holds it.
+     */
+    private Columns columnsOf(Long propertyId) {
+        Columns columns = this.overlay.get(propertyId);
+        if (columns == null) {
+            columns = this.columns != null ? this.columns : EMPTY;
+        }
+        if (columns.indexOf(propertyId) < 0) {
+            throw PropertyService.propertyNotFound(propertyId);
+        }
+        return columns;
+    }
+
+    static final class Columns {
+        final long[] propertyIds;
+        final String[] propertyNames;
+        final double[] totalAreas;
+        final int[] offsets;
+        final long[] roomIds;
+        final String[] roomNames;
+        final double[] widths;
+        final double[] lengths;
+        final int[] byArea;
+
+        Columns(long[] propertyIds, String[] propertyNames, double[] totalAreas, int[] offsets,
+                long[] roomIds, String[] roomNames, double[] widths, double[] lengths, int[] byArea) {
+            this.propertyIds = propertyIds;
+            this.propertyNames = propertyNames;
+            this.totalAreas = totalAreas;
+            this.offsets = offsets;
+            this.roomIds = roomIds;
+            this.roomNames = roomNames;
+            this.widths = widths;
+            this.lengths = lengths;
+            this.byArea = byArea;
+        }
+
+        int indexOf(long propertyId) {
+            return Arrays.binarySearch(this.propertyIds, propertyId);
+        }
+
+        double area(int room) {
+            return this.widths[room] * this.lengths[room];
+        }
+
+        RoomAreaDTO roomArea(int room) {
+            return new RoomAreaDTO(this.roomIds[room], this.roomNames[room], area(room));
+        }
+
+        /**
+         * Size of the arrays themselves, leaving out the names they point to.
+         */
+        long estimatedBytes() {
+            long properties = this.propertyIds.length;
+            long rooms = this.roomIds.length;
+            return properties * (Long.BYTES + Integer.BYTES + Double.BYTES + Integer.BYTES)
+                    + rooms * (Long.BYTES + Integer.BYTES + Double.BYTES + Double.BYTES + Integer.BYTES);
+        }
+    }
+
+    /**
+     * Appends properties in id order, growing the arrays as needed. Room names are shared between rooms
+     * that have the same one, since most properties repeat the same handful.
+     */
+    static final class ColumnsBuilder {
+        private long[] propertyIds = new long[16];
+        private String[] propertyNames = new String[16];
+        private double[] totalAreas = new double[16];
+        private int[] offsets = new int[17];
+        private int properties;
+
+        private long[] roomIds = new long[16];
+        private String[] roomNames = new String[16];
+        private double[] widths = new double[16];
+        private double[] lengths = new double[16];
+        private int rooms;
+
+        private final Map<String, String> names = new HashMap<>();
+
+        /**
+         * Takes one row of the left join: the property, and one of its rooms unless it has none.
+         */
+        void add(ResultSet row) throws SQLException {
+            long propertyId = row.getLong(1);
+            if (this.properties == 0 || this.propertyIds[this.properties - 1] != propertyId) {
+                addProperty(propertyId, row.getString(2), row.getDouble(3));
+            }
+            long roomId = row.getLong(4);
+            if (!row.wasNull()) {
+                addRoom(roomId, row.getString(5), row.getDouble(6), row.getDouble(7));
+            }
+        }
+
+        void copy(Columns columns, int property) {
+            addProperty(columns.propertyIds[property], columns.propertyNames[property], columns.totalAreas[property]);
+            for (int room = columns.offsets[property]; room < columns.offsets[property + 1]; room++) {
+                addRoom(columns.roomIds[room], columns.roomNames[room], columns.widths[room], columns.lengths[room]);
+            }
+        }
+
+        private void addProperty(long propertyId, String name, double totalArea) {
+            if (this.properties == this.propertyIds.length) {
+                int capacity = this.properties * 2;
+                this.propertyIds = Arrays.copyOf(this.propertyIds, capacity);
+                this.propertyNames = Arrays.copyOf(this.propertyNames, capacity);
+                this.totalAreas = Arrays.copyOf(this.totalAreas, capacity);
+                this.offsets = Arrays.copyOf(this.offsets, capacity + 1);
+            }
+            this.propertyIds[this.properties] = propertyId;
+            this.propertyNames[this.properties] = name;
+            this.totalAreas[this.properties] = totalArea;
+            this.properties++;
+            this.offsets[this.properties] = this.rooms;
+        }
+
+        private void addRoom(long roomId, String name, double width, double length) {
+            if (this.rooms == this.roomIds.length) {
+                int capacity = this.rooms * 2;
+                this.roomIds = Arrays.copyOf(this.roomIds, capacity);
+                this.roomNames = Arrays.copyOf(this.roomNames, capacity);
+                this.widths = Arrays.copyOf(this.widths, capacity);
+                this.lengths = Arrays.copyOf(this.lengths, capacity);
+            }
+            this.roomIds[this.rooms] = roomId;
+            this.roomNames[this.rooms] = name != null ? this.names.computeIfAbsent(name, n -> n) : null;
+            this.widths[this.rooms] = width;
+            this.lengths[this.rooms] = length;
+            this.rooms++;
+            this.offsets[this.properties] = this.rooms;
+        }
+
+        Columns build() {
+            return new Columns(
+                    Arrays.copyOf(this.propertyIds, this.properties),
+                    Arrays.copyOf(this.propertyNames, this.properties),
+                    Arrays.copyOf(this.totalAreas, this.properties),
+                    Arrays.copyOf(this.offsets, this.properties + 1),
+                    Arrays.copyOf(this.roomIds, this.rooms),
+                    Arrays.copyOf(this.roomNames, this.rooms),
+                    Arrays.copyOf(this.widths, this.rooms),
+                    Arrays.copyOf(this.lengths, this.rooms),
+                    byArea());
+        }
+
+        /**
+         * Positions of the rooms of each property, largest area first. Rooms are added in id order and the
+         * merge sort is stable, so equal areas stay ordered by id without comparing ids or boxing positions.
+         */
+        private int[] byArea() {
+            int[] byArea = new int[this.rooms];
+            int[] buffer = new int[this.rooms];
+            for (int room = 0; room < this.rooms; room++) {
+                byArea[room] = room;
+            }
+            for (int property = 0; property < this.properties; property++) {
+                sortByArea(byArea, buffer, this.offsets[property], this.offsets[property + 1]);
+            }
+            return byArea;
+        }
+
+        private void sortByArea(int[] rooms, int[] buffer, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            sortByArea(rooms, buffer, from, middle);
+            sortByArea(rooms, buffer, middle, to);
+            System.arraycopy(rooms, from, buffer, from, to - from);
+
+            int left = from;
+            int right = middle;
+            for (int position = from; position < to; position++) {
+                if (right == to || (left < middle && area(buffer[left]) >= area(buffer[right]))) {
+                    rooms[position] = buffer[left++];
+                } else {
+                    rooms[position] = buffer[right++];
+                }
+            }
+        }
+
+        private double area(int room) {
+            return this.widths[room] * this.lengths[room];
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package desafio_quality.services;
 
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.RoomDTO;
 import desafio_quality.dtos.UpsertRoomDTO;
 import desafio_quality.entities.Property;
@@ -11,17 +12,23 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class RoomService {
 
     private final RoomRepository roomRepository;
     private final PropertyService propertyService;
+    private final OptimisticRetry optimisticRetry;
     private static final Integer defaultPageSize = 5;
 
-    public RoomService(RoomRepository roomRepository, PropertyService propertyService) {
+    public RoomService(RoomRepository roomRepository, PropertyService propertyService, OptimisticRetry optimisticRetry) {
         this.roomRepository = roomRepository;
         this.propertyService = propertyService;
+        this.optimisticRetry = optimisticRetry;
     }
 
     public Page<RoomDTO> getAllRooms(Integer pageNumber, Integer pageSize) {
@@ -29,9 +36,21 @@ public class RoomService {
         pageSize = pageSize != null ? pageSize : defaultPageSize;
 
         Pageable paging = PageRequest.of(pageNumber, pageSize);
-        Page<Room> paginatedProducts = this.roomRepository.findAll(paging);
+        return this.roomRepository.findAllDTOs(paging);
+    }
+
+    /**
+     * Keyset pagination over the room ids: each page costs an index range scan
+     * regardless of how deep the client is, and the count is only run on request.
+     */
+    public CursorPageDTO<RoomDTO> getRoomsAfter(String cursor, Integer pageSize, boolean includeCount) {
+        long lastId = CursorPageDTO.decodeCursor(cursor);
+        pageSize = CursorPageDTO.pageSizeOf(pageSize, defaultPageSize);
 
-        return paginatedProducts.map(RoomDTO::toDTO);
+        List<RoomDTO> rooms = this.roomRepository.findAllAfter(lastId, PageRequest.of(0, pageSize + 1));
+
+        Long totalElements = includeCount ? this.roomRepository.count() : null;
+        return CursorPageDTO.of(rooms, pageSize, RoomDTO::getId, totalElements);
     }
 
     public Room findById(Long roomId) throws ResourceNotFoundException {
@@ -40,11 +59,18 @@ public class RoomService {
         );
     }
 
+    public String getRoomETag(Long roomId) {
+        return String.valueOf(this.roomRepository.findVersionById(roomId).orElseThrow(() ->
+                new ResourceNotFoundException("Room " + roomId + " does not exist.")
+        ));
+    }
+
     public RoomDTO getRoomById(Long roomId){
         Room room = findById(roomId);
         return RoomDTO.toDTO(room);
     }
 
+    @Transactional
     public RoomDTO createRoom(
             Long propertyId,
             UpsertRoomDTO upsertRoomDto) throws ResourceNotFoundException {
@@ -58,24 +84,86 @@ public class RoomService {
         );
 
         Room savedRoom = this.roomRepository.save(room);
+        this.propertyService.applyRoomChanges(propertyId, 1, savedRoom.getArea());
         return RoomDTO.toDTO(savedRoom);
     }
 
+    /**
+     * Creates all the rooms in one transaction. Room ids come from a pooled sequence,
+     * so Hibernate defers the inserts to the flush and sends them as JDBC batches.
+     */
+    @Transactional
+    public List<RoomDTO> createRooms(
+            Long propertyId,
+            List<UpsertRoomDTO> upsertRoomDtos) throws ResourceNotFoundException {
+        Property property = this.propertyService.findPropertyById(propertyId);
+
+        List<Room> rooms = upsertRoomDtos.stream()
+            .map(upsertRoomDto -> new Room(
+                upsertRoomDto.getName(),
+                upsertRoomDto.getWidth(),
+                upsertRoomDto.getLength(),
+                property
+            ))
+            .collect(Collectors.toList());
+
+        List<Room> savedRooms = this.roomRepository.saveAll(rooms);
+        this.propertyService.applyRoomChanges(
+            propertyId, savedRooms.size(), savedRooms.stream().mapToDouble(Room::getArea).sum());
+
+        return savedRooms.stream()
+            .map(RoomDTO::toDTO)
+            .collect(Collectors.toList());
+    }
+
     public RoomDTO updateRoom(
             Long roomId,
             UpsertRoomDTO upsertRoomDto) throws ResourceNotFoundException {
+        return updateRoom(roomId, upsertRoomDto, null).getBody();
+    }
+
+    /**
+     * Updates the room when ifMatch, if given, matches its current ETag. An update of the room committed
+     * meanwhile fails the version check of this one, which then fails with PreconditionFailedException, or
+     * is rerun when there is no ifMatch. Concurrent changes to other rooms of the property do not conflict.
+     */
+    public Versioned<RoomDTO> updateRoom(
+            Long roomId,
+            UpsertRoomDTO upsertRoomDto,
+            String ifMatch) throws ResourceNotFoundException {
+        return this.optimisticRetry.run(ifMatch, "Room " + roomId, () -> doUpdateRoom(roomId, upsertRoomDto, ifMatch));
+    }
+
+    private Versioned<RoomDTO> doUpdateRoom(Long roomId, UpsertRoomDTO upsertRoomDto, String ifMatch) {
         Room room = findById(roomId);
+        ETags.requireMatch(ifMatch, ETags.of(room), "Room " + roomId);
+        double previousArea = room.getArea();
 
         room.setName(upsertRoomDto.getName());
         room.setLength(upsertRoomDto.getLength());
         room.setWidth(upsertRoomDto.getWidth());
 
         Room updatedRoom = this.roomRepository.save(room);
-        return RoomDTO.toDTO(updatedRoom);
+        applyRoomChanges(updatedRoom, 0, updatedRoom.getArea() - previousArea);
+        return new Versioned<>(RoomDTO.toDTO(updatedRoom), ETags.of(updatedRoom));
     }
 
+    /**
+     * Rerun when the room is updated before the delete commits, since the area taken off its property
+     * would be the one it read.
+     */
     public void deleteRoom(Long roomId) throws ResourceNotFoundException {
-        findById(roomId);
-        this.roomRepository.deleteById(roomId);
+        this.optimisticRetry.run(() -> {
+            Room room = findById(roomId);
+            this.roomRepository.deleteById(roomId);
+            applyRoomChanges(room, -1, -room.getArea());
+            return null;
+        });
+    }
+
+    private void applyRoomChanges(Room room, int addedRooms, double addedArea) {
+        if (room.getProperty() != null) {
+            this.propertyService.applyRoomChanges(room.getProperty().getId(), addedRooms, addedArea);
+        }
     }
 }
@@ -0,0 +1,428 @@
+package desafio_quality.services;
+
+import desafio_quality.dtos.SnapshotDTO;
+import desafio_quality.exceptions.SnapshotException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * Writes districts, properties and rooms to a binary snapshot file and loads them back, so a node can be
+ * brought up with its data without replaying the writes that produced it.
+ * <p>
+ * The file is a header (magic, version and the three row counts) followed by the districts, properties
+ * and rooms in id order. Numbers are fixed-width big-endian, strings are a length-prefixed UTF-8 run and
+ * decimals their unscaled bytes and scale. Rows keep their versions, so ETags handed out before a snapshot
+ * stay valid after it is restored. Loading maps the file through {@link FileChannel#map} in windows and
+ * feeds the rows to batched inserts straight from the mapping.
+ */
+@Service
+public class SnapshotService {
+
+    private static final int MAGIC = 0x44515331;
+    private static final int VERSION = 2;
+    private static final int BATCH_SIZE = 10000;
+    /**
+     * The allocationSize of the entity sequences, which Hibernate hands out in blocks of.
+     */
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private static final String DISTRICTS = "select id, name, square_meter_value, version from district order by id";
+    private static final String PROPERTIES =
+            "select id, name, district_id, room_count, total_area, property_value, version from property order by id";
+    private static final String ROOMS = "select id, name, width, length, property_id, version from room order by id";
+
+    private static final String INSERT_DISTRICT = "insert into district (id, name, square_meter_value, version) values (?, ?, ?, ?)";
+    private static final String INSERT_PROPERTY = "insert into property " +
+            "(id, name, district_id, room_count, total_area, property_value, version) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ROOM =
+            "insert into room (id, name, width, length, area, property_id, version) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DistrictStatsService districtStatsService;
+    private final RoomReadModel roomReadModel;
+    private final PropertyValueCache propertyValueCache;
+    private final Path path;
+    private final boolean restoreOnStartup;
+    private final long mappingWindow;
+
+    public SnapshotService(
+            JdbcTemplate jdbcTemplate,
+            DistrictStatsService districtStatsService,
+            RoomReadModel roomReadModel,
+            PropertyValueCache propertyValueCache,
+            @Value("${properties.snapshot.path:snapshot/desafio-quality.snapshot}") String path,
+            @Value("${properties.snapshot.restore-on-startup:false}") boolean restoreOnStartup,
+            @Value("${properties.snapshot.mapping-window:268435456}") long mappingWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.districtStatsService = districtStatsService;
+        this.roomReadModel = roomReadModel;
+        this.propertyValueCache = propertyValueCache;
+        this.path = Paths.get(path);
+        this.restoreOnStartup = restoreOnStartup;
+        this.mappingWindow = mappingWindow;
+    }
+
+    /**
+     * Writes every district, property and room as seen by one serializable read, first to a temporary file
+     * that then replaces the previous snapshot, so a crash mid-write never leaves a truncated snapshot behind.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
+    public SnapshotDTO write() {
+        long start = System.nanoTime();
+        Path temporary = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+
+        try {
+            if (this.path.getParent() != null) {
+                Files.createDirectories(this.path.getParent());
+            }
+            long districts;
+            long properties;
+            long rooms;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(0);
+                out.writeLong(0);
+                out.writeLong(0);
+
+                districts = writeRows(DISTRICTS, row -> {
+                    out.writeLong(row.getLong(1));
+                    writeString(out, row.getString(2));
+                    writeDecimal(out, row.getBigDecimal(3));
+                    out.writeLong(row.getLong(4));
+                });
+                properties = writeRows(PROPERTIES, row -> {
+                    out.writeLong(row.getLong(1));
+                    writeString(out, row.getString(2));
+                    out.writeLong(row.getLong(3));
+                    out.writeInt(row.getInt(4));
+                    out.writeDouble(row.getDouble(5));
+                    writeDecimal(out, row.getBigDecimal(6));
+                    out.writeLong(row.getLong(7));
+                });
+                rooms = writeRows(ROOMS, row -> {
+                    out.writeLong(row.getLong(1));
+                    writeString(out, row.getString(2));
+                    out.writeDouble(row.getDouble(3));
+                    out.writeDouble(row.getDouble(4));
+                    out.writeLong(row.getLong(5));
+                    out.writeLong(row.getLong(6));
+                });
+                out.flush();
+
+                ByteBuffer counts = ByteBuffer.allocate(3 * Long.BYTES)
+                        .putLong(districts).putLong(properties).putLong(rooms);
+                counts.flip();
+                channel.write(counts, 2 * Integer.BYTES);
+                channel.force(true);
+            }
+            Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return new SnapshotDTO(this.path.toString(), districts, properties, rooms,
+                    Files.size(this.path), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            throw new SnapshotException("Could not write the snapshot to " + this.path + ".", e);
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void restoreOnStartup() {
+        if (this.restoreOnStartup && Files.exists(this.path)) {
+            load();
+        }
+    }
+
+    /**
+     * Loads the snapshot into an empty database and rebuilds what is derived from the tables. On startup
+     * the derived state is built by its own listeners once the application is ready.
+     */
+    public SnapshotDTO restore() {
+        SnapshotDTO snapshot = load();
+        this.propertyValueCache.invalidateAll();
+        this.districtStatsService.rebuild();
+        this.roomReadModel.reload();
+        return snapshot;
+    }
+
+    private SnapshotDTO load() {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            MappedReader in = new MappedReader(channel, this.mappingWindow);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new SnapshotException(this.path + " is not a snapshot this version can read.");
+            }
+            long districts = in.readLong();
+            long properties = in.readLong();
+            long rooms = in.readLong();
+
+            this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                load(connection, in, districts, properties, rooms);
+                return null;
+            });
+
+            return new SnapshotDTO(this.path.toString(), districts, properties, rooms,
+                    channel.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            throw new SnapshotException("Could not read the snapshot at " + this.path + ".", e);
+        }
+    }
+
+    /**
+     * Commits after every batch, since H2 slows down sharply under one transaction holding millions of
+     * uncommitted rows. A snapshot that fails halfway is deleted again, leaving the database empty.
+     */
+    private void load(Connection connection, MappedReader in, long districts, long properties, long rooms)
+            throws SQLException {
+        requireEmpty(connection);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            insertRows(connection, INSERT_DISTRICT, districts, statement -> {
+                statement.setLong(1, in.readLong());
+                statement.setString(2, in.readString());
+                statement.setBigDecimal(3, in.readDecimal());
+                statement.setLong(4, in.readLong());
+            });
+            insertRows(connection, INSERT_PROPERTY, properties, statement -> {
+                statement.setLong(1, in.readLong());
+                statement.setString(2, in.readString());
+                long districtId = in.readLong();
+                if (districtId == 0) {
+                    statement.setNull(3, Types.BIGINT);
+                } else {
+                    statement.setLong(3, districtId);
+                }
+                statement.setInt(4, in.readInt());
+                statement.setDouble(5, in.readDouble());
+                statement.setBigDecimal(6, in.readDecimal());
+                statement.setLong(7, in.readLong());
+            });
+            insertRows(connection, INSERT_ROOM, rooms, statement -> {
+                statement.setLong(1, in.readLong());
+                statement.setString(2, in.readString());
+                double width = in.readDouble();
+                double length = in.readDouble();
+                statement.setDouble(3, width);
+                statement.setDouble(4, length);
+                statement.setDouble(5, width * length);
+                statement.setLong(6, in.readLong());
+                statement.setLong(7, in.readLong());
+            });
+
+            try (Statement statement = connection.createStatement()) {
+                restartSequence(statement, "district_seq", "district");
+                restartSequence(statement, "property_seq", "property");
+                restartSequence(statement, "room_seq", "room");
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("delete from room");
+                statement.execute("delete from property");
+                statement.execute("delete from district");
+                connection.commit();
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery(
+                     "select (select count(*) from district) + (select count(*) from property)")) {
+            count.next();
+            if (count.getLong(1) > 0) {
+                throw new SnapshotException("The snapshot can only be restored into an empty database.");
+            }
+        }
+    }
+
+    /**
+     * Moves the sequence a whole block past the largest restored id, so ids handed out later never collide.
+     */
+    private static void restartSequence(Statement statement, String sequence, String table) throws SQLException {
+        long maxId;
+        try (ResultSet max = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            max.next();
+            maxId = max.getLong(1);
+        }
+        statement.execute("alter sequence " + sequence + " restart with " + (maxId + SEQUENCE_BLOCK + 1));
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+    }
+
+    private interface RowReader {
+        void read(PreparedStatement statement) throws SQLException;
+    }
+
+    private long writeRows(String sql, RowWriter writer) {
+        long[] count = new long[1];
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private static void insertRows(Connection connection, String sql, long count, RowReader reader)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (long row = 1; row <= count; row++) {
+                reader.read(statement);
+                statement.addBatch();
+                if (row % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new SnapshotException("Name too long for a snapshot: " + value.substring(0, 30) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(unscaled.length);
+        out.writeShort(value.scale());
+        out.write(unscaled);
+    }
+
+    /**
+     * Reads the snapshot through a read-only mapping of the file, moving the window along when the next
+     * value would run past its end.
+     */
+    static final class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private final long windowSize;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedReader(FileChannel channel, long windowSize) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = windowSize;
+            map(0);
+        }
+
+        private void map(long from) throws IOException {
+            this.windowStart = from;
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(this.windowSize, this.size - from));
+        }
+
+        private void ensure(int bytes) {
+            if (this.window.remaining() >= bytes) {
+                return;
+            }
+            long next = this.windowStart + this.window.position();
+            try {
+                if (this.size - next < bytes) {
+                    throw new EOFException("The snapshot ends before its last row.");
+                }
+                map(next);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int readInt() {
+            ensure(Integer.BYTES);
+            return this.window.getInt();
+        }
+
+        long readLong() {
+            ensure(Long.BYTES);
+            return this.window.getLong();
+        }
+
+        double readDouble() {
+            ensure(Double.BYTES);
+            return this.window.getDouble();
+        }
+
+        String readString() {
+            ensure(Short.BYTES);
+            short length = this.window.getShort();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            ensure(length);
+            this.window.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        BigDecimal readDecimal() {
+            ensure(Byte.BYTES);
+            int length = this.window.get();
+            if (length == 0) {
+                return null;
+            }
+            ensure(Short.BYTES + length);
+            int scale = this.window.getShort();
+            byte[] unscaled = new byte[length];
+            this.window.get(unscaled);
+            return new BigDecimal(new BigInteger(unscaled), scale);
+        }
+    }
+}
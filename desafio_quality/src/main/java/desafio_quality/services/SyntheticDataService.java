@@ -0,0 +1,296 @@
+package desafio_quality.services;
+
+import desafio_quality.synthetic.SyntheticDataset;
+import desafio_quality.valuation.FixedPointValuation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills an empty database with a {@link SyntheticDataset} of the configured size, for environments that
+ * need realistic volumes rather than the handful of rows of DBService#instantiateDB.
+ * <p>
+ * Properties are generated in chunks of consecutive ids, each inserted with its rooms on its own connection
+ * and committed on its own, by a pool of worker threads. Rows go in as multi-row INSERTs sent in JDBC
+ * batches. Room ids are dense: a first pass counts the rooms of every chunk, so each chunk knows where its
+ * ids start before any is inserted. A chunk generates its rooms twice, once to insert its properties with
+ * their total area, room count and value already computed and once to insert the rooms themselves, so
+ * only the district stats are left to rebuild. Chunks are kept small, a few thousand rooms, since H2 inserts
+ * slow down as the transaction holding them grows.
+ */
+@Service
+public class SyntheticDataService {
+
+    private static final int ROWS_PER_INSERT = 100;
+    private static final int INSERTS_PER_BATCH = 20;
+    /**
+     * The allocationSize of the entity sequences, which Hibernate hands out in blocks of.
+     */
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private static final String INSERT_DISTRICT = "insert into district (id, name, square_meter_value) values ";
+    private static final String DISTRICT_ROW = "(?, ?, ?)";
+    private static final String INSERT_PROPERTY = "insert into property " +
+            "(id, name, district_id, room_count, total_area, property_value) values ";
+    private static final String PROPERTY_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ROOM = "insert into room (id, name, width, length, area, property_id) values ";
+    private static final String ROOM_ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DistrictStatsService districtStatsService;
+    private final RoomReadModel roomReadModel;
+    private final PropertyValueCache propertyValueCache;
+    private final int districts;
+    private final long properties;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+
+    public SyntheticDataService(
+            JdbcTemplate jdbcTemplate,
+            DistrictStatsService districtStatsService,
+            RoomReadModel roomReadModel,
+            PropertyValueCache propertyValueCache,
+            @Value("${properties.synthetic-data.districts:1000}") int districts,
+            @Value("${properties.synthetic-data.properties:100000}") long properties,
+            @Value("${properties.synthetic-data.seed:42}") long seed,
+            @Value("${properties.synthetic-data.threads:4}") int threads,
+            @Value("${properties.synthetic-data.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.districtStatsService = districtStatsService;
+        this.roomReadModel = roomReadModel;
+        this.propertyValueCache = propertyValueCache;
+        this.districts = districts;
+        this.properties = properties;
+        this.seed = seed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Generates the configured dataset and returns the number of rooms it holds. Fails, leaving the database
+     * as it was, when it already has districts or properties; a generation that fails halfway is deleted.
+     */
+    public long generate() {
+        SyntheticDataset dataset = new SyntheticDataset(this.seed, this.districts);
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            requireEmpty(connection);
+            return null;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try {
+            BigDecimal[] squareMeterValues = insertDistricts(dataset);
+            long[] firstRoomIds = firstRoomIds(dataset, executor);
+
+            List<CompletableFuture<Void>> chunks = new ArrayList<>(firstRoomIds.length);
+            for (int chunk = 0; chunk < firstRoomIds.length - 1; chunk++) {
+                long fromId = 1 + (long) chunk * this.chunkSize;
+                long toId = Math.min(this.properties, fromId + this.chunkSize - 1);
+                long firstRoomId = firstRoomIds[chunk];
+                chunks.add(CompletableFuture.runAsync(() -> this.jdbcTemplate.execute(
+                        (ConnectionCallback<Void>) connection -> {
+                            insertChunk(connection, dataset, squareMeterValues, fromId, toId, firstRoomId);
+                            return null;
+                        }), executor));
+            }
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+
+            long rooms = firstRoomIds[firstRoomIds.length - 1] - 1;
+            this.jdbcTemplate.execute("alter sequence district_seq restart with " + (this.districts + SEQUENCE_BLOCK + 1));
+            this.jdbcTemplate.execute("alter sequence property_seq restart with " + (this.properties + SEQUENCE_BLOCK + 1));
+            this.jdbcTemplate.execute("alter sequence room_seq restart with " + (rooms + SEQUENCE_BLOCK + 1));
+            return rooms;
+        } catch (RuntimeException e) {
+            this.jdbcTemplate.execute("delete from room");
+            this.jdbcTemplate.execute("delete from property");
+            this.jdbcTemplate.execute("delete from district");
+            throw e instanceof CompletionException && e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause() : e;
+        } finally {
+            executor.shutdown();
+            this.propertyValueCache.invalidateAll();
+            this.districtStatsService.rebuild();
+            this.roomReadModel.reload();
+        }
+    }
+
+    private BigDecimal[] insertDistricts(SyntheticDataset dataset) {
+        BigDecimal[] squareMeterValues = new BigDecimal[this.districts + 1];
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (MultiRowInsert insert = new MultiRowInsert(connection, INSERT_DISTRICT, DISTRICT_ROW, 3)) {
+                for (int id = 1; id <= this.districts; id++) {
+                    squareMeterValues[id] = dataset.squareMeterValue(id);
+                    insert.add((long) id, dataset.districtName(id), squareMeterValues[id]);
+                }
+                insert.flush();
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        return squareMeterValues;
+    }
+
+    /**
+     * The id of the first room of each chunk, plus one past the last room at the end.
+     */
+    private long[] firstRoomIds(SyntheticDataset dataset, ExecutorService executor) {
+        int chunks = (int) ((this.properties + this.chunkSize - 1) / this.chunkSize);
+        List<CompletableFuture<Long>> counts = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            long fromId = 1 + (long) chunk * this.chunkSize;
+            long toId = Math.min(this.properties, fromId + this.chunkSize - 1);
+            counts.add(CompletableFuture.supplyAsync(() -> {
+                long rooms = 0;
+                for (long id = fromId; id <= toId; id++) {
+                    rooms += dataset.roomCount(id);
+                }
+                return rooms;
+            }, executor));
+        }
+
+        long[] firstRoomIds = new long[chunks + 1];
+        firstRoomIds[0] = 1;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            firstRoomIds[chunk + 1] = firstRoomIds[chunk] + counts.get(chunk).join();
+        }
+        return firstRoomIds;
+    }
+
+    private void insertChunk(Connection connection, SyntheticDataset dataset, BigDecimal[] squareMeterValues,
+                             long fromId, long toId, long firstRoomId) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (MultiRowInsert properties = new MultiRowInsert(connection, INSERT_PROPERTY, PROPERTY_ROW, 6);
+             MultiRowInsert rooms = new MultiRowInsert(connection, INSERT_ROOM, ROOM_ROW, 6)) {
+            double[] totalArea = new double[1];
+            for (long id = fromId; id <= toId; id++) {
+                long districtId = dataset.districtOf(id);
+                totalArea[0] = 0;
+                int roomCount = dataset.rooms(id, (name, width, length) -> totalArea[0] += width * length);
+                properties.add(id, dataset.propertyName(id), districtId, roomCount, totalArea[0],
+                        FixedPointValuation.valueOf(totalArea[0], squareMeterValues[(int) districtId]));
+            }
+            properties.flush();
+
+            long[] roomId = {firstRoomId};
+            for (long id = fromId; id <= toId; id++) {
+                long propertyId = id;
+                dataset.rooms(propertyId, (name, width, length) -> {
+                    try {
+                        rooms.add(roomId[0]++, name, width, length, width * length, propertyId);
+                    } catch (SQLException e) {
+                        throw this.jdbcTemplate.getExceptionTranslator().translate("Generating rooms", INSERT_ROOM, e);
+                    }
+                });
+            }
+            rooms.flush();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery(
+                     "select (select count(*) from district) + (select count(*) from property)")) {
+            count.next();
+            if (count.getLong(1) > 0) {
+                throw new IllegalStateException("Synthetic data can only be generated into an empty database.");
+            }
+        }
+    }
+
+    /**
+     * Buffers rows into INSERTs of ROWS_PER_INSERT rows each and sends them INSERTS_PER_BATCH at a time; the
+     * rows left over at the end go in one INSERT of their own size.
+     */
+    private static class MultiRowInsert implements AutoCloseable {
+
+        private final Connection connection;
+        private final String insert;
+        private final String row;
+        private final int columns;
+        private final Object[] values;
+        private final PreparedStatement full;
+        private int rows;
+        private int batched;
+
+        private MultiRowInsert(Connection connection, String insert, String row, int columns) throws SQLException {
+            this.connection = connection;
+            this.insert = insert;
+            this.row = row;
+            this.columns = columns;
+            this.values = new Object[ROWS_PER_INSERT * columns];
+            this.full = connection.prepareStatement(sql(ROWS_PER_INSERT));
+        }
+
+        private void add(Object... row) throws SQLException {
+            System.arraycopy(row, 0, this.values, this.rows * this.columns, this.columns);
+            if (++this.rows == ROWS_PER_INSERT) {
+                bind(this.full);
+                this.full.addBatch();
+                this.rows = 0;
+                if (++this.batched == INSERTS_PER_BATCH) {
+                    this.full.executeBatch();
+                    this.batched = 0;
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (this.batched > 0) {
+                this.full.executeBatch();
+                this.batched = 0;
+            }
+            if (this.rows > 0) {
+                try (PreparedStatement rest = this.connection.prepareStatement(sql(this.rows))) {
+                    bind(rest);
+                    rest.executeUpdate();
+                }
+                this.rows = 0;
+            }
+        }
+
+        private void bind(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < this.rows * this.columns; i++) {
+                statement.setObject(i + 1, this.values[i]);
+            }
+        }
+
+        private String sql(int rows) {
+            StringBuilder sql = new StringBuilder(this.insert);
+            for (int i = 0; i < rows; i++) {
+                sql.append(i == 0 ? "" : ", ").append(this.row);
+            }
+            return sql.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.full.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package desafio_quality.services;
+
+/**
+ * A response body together with the ETag of the state it was built from.
+ */
+public class Versioned<T> {
+
+    private final T body;
+    private final String eTag;
+
+    public Versioned(T body, String eTag) {
+        this.body = body;
+        this.eTag = eTag;
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -0,0 +1,206 @@
+package desafio_quality.synthetic;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * A deterministic description of a dataset of any size: every district, property and room is derived from
+ * the seed and its own id alone, so any range of ids can be generated independently, in any order and on
+ * any thread, and always comes out the same.
+ * <p>
+ * Districts have log-normally distributed square meter values and are unevenly sized, a few holding most of
+ * the properties. Properties are studios, apartments or houses with 1 to 12 rooms; a property starts with a
+ * living room, a kitchen and a bathroom, and the rest are mostly bedrooms. Room dimensions depend on the
+ * kind of room, are rounded to 5 centimeters and stay within the limits of UpsertRoomDTO.
+ */
+public class SyntheticDataset {
+
+    public static final int MAX_ROOMS_PER_PROPERTY = 12;
+
+    private static final String[] DISTRICT_PREFIXES = {
+            "Jardim", "Vila", "Parque", "Alto", "Recanto", "Bosque", "Morro", "Chácara"};
+    private static final String[] DISTRICT_NAMES = {
+            "das Flores", "Bela Vista", "Primavera", "Esperança", "dos Pinheiros", "Imperial", "do Sol",
+            "São José", "Santa Clara", "Boa Vista", "das Palmeiras", "Novo Horizonte", "Aurora", "Itacorubi"};
+    private static final String[] PROPERTY_PREFIXES = {
+            "Residencial", "Edifício", "Casa", "Condomínio", "Solar", "Villa"};
+    private static final String[] PROPERTY_NAMES = {
+            "Aurora", "Ipê", "Jacarandá", "Atlântico", "Bem Viver", "Toscana", "Imperiale", "Araucária",
+            "Horizonte", "Serena"};
+
+    private static final long DISTRICT_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long PROPERTY_STREAM = 0xC2B2AE3D27D4EB4FL;
+
+    private final long seed;
+    private final int districts;
+
+    public SyntheticDataset(long seed, int districts) {
+        if (districts < 1) {
+            throw new IllegalArgumentException("A synthetic dataset needs at least one district");
+        }
+        this.seed = seed;
+        this.districts = districts;
+    }
+
+    public int getDistricts() {
+        return districts;
+    }
+
+    public String districtName(long districtId) {
+        long index = districtId - 1;
+        int combinations = DISTRICT_PREFIXES.length * DISTRICT_NAMES.length;
+        String name = DISTRICT_PREFIXES[(int) (index % DISTRICT_PREFIXES.length)] + " "
+                + DISTRICT_NAMES[(int) (index / DISTRICT_PREFIXES.length % DISTRICT_NAMES.length)];
+        long round = index / combinations;
+        return round == 0 ? name : name + " " + (round + 1);
+    }
+
+    /**
+     * Log-normal around R$ 7,000 per square meter, kept between R$ 1,500 and R$ 40,000.
+     */
+    public BigDecimal squareMeterValue(long districtId) {
+        SplittableRandom random = random(DISTRICT_STREAM, districtId);
+        double value = Math.exp(Math.log(7000) + 0.45 * gaussian(random));
+        return BigDecimal.valueOf(Math.min(40_000, Math.max(1_500, value))).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Skewed towards the first districts: the first tenth of them holds about a third of the properties.
+     */
+    public long districtOf(long propertyId) {
+        double u = random(PROPERTY_STREAM, propertyId).nextDouble();
+        return 1 + (long) (this.districts * u * u);
+    }
+
+    public String propertyName(long propertyId) {
+        SplittableRandom random = random(PROPERTY_STREAM, propertyId);
+        random.nextDouble();
+        return PROPERTY_PREFIXES[random.nextInt(PROPERTY_PREFIXES.length)] + " "
+                + PROPERTY_NAMES[random.nextInt(PROPERTY_NAMES.length)] + " " + propertyId;
+    }
+
+    public int roomCount(long propertyId) {
+        SplittableRandom random = random(PROPERTY_STREAM, propertyId);
+        skipToRooms(random);
+        return roomCount(random);
+    }
+
+    /**
+     * Hands the rooms of the property to the consumer in order and returns how many there were.
+     */
+    public int rooms(long propertyId, RoomConsumer consumer) {
+        SplittableRandom random = random(PROPERTY_STREAM, propertyId);
+        skipToRooms(random);
+        int count = roomCount(random);
+        for (int i = 0; i < count; i++) {
+            RoomKind kind = kindOf(i, count, random);
+            consumer.accept(kind.label, kind.width(random), kind.length(random));
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    public interface RoomConsumer {
+        void accept(String name, double width, double length);
+    }
+
+    private enum RoomKind {
+        LIVING_ROOM("Sala", 3.0, 7.0, 3.5, 10.0),
+        KITCHEN("Cozinha", 2.0, 4.5, 2.5, 6.0),
+        BATHROOM("Banheiro", 1.2, 2.5, 1.5, 3.5),
+        BEDROOM("Quarto", 2.5, 5.0, 2.8, 6.0),
+        OFFICE("Escritório", 2.0, 4.0, 2.0, 4.5),
+        LAUNDRY("Lavanderia", 1.2, 2.5, 1.5, 3.0),
+        BALCONY("Varanda", 1.0, 3.0, 2.0, 8.0);
+
+        private final String label;
+        private final double minWidth;
+        private final double maxWidth;
+        private final double minLength;
+        private final double maxLength;
+
+        RoomKind(String label, double minWidth, double maxWidth, double minLength, double maxLength) {
+            this.label = label;
+            this.minWidth = minWidth;
+            this.maxWidth = maxWidth;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+        }
+
+        private double width(SplittableRandom random) {
+            return toFiveCentimeters(random.nextDouble(this.minWidth, this.maxWidth));
+        }
+
+        private double length(SplittableRandom random) {
+            return toFiveCentimeters(random.nextDouble(this.minLength, this.maxLength));
+        }
+    }
+
+    private static RoomKind kindOf(int index, int count, SplittableRandom random) {
+        if (index == 0) {
+            return RoomKind.LIVING_ROOM;
+        }
+        if (index == 1) {
+            return count == 2 ? RoomKind.BATHROOM : RoomKind.KITCHEN;
+        }
+        if (index == 2) {
+            return RoomKind.BATHROOM;
+        }
+        int draw = random.nextInt(100);
+        if (draw < 60) {
+            return RoomKind.BEDROOM;
+        } else if (draw < 75) {
+            return RoomKind.BATHROOM;
+        } else if (draw < 85) {
+            return RoomKind.OFFICE;
+        } else if (draw < 93) {
+            return RoomKind.BALCONY;
+        }
+        return RoomKind.LAUNDRY;
+    }
+
+    /**
+     * 15% studios of 1 to 3 rooms, 60% apartments of 4 to 7 and 25% houses of 6 to 12.
+     */
+    private static int roomCount(SplittableRandom random) {
+        int kind = random.nextInt(100);
+        if (kind < 15) {
+            return 1 + random.nextInt(3);
+        } else if (kind < 75) {
+            return 4 + random.nextInt(4);
+        }
+        return 6 + random.nextInt(MAX_ROOMS_PER_PROPERTY - 5);
+    }
+
+    /**
+     * Draws past the district and the name, so the rooms of a property follow from the same stream.
+     */
+    private static void skipToRooms(SplittableRandom random) {
+        random.nextDouble();
+        random.nextInt(PROPERTY_PREFIXES.length);
+        random.nextInt(PROPERTY_NAMES.length);
+    }
+
+    private SplittableRandom random(long stream, long id) {
+        return new SplittableRandom(mix(this.seed ^ stream) + id * stream);
+    }
+
+    private static double toFiveCentimeters(double meters) {
+        return Math.round(meters * 20) / 20.0;
+    }
+
+    /**
+     * Box-Muller; only ever needs one of the pair.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,77 @@
+package desafio_quality.valuation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Property valuation on scaled longs: areas in square centimeters and prices in cents. Rounding the area
+ * to 4 decimals of a square meter is rounding it to whole square centimeters, so the value is the exact
+ * integer product of the two divided by 10,000 and rounded half up, with no BigDecimal until the result.
+ * <p>
+ * Inputs the longs cannot hold exactly (prices with more than 2 decimals, products beyond the long range,
+ * areas sitting on a rounding tie) fall back to the BigDecimal formula, so both paths always agree.
+ */
+public final class FixedPointValuation {
+
+    public static final long SQUARE_CENTIMETERS_PER_SQUARE_METER = 10_000;
+    private static final int CENTS_SCALE = 2;
+    private static final int AREA_SCALE = 4;
+
+    private FixedPointValuation() {
+    }
+
+    /**
+     * The area rounded half up to whole square centimeters, as setScale(4, HALF_UP) on BigDecimal.valueOf.
+     * Only areas within a few ulps of a tie are handed to BigDecimal, which rounds the shortest decimal
+     * representation of the double rather than its binary value.
+     */
+    public static long toSquareCentimeters(double squareMeters) {
+        double scaled = squareMeters * SQUARE_CENTIMETERS_PER_SQUARE_METER;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+
+        if (!(Math.abs(scaled) < 0x1p52) || Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+            return BigDecimal.valueOf(squareMeters).setScale(AREA_SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        }
+        return (long) floor + (fraction > 0.5 ? 1 : 0);
+    }
+
+    /**
+     * The amount in cents, failing with ArithmeticException when it has more than 2 decimals or does not fit.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(CENTS_SCALE).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+    /**
+     * Square centimeters times the price of a square meter in cents, in cents rounded half up.
+     * Fails with ArithmeticException when the product does not fit in a long.
+     */
+    public static long valueInCents(long squareCentimeters, long squareMeterCents) {
+        long product = Math.multiplyExact(squareCentimeters, squareMeterCents);
+        long cents = product / SQUARE_CENTIMETERS_PER_SQUARE_METER;
+        long remainder = product % SQUARE_CENTIMETERS_PER_SQUARE_METER;
+        if (Math.abs(remainder) >= SQUARE_CENTIMETERS_PER_SQUARE_METER / 2) {
+            cents += Long.signum(product);
+        }
+        return cents;
+    }
+
+    /**
+     * The area rounded to 4 decimals times the square meter value, rounded to cents.
+     */
+    public static BigDecimal valueOf(double totalArea, BigDecimal squareMeterValue) {
+        try {
+            return fromCents(valueInCents(toSquareCentimeters(totalArea), toCents(squareMeterValue)));
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(totalArea).setScale(AREA_SCALE, RoundingMode.HALF_UP)
+                    .multiply(squareMeterValue)
+                    .setScale(CENTS_SCALE, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package desafio_quality.benchmark;
+
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RoomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Room updates per second from many threads, all on rooms of one property, whose totals every update
+ * changes, and on rooms of one property per thread. Reports the optimistic retries and the updates that
+ * gave up after all of them.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "properties.district-stats.summary-table.enabled=true")
+@ExtendWith(SpringExtension.class)
+class OptimisticConcurrencyBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int UPDATES_PER_THREAD = 200;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void teardown() {
+        dbService.knockDownDB();
+    }
+
+    private RoomDTO createRoom(Property property, int i) {
+        return roomService.createRoom(property.getId(), new UpsertRoomDTO("Sala " + i, 2, 3));
+    }
+
+    private double retries(String outcome) {
+        return meterRegistry.counter("optimistic.retries", "outcome", outcome).count();
+    }
+
+    private void run(String label, List<RoomDTO> rooms) throws Exception {
+        double retriedBefore = retries("retried");
+        AtomicInteger gaveUp = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (RoomDTO room : rooms) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 1; i <= UPDATES_PER_THREAD; i++) {
+                    try {
+                        roomService.updateRoom(room.getId(), new UpsertRoomDTO(room.getName(), 2 + i % 5, 3));
+                    } catch (OptimisticLockingFailureException e) {
+                        gaveUp.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        executor.shutdown();
+
+        int updates = THREADS * UPDATES_PER_THREAD;
+        System.out.printf("%s: %d updates from %d threads in %.2fs (%.0f updates/s), %.0f retries, %d gave up%n",
+            label, updates, THREADS, seconds, updates / seconds, retries("retried") - retriedBefore, gaveUp.get());
+    }
+
+    @Test
+    @DisplayName("Updates per second when every thread changes a room of the same property.")
+    void benchmarkOneProperty() throws Exception {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("5000")));
+        Property property = propertyRepository.save(new Property("Edifício", district));
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            rooms.add(createRoom(property, i));
+        }
+
+        run("one property", rooms);
+    }
+
+    @Test
+    @DisplayName("Updates per second when every thread changes a room of a property of its own.")
+    void benchmarkPropertyPerThread() throws Exception {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("5000")));
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            rooms.add(createRoom(propertyRepository.save(new Property("Casa " + i, district)), i));
+        }
+
+        run("property per thread", rooms);
+    }
+}
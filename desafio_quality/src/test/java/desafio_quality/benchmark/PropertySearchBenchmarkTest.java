@@ -0,0 +1,120 @@
+package desafio_quality.benchmark;
+
+import desafio_quality.dtos.PropertySearchDTO;
+import desafio_quality.services.DBService;
+import desafio_quality.services.PropertyService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+
+/**
+ * Times GET /properties/search filters against a synthetic portfolio, 1M properties by default.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.properties=N]
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PropertySearchBenchmarkTest {
+
+    private static final int PROPERTIES = Integer.getInteger("benchmark.properties", 1_000_000);
+    private static final int DISTRICTS = 100;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DBService dbService;
+
+    /**
+     * Generates the portfolio inside the database with one INSERT ... SELECT each. The multiplicative
+     * hashes of the row number spread districts, room counts and areas deterministically.
+     */
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO district (id, name, square_meter_value) " +
+                "SELECT X, CONCAT('Bairro ', X), 3000 + MOD(X * 7919, 12000) FROM SYSTEM_RANGE(1, ?)", DISTRICTS);
+        jdbcTemplate.update("INSERT INTO property (id, name, district_id, room_count, total_area, property_value) " +
+                "SELECT g.id, g.name, g.district_id, g.rooms, g.area, g.area * d.square_meter_value FROM (" +
+                "SELECT X AS id, CONCAT('Imóvel ', X) AS name, 1 + MOD(X * 7919, ?) AS district_id, " +
+                "MOD(X * 104729, 8) AS rooms, " +
+                "CASE WHEN MOD(X * 104729, 8) = 0 THEN 0 ELSE 20 + MOD(X * 15485863, 400) END AS area " +
+                "FROM SYSTEM_RANGE(1, ?)) g JOIN district d ON d.id = g.district_id", DISTRICTS, PROPERTIES);
+        System.out.printf("Seeded %d properties in %.1fs%n", PROPERTIES, (System.nanoTime() - start) / 1e9);
+    }
+
+    @AfterAll
+    void teardown() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE property");
+        jdbcTemplate.execute("TRUNCATE TABLE district");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        dbService.knockDownDB();
+    }
+
+    /**
+     * H2 reuses the result of a query repeated on unchanged tables, so each run shifts the filters by its index.
+     */
+    private void time(String label, BiConsumer<PropertySearchDTO, Integer> filters) {
+        PropertySearchDTO warmUp = new PropertySearchDTO();
+        filters.accept(warmUp, RUNS);
+        propertyService.searchProperties(warmUp);
+
+        long matches = 0;
+        long start = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            PropertySearchDTO search = new PropertySearchDTO();
+            filters.accept(search, run);
+            matches += propertyService.searchProperties(search).getTotalElements();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / RUNS;
+        System.out.printf("%-45s %8.2f ms/search, %d matches on average%n", label, millis, matches / RUNS);
+    }
+
+    @Test
+    @DisplayName("Milliseconds per search for common filter combinations.")
+    void benchmarkSearch() {
+        time("district + area 80..120 + value < 1M", (search, run) -> {
+            search.setDistrictId(1L + run);
+            search.setMinArea(80.0);
+            search.setMaxArea(120.0);
+            search.setMaxValue(new BigDecimal("1000000"));
+        });
+        time("area range, largest first", (search, run) -> {
+            search.setMinArea(80.0 + run);
+            search.setMaxArea(120.0 + run);
+            search.setSortBy("totalArea");
+            search.setDirection("desc");
+        });
+        time("most valuable first, no filter", (search, run) -> {
+            search.setSortBy("value");
+            search.setDirection("desc");
+            search.setPageNumber(run);
+        });
+        time("district, most valuable first", (search, run) -> {
+            search.setDistrictId(1L + run);
+            search.setSortBy("value");
+            search.setDirection("desc");
+        });
+        time("rooms >= 6, deep page", (search, run) -> {
+            search.setMinRooms(6);
+            search.setPageNumber(100 + run);
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package desafio_quality.benchmark;
+
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares one createRoom call per room, as onboarding does today, with createRooms in chunks.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class RoomCreationBenchmarkTest {
+
+    private static final int ROOMS = 10_000;
+    private static final int CHUNK_SIZE = 1_000;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DBService dbService;
+
+    private Long propertyId;
+
+    @BeforeEach
+    void setup() {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("5000")));
+        propertyId = propertyRepository.save(new Property("Edifício", district)).getId();
+    }
+
+    @AfterEach
+    void teardown() {
+        dbService.knockDownDB();
+    }
+
+    private List<UpsertRoomDTO> createUpsertRooms(int number) {
+        List<UpsertRoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            rooms.add(new UpsertRoomDTO("Sala " + i, 1 + i % 25, 1 + i % 33));
+        }
+        return rooms;
+    }
+
+    private static void report(String label, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%s: %d rooms in %.2fs (%.0f rooms/s)%n", label, ROOMS, seconds, ROOMS / seconds);
+    }
+
+    @Test
+    @DisplayName("Rooms per second creating one room per call.")
+    void benchmarkCreateRoom() {
+        List<UpsertRoomDTO> rooms = createUpsertRooms(ROOMS);
+
+        long start = System.nanoTime();
+        for (UpsertRoomDTO room : rooms) {
+            roomService.createRoom(propertyId, room);
+        }
+        report("createRoom", start);
+    }
+
+    @Test
+    @DisplayName("Rooms per second creating rooms in batched chunks.")
+    void benchmarkCreateRooms() {
+        List<UpsertRoomDTO> rooms = createUpsertRooms(ROOMS);
+
+        long start = System.nanoTime();
+        for (int from = 0; from < ROOMS; from += CHUNK_SIZE) {
+            roomService.createRooms(propertyId, rooms.subList(from, Math.min(from + CHUNK_SIZE, ROOMS)));
+        }
+        report("createRooms", start);
+    }
+}
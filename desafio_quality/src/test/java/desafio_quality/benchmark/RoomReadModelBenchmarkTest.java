@@ -0,0 +1,125 @@
+package desafio_quality.benchmark;
+
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.RoomRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RoomReadModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Measures the heap taken by the room read model and compares its area lookups with the JPA queries
+ * they replace, over 1M rooms by default spread four to a property.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.rooms=N]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "properties.room-read-model.enabled=true")
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomReadModelBenchmarkTest {
+
+    private static final int ROOMS = Integer.getInteger("benchmark.rooms", 1_000_000);
+    private static final int ROOMS_PER_PROPERTY = 4;
+    private static final int PROPERTIES = ROOMS / ROOMS_PER_PROPERTY;
+    private static final int LOOKUPS = 20_000;
+
+    @Autowired
+    private RoomReadModel roomReadModel;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DBService dbService;
+
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO district (id, name, square_meter_value) VALUES (1, 'Centro', 5000)");
+        jdbcTemplate.update("INSERT INTO property (id, name, district_id, room_count, total_area, property_value) " +
+                "SELECT X, CONCAT('Imóvel ', X), 1, ?, 0, 0 FROM SYSTEM_RANGE(1, ?)", ROOMS_PER_PROPERTY, PROPERTIES);
+        jdbcTemplate.update("INSERT INTO room (id, name, width, length, area, property_id) " +
+                "SELECT g.id, g.name, g.width, g.length, g.width * g.length, g.property_id FROM (" +
+                "SELECT X AS id, CASEWHEN(MOD(X, 4) = 0, 'Sala', CASEWHEN(MOD(X, 4) = 1, 'Quarto', " +
+                "CASEWHEN(MOD(X, 4) = 2, 'Cozinha', 'Banheiro'))) AS name, " +
+                "1 + MOD(X * 7919, 20) AS width, 1 + MOD(X * 104729, 15) AS length, " +
+                "1 + (X - 1) / ? AS property_id FROM SYSTEM_RANGE(1, ?)) g", ROOMS_PER_PROPERTY, ROOMS);
+        System.out.printf("Seeded %d rooms in %.1fs%n", ROOMS, (System.nanoTime() - start) / 1e9);
+    }
+
+    @AfterAll
+    void teardown() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE room");
+        jdbcTemplate.execute("TRUNCATE TABLE property");
+        jdbcTemplate.execute("TRUNCATE TABLE district");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        dbService.knockDownDB();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Walks the properties with a stride so consecutive lookups land on different pages and H2 cannot
+     * reuse the result of the previous query.
+     */
+    private static void time(String label, LongConsumer lookup) {
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            lookup.accept(1 + (i * 7919L) % PROPERTIES);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.accept(1 + (i * 104729L) % PROPERTIES);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / LOOKUPS;
+        System.out.printf("%-30s %10.2f us/lookup%n", label, micros);
+    }
+
+    @Test
+    @DisplayName("Heap per million rooms and microseconds per lookup against the JPA queries.")
+    void benchmarkReadModel() {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        roomReadModel.reload();
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+        long after = usedHeap();
+
+        double perMillion = 1_000_000.0 / ROOMS / (1 << 20);
+        System.out.printf("Loaded %d rooms in %.1fs: %.1f MB of heap per million rooms (%.1f MB in the arrays)%n",
+                roomReadModel.getStats().getRoomCount(), loadSeconds,
+                (after - before) * perMillion, roomReadModel.getStats().getEstimatedBytes() * perMillion);
+
+        time("totalArea, read model", id -> roomReadModel.getTotalArea(id));
+        time("totalArea, JPA", id -> propertyRepository.findTotalAreaById(id));
+        time("largestRoom, read model", id -> roomReadModel.getLargestRoom(id));
+        time("largestRoom, JPA", id -> roomRepository.findLargestByPropertyId(id, PageRequest.of(0, 1)));
+        time("roomsByArea, read model", id -> roomReadModel.getRoomsByArea(id, 20.0, 200.0));
+        time("roomsByArea, JPA", id -> roomRepository.findByPropertyIdAndAreaBetween(id, 20.0, 200.0));
+        time("roomsArea, read model", id -> roomReadModel.getRoomsArea(id));
+        time("roomsArea, JPA", id -> propertyRepository.findRoomAreasById(id));
+    }
+}
@@ -0,0 +1,88 @@
+package desafio_quality.benchmark;
+
+import desafio_quality.dtos.SnapshotDTO;
+import desafio_quality.services.DBService;
+import desafio_quality.services.SnapshotService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Times writing a snapshot and restoring it into an empty database, over 1M rooms by default spread
+ * four to a property.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.rooms=N]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "properties.snapshot.path=target/snapshots/benchmark.snapshot",
+    "properties.room-read-model.enabled=true"
+})
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SnapshotBenchmarkTest {
+
+    private static final int ROOMS = Integer.getInteger("benchmark.rooms", 1_000_000);
+    private static final int ROOMS_PER_PROPERTY = 4;
+    private static final int PROPERTIES = ROOMS / ROOMS_PER_PROPERTY;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DBService dbService;
+
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO district (id, name, square_meter_value) VALUES (1, 'Centro', 5000)");
+        jdbcTemplate.update("INSERT INTO property (id, name, district_id, room_count, total_area, property_value) " +
+                "SELECT X, CONCAT('Imóvel ', X), 1, ?, 0, 0 FROM SYSTEM_RANGE(1, ?)", ROOMS_PER_PROPERTY, PROPERTIES);
+        jdbcTemplate.update("INSERT INTO room (id, name, width, length, area, property_id) " +
+                "SELECT g.id, g.name, g.width, g.length, g.width * g.length, g.property_id FROM (" +
+                "SELECT X AS id, CASEWHEN(MOD(X, 4) = 0, 'Sala', CASEWHEN(MOD(X, 4) = 1, 'Quarto', " +
+                "CASEWHEN(MOD(X, 4) = 2, 'Cozinha', 'Banheiro'))) AS name, " +
+                "1 + MOD(X * 7919, 20) AS width, 1 + MOD(X * 104729, 15) AS length, " +
+                "1 + (X - 1) / ? AS property_id FROM SYSTEM_RANGE(1, ?)) g", ROOMS_PER_PROPERTY, ROOMS);
+        System.out.printf("Seeded %d rooms in %.1fs%n", ROOMS, (System.nanoTime() - start) / 1e9);
+    }
+
+    @AfterAll
+    void teardown() {
+        truncate();
+        dbService.knockDownDB();
+    }
+
+    private void truncate() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE room");
+        jdbcTemplate.execute("TRUNCATE TABLE property");
+        jdbcTemplate.execute("TRUNCATE TABLE district");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    @DisplayName("Seconds to write a snapshot and to restore it into an empty database.")
+    void benchmarkSnapshot() {
+        SnapshotDTO written = snapshotService.write();
+        System.out.printf("Wrote %d properties and %d rooms in %.1fs, %.1f MB%n",
+                written.getPropertyCount(), written.getRoomCount(),
+                written.getElapsedMillis() / 1e3, written.getSizeInBytes() / (double) (1 << 20));
+
+        truncate();
+        long start = System.nanoTime();
+        SnapshotDTO restored = snapshotService.restore();
+        System.out.printf("Loaded %d rooms in %.1fs, %.1fs including the district stats and room read model%n",
+                restored.getRoomCount(), restored.getElapsedMillis() / 1e3, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,200 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.DistrictStatsRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RevaluationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "properties.district-stats.summary-table.enabled=true")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationDistrictStatsTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DistrictStatsRepository districtStatsRepository;
+
+    @Autowired
+    private RevaluationService revaluationService;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private List<DistrictStatsDTO> getAllStats() throws Exception {
+        String body = mock.perform(MockMvcRequestBuilders.get("/districts/stats"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(body, new TypeReference<>() {});
+    }
+
+    private List<DistrictStatsDTO> getLiveStats() {
+        return districtStatsRepository.findAllLive().stream()
+            .map(DistrictStatsDTO::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    private void assertSummaryMatchesLiveStats() throws Exception {
+        assertThat(getAllStats())
+            .usingRecursiveComparison()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .isEqualTo(getLiveStats());
+    }
+
+    private void awaitRevaluation(Long districtId) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (revaluationService.getLatestJob(districtId).getFinishedAt() != null) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Revaluation of district " + districtId + " did not complete.");
+    }
+
+    @Test
+    @DisplayName("Should return the totals of a district from its properties and rooms.")
+    void testStatsOfADistrict() throws Exception {
+        District district = districtRepository.findAll().stream()
+            .filter(d -> d.getName().equals("Itacorubi"))
+            .findFirst().orElseThrow();
+
+        mock.perform(MockMvcRequestBuilders.get("/districts/" + district.getId() + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Itacorubi"))
+            .andExpect(jsonPath("$.propertyCount").value(2))
+            .andExpect(jsonPath("$.roomCount").value(2))
+            .andExpect(jsonPath("$.totalArea").value(111.0))
+            .andExpect(jsonPath("$.totalValue").value(822621.0));
+
+        assertSummaryMatchesLiveStats();
+    }
+
+    @Test
+    @DisplayName("Should return exception message when the district does not exist.")
+    void testStatsOfAnInvalidDistrict() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/districts/" + Long.MAX_VALUE + "/stats"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Should keep the summary table in step with every kind of write.")
+    void testSummaryFollowsWrites() throws Exception {
+        List<District> districts = districtRepository.findAll();
+        Long firstDistrictId = districts.get(0).getId();
+        Long secondDistrictId = districts.get(1).getId();
+
+        String created = mock.perform(MockMvcRequestBuilders.post("/districts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new CreateDistrictDTO("Centro", new BigDecimal("5000")))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        Long newDistrictId = mapper.readTree(created).get("id").asLong();
+        assertSummaryMatchesLiveStats();
+
+        String property = mock.perform(MockMvcRequestBuilders.post("/properties")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertPropertyDTO("Casa Nova", newDistrictId))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        Long propertyId = mapper.readTree(property).get("id").asLong();
+
+        mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(
+                    new UpsertRoomDTO("Quarto", 3.0, 4.0),
+                    new UpsertRoomDTO("Sala", 5.0, 4.0)))))
+            .andExpect(status().isCreated());
+        String room = mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Cozinha", 2.5, 3.0))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        Long roomId = mapper.readTree(room).get("id").asLong();
+        assertSummaryMatchesLiveStats();
+
+        mock.perform(MockMvcRequestBuilders.put("/rooms/" + roomId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Cozinha", 3.0, 3.0))))
+            .andExpect(status().isOk());
+        assertSummaryMatchesLiveStats();
+
+        mock.perform(MockMvcRequestBuilders.put("/properties/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertPropertyDTO("Casa Nova", firstDistrictId))))
+            .andExpect(status().isOk());
+        assertSummaryMatchesLiveStats();
+
+        mock.perform(MockMvcRequestBuilders.delete("/rooms/" + roomId))
+            .andExpect(status().isNoContent());
+        assertSummaryMatchesLiveStats();
+
+        mock.perform(MockMvcRequestBuilders.put("/districts/" + firstDistrictId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new CreateDistrictDTO("Bela Vista", new BigDecimal("9100.50")))))
+            .andExpect(status().isOk());
+        awaitRevaluation(firstDistrictId);
+        assertSummaryMatchesLiveStats();
+
+        Property other = propertyRepository.findAll().stream()
+            .filter(p -> p.getDistrict().getId().equals(secondDistrictId))
+            .findFirst().orElseThrow();
+        mock.perform(MockMvcRequestBuilders.delete("/properties/" + other.getId()))
+            .andExpect(status().isNoContent());
+        mock.perform(MockMvcRequestBuilders.delete("/properties/" + propertyId))
+            .andExpect(status().isNoContent());
+        assertSummaryMatchesLiveStats();
+
+        mock.perform(MockMvcRequestBuilders.delete("/districts/" + newDistrictId))
+            .andExpect(status().isNoContent());
+        assertSummaryMatchesLiveStats();
+    }
+}
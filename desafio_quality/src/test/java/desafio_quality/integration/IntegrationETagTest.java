@@ -0,0 +1,178 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.entities.Room;
+import desafio_quality.metrics.SqlTrackingFilter;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationETagTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Property property;
+    private Room room;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.property = this.propertyRepository.findAll().stream()
+                .filter(candidate -> !candidate.getRooms().isEmpty())
+                .findFirst()
+                .orElseThrow();
+            this.room = this.property.getRooms().get(0);
+        });
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private String etagOf(String path, Object... variables) throws Exception {
+        return this.mock.perform(MockMvcRequestBuilders.get(path, variables))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MvcResult getIfNoneMatch(String etag, String path, Object... variables) throws Exception {
+        return this.mock.perform(MockMvcRequestBuilders.get(path, variables).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn();
+    }
+
+    private void put(String path, Object body) throws Exception {
+        this.mock.perform(MockMvcRequestBuilders.put(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.mapper.writeValueAsString(body)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 and no body, reading only the versions.")
+    void testNotModified() throws Exception {
+        String etag = etagOf("/properties/{propertyId}", this.property.getId());
+
+        MvcResult result = getIfNoneMatch(etag, "/properties/{propertyId}", this.property.getId());
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(304);
+        assertThat(result.getResponse().getContentAsString()).isEmpty();
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(result.getResponse().getHeader(SqlTrackingFilter.STATEMENTS_HEADER)).isEqualTo("1");
+        assertThat(result.getResponse().getHeader(SqlTrackingFilter.COLLECTION_LOADS_HEADER)).isEqualTo("0");
+    }
+
+    @Test
+    @DisplayName("Should change the ETags of a property and its rooms when a room is added, changed or removed.")
+    void testRoomChangesMoveTheETags() throws Exception {
+        Long propertyId = this.property.getId();
+        String property = etagOf("/properties/{propertyId}", propertyId);
+        String rooms = etagOf("/properties/{propertyId}/rooms", propertyId);
+
+        put("/rooms/" + this.room.getId(), new UpsertRoomDTO("Outro nome", this.room.getWidth(), this.room.getLength()));
+
+        assertThat(getIfNoneMatch(property, "/properties/{propertyId}", propertyId).getResponse().getStatus())
+            .isEqualTo(200);
+        assertThat(getIfNoneMatch(rooms, "/properties/{propertyId}/rooms", propertyId).getResponse().getStatus())
+            .isEqualTo(200);
+
+        rooms = etagOf("/properties/{propertyId}/rooms", propertyId);
+        this.mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.mapper.writeValueAsString(new UpsertRoomDTO("Varanda", 2, 3))))
+            .andExpect(status().isCreated());
+        assertThat(getIfNoneMatch(rooms, "/properties/{propertyId}/rooms", propertyId).getResponse().getStatus())
+            .isEqualTo(200);
+
+        rooms = etagOf("/properties/{propertyId}/rooms", propertyId);
+        this.mock.perform(MockMvcRequestBuilders.delete("/rooms/{roomId}", this.room.getId()))
+            .andExpect(status().isNoContent());
+        assertThat(getIfNoneMatch(rooms, "/properties/{propertyId}/rooms", propertyId).getResponse().getStatus())
+            .isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should change the ETags of a district and of its properties when the district changes.")
+    void testDistrictChangesMoveTheETags() throws Exception {
+        District district = this.property.getDistrict();
+        String property = etagOf("/properties/{propertyId}", this.property.getId());
+        String etag = etagOf("/districts/{districtId}", district.getId());
+
+        put("/districts/" + district.getId(), new CreateDistrictDTO("Outro Bairro", district.getSquareMeterValue()));
+
+        assertThat(getIfNoneMatch(etag, "/districts/{districtId}", district.getId()).getResponse().getStatus())
+            .isEqualTo(200);
+        assertThat(getIfNoneMatch(property, "/properties/{propertyId}", this.property.getId()).getResponse().getStatus())
+            .isEqualTo(200);
+        assertThat(this.districtRepository.findVersionById(district.getId())).contains(district.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should change the ETag of a property when it is renamed or moved to another district.")
+    void testPropertyChangesMoveTheETag() throws Exception {
+        String etag = etagOf("/properties/{propertyId}", this.property.getId());
+        District other = this.districtRepository.save(new District("Bairro Novo", new BigDecimal("3000")));
+
+        put("/properties/" + this.property.getId(), new UpsertPropertyDTO(this.property.getName(), other.getId()));
+
+        MvcResult result = getIfNoneMatch(etag, "/properties/{propertyId}", this.property.getId());
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Should keep answering missing properties and districts with 422.")
+    void testMissingResources() throws Exception {
+        assertThat(getIfNoneMatch("\"0.0\"", "/properties/{propertyId}", Long.MAX_VALUE).getResponse().getStatus())
+            .isEqualTo(422);
+        assertThat(getIfNoneMatch("\"0\"", "/districts/{districtId}", Long.MAX_VALUE).getResponse().getStatus())
+            .isEqualTo(422);
+    }
+}
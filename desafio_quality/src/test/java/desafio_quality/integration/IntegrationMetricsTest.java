@@ -0,0 +1,76 @@
+package desafio_quality.integration;
+
+import desafio_quality.entities.Property;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ExtendWith(SpringExtension.class)
+class IntegrationMetricsTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private String scrape() throws Exception {
+        return mock.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    @DisplayName("Should publish endpoint, service, Hibernate, Hikari and cache metrics in Prometheus format.")
+    void testPublishesPrometheusMetrics() throws Exception {
+        Property property = propertyRepository.findAll().get(0);
+        mock.perform(MockMvcRequestBuilders.get("/properties/{id}/value", property.getId()))
+            .andExpect(status().isOk());
+        mock.perform(MockMvcRequestBuilders.get("/properties/{id}/value", Long.MAX_VALUE))
+            .andExpect(status().isUnprocessableEntity());
+
+        String metrics = scrape();
+
+        assertThat(metrics)
+            .contains("http_server_requests_seconds_count{application=\"desafio_quality\",exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/properties/{id}/value\",}")
+            .contains("http_server_requests_seconds_bucket{")
+            .contains("service_calls_seconds_count{application=\"desafio_quality\",exception=\"none\",method=\"getValue\",service=\"PropertyService\",}")
+            .contains("service_calls_seconds_count{application=\"desafio_quality\",exception=\"ResourceNotFoundException\",method=\"getValue\",service=\"PropertyService\",}")
+            .contains("hibernate_query_executions_total")
+            .contains("hibernate_entities_loads_total")
+            .contains("hibernate_collections_fetches_total")
+            .contains("hibernate_cache_query_requests_total")
+            .contains("hikaricp_connections_active")
+            .contains("cache_gets_total{application=\"desafio_quality\",cache=\"propertyValues\"");
+    }
+}
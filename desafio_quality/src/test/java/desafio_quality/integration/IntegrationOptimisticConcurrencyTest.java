@@ -0,0 +1,233 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.DistrictStatsDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.Property;
+import desafio_quality.exceptions.PreconditionFailedException;
+import desafio_quality.repositories.DistrictStatsRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "properties.district-stats.summary-table.enabled=true")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationOptimisticConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DistrictStatsRepository districtStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Property property;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+        this.property = this.propertyRepository.findAll().get(0);
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private List<RoomDTO> createRooms(int number) {
+        List<UpsertRoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            rooms.add(new UpsertRoomDTO("Quarto " + i, 2, 3));
+        }
+        return this.roomService.createRooms(this.property.getId(), rooms);
+    }
+
+    private ResultActions put(String path, String ifMatch, Object body) throws Exception {
+        return this.mock.perform(MockMvcRequestBuilders.put(path)
+            .header(HttpHeaders.IF_MATCH, ifMatch)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.mapper.writeValueAsString(body)));
+    }
+
+    private String etagOf(String path) throws Exception {
+        return this.mock.perform(MockMvcRequestBuilders.get(path))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    /**
+     * Starts every task at once on its own thread and waits for all of them.
+     */
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertTotalsMatchRooms() throws Exception {
+        List<DistrictStatsDTO> summary = this.mapper.readValue(
+            this.mock.perform(MockMvcRequestBuilders.get("/districts/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(),
+            new TypeReference<>() {});
+        List<DistrictStatsDTO> live = this.districtStatsRepository.findAllLive().stream()
+            .map(DistrictStatsDTO::toDTO)
+            .collect(Collectors.toList());
+        assertThat(summary)
+            .usingRecursiveComparison()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .isEqualTo(live);
+
+        Integer drifted = this.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM property p WHERE p.room_count <> (SELECT COUNT(*) FROM room r WHERE r.property_id = p.id)"
+                + " OR ABS(p.total_area - (SELECT COALESCE(SUM(r.width * r.length), 0) FROM room r WHERE r.property_id = p.id)) > 0.0001",
+            Integer.class);
+        assertThat(drifted).isZero();
+    }
+
+    @Test
+    @DisplayName("Should update a room whose ETag matches If-Match and answer a stale one with 412.")
+    void testRoomIfMatch() throws Exception {
+        RoomDTO room = createRooms(1).get(0);
+        String etag = etagOf("/rooms/" + room.getId());
+
+        String updated = put("/rooms/" + room.getId(), etag, new UpsertRoomDTO("Suíte", 3, 4))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updated).isNotEqualTo(etag).isEqualTo(etagOf("/rooms/" + room.getId()));
+
+        put("/rooms/" + room.getId(), etag, new UpsertRoomDTO("Closet", 1, 1))
+            .andExpect(status().isPreconditionFailed());
+        put("/rooms/" + room.getId(), "*", new UpsertRoomDTO("Closet", 1, 1))
+            .andExpect(status().isOk());
+        assertTotalsMatchRooms();
+    }
+
+    @Test
+    @DisplayName("Should answer a property update with 412 once one of its rooms changed after its ETag was read.")
+    void testPropertyIfMatchFollowsRooms() throws Exception {
+        String etag = etagOf("/properties/" + this.property.getId());
+        UpsertPropertyDTO body = new UpsertPropertyDTO("Casa Reformada", this.property.getDistrict().getId());
+
+        createRooms(1);
+
+        put("/properties/" + this.property.getId(), etag, body)
+            .andExpect(status().isPreconditionFailed());
+        put("/properties/" + this.property.getId(), etagOf("/properties/" + this.property.getId()), body)
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many updates given the same If-Match through.")
+    void testConcurrentIfMatch() throws Exception {
+        RoomDTO room = createRooms(1).get(0);
+        String etag = "\"" + this.roomService.getRoomETag(room.getId()) + "\"";
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UpsertRoomDTO update = new UpsertRoomDTO("Quarto " + i, 1 + i, 2);
+            tasks.add(() -> {
+                try {
+                    this.roomService.updateRoom(room.getId(), update, etag);
+                    return true;
+                } catch (PreconditionFailedException e) {
+                    return false;
+                }
+            });
+        }
+
+        assertThat(runConcurrently(tasks)).containsOnlyOnce(true);
+        assertTotalsMatchRooms();
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent room update to the shared property totals and district stats.")
+    void testContendedUpdatesKeepAggregates() throws Exception {
+        List<RoomDTO> rooms = createRooms(THREADS);
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (RoomDTO room : rooms) {
+            tasks.add(() -> {
+                for (int i = 1; i <= UPDATES_PER_THREAD; i++) {
+                    this.roomService.updateRoom(room.getId(), new UpsertRoomDTO(room.getName(), 2 + i % 5, 3));
+                }
+                return UPDATES_PER_THREAD;
+            });
+        }
+
+        int updates = runConcurrently(tasks).stream().mapToInt(Integer::intValue).sum();
+
+        assertThat(updates).isEqualTo(THREADS * UPDATES_PER_THREAD);
+        assertThat(this.propertyRepository.findVersionsById(this.property.getId()).orElseThrow().getVersion())
+            .isGreaterThanOrEqualTo(this.property.getVersion() + updates);
+        assertTotalsMatchRooms();
+    }
+}
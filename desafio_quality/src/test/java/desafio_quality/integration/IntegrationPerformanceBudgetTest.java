@@ -0,0 +1,397 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.metrics.SqlTrackingFilter;
+import desafio_quality.services.DBService;
+import desafio_quality.services.DistrictService;
+import desafio_quality.services.PropertyService;
+import desafio_quality.services.RoomService;
+import desafio_quality.services.SyntheticDataService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Holds every route of the property, room and district controllers to a budget of SQL statements, bytes
+ * allocated on the request thread and median latency, over a dataset of 2,000 synthetic properties plus
+ * one property of 1,000 rooms. Routes that are O(1) in the rooms of a property are asked about the large
+ * one, so bringing back an O(rooms) computation blows their allocation budget, and bringing back an N+1
+ * blows the statement budget of the listings.
+ * <p>
+ * Statements and allocations are what a regression moves first and are budgeted tightly on every build.
+ * Latency depends on the machine, so its ceilings are only checked with the benchmark profile. Streamed
+ * NDJSON routes write their body on another thread, so only their latency is budgeted.
+ */
+@SpringBootTest(properties = {
+    "properties.synthetic-data.districts=20",
+    "properties.synthetic-data.properties=2000",
+    "properties.synthetic-data.threads=1"
+})
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IntegrationPerformanceBudgetTest {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 9;
+    private static final long UNBUDGETED = -1;
+    private static final long PROPERTIES = 2000;
+    private static final long REPRICED_DISTRICT = 20;
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private SyntheticDataService syntheticDataService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private DistrictService districtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private long largePropertyId;
+    private long firstRoomId;
+
+    private static class Budget {
+        private final String route;
+        private final int expectedStatus;
+        private final long maxStatements;
+        private final long maxKilobytes;
+        private final long maxMillis;
+        private final Function<IntegrationPerformanceBudgetTest, RequestBuilder> request;
+
+        private Budget(String route, int expectedStatus, long maxStatements, long maxKilobytes, long maxMillis,
+                       Function<IntegrationPerformanceBudgetTest, RequestBuilder> request) {
+            this.route = route;
+            this.expectedStatus = expectedStatus;
+            this.maxStatements = maxStatements;
+            this.maxKilobytes = maxKilobytes;
+            this.maxMillis = maxMillis;
+            this.request = request;
+        }
+
+        @Override
+        public String toString() {
+            return this.route;
+        }
+    }
+
+    private static Budget budget(String route, int expectedStatus, long maxStatements, long maxKilobytes,
+                                 long maxMillis, Function<IntegrationPerformanceBudgetTest, RequestBuilder> request) {
+        return new Budget(route, expectedStatus, maxStatements, maxKilobytes, maxMillis, request);
+    }
+
+    List<Budget> budgets() {
+        return List.of(
+            budget("POST /properties", 201, 4, 300, 100, test -> test.post("/properties",
+                new UpsertPropertyDTO("Casa Nova", 1L))),
+            budget("GET /properties/{propertyId}", 200, 3, 300, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}", 1)),
+            budget("GET /properties", 200, 2, 60_000, 2_000, test -> MockMvcRequestBuilders
+                .get("/properties").accept(MediaType.APPLICATION_JSON)),
+            budget("GET /properties?pageNumber", 200, 4, 800, 100, test -> MockMvcRequestBuilders
+                .get("/properties").param("pageNumber", "3").param("pageSize", "20")),
+            budget("GET /properties?cursor", 200, 4, 800, 100, test -> MockMvcRequestBuilders
+                .get("/properties").param("cursor", "").param("pageSize", "20")),
+            budget("GET /properties (NDJSON)", 200, UNBUDGETED, UNBUDGETED, 2_000, test -> MockMvcRequestBuilders
+                .get("/properties").accept(MediaType.APPLICATION_NDJSON)),
+            budget("GET /properties/{propertyId} (304)", 304, 1, 150, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}", test.largePropertyId)
+                .header(HttpHeaders.IF_NONE_MATCH, test.propertyETag("/properties/{propertyId}"))),
+            budget("GET /properties/{propertyId}/rooms", 200, 3, 300, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}/rooms", 1)),
+            budget("GET /properties/{propertyId}/rooms (304)", 304, 1, 150, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}/rooms", test.largePropertyId)
+                .header(HttpHeaders.IF_NONE_MATCH, test.propertyETag("/properties/{propertyId}/rooms"))),
+            budget("PUT /properties/{propertyId}", 200, 6, 300, 100, test -> test.put("/properties/2",
+                new UpsertPropertyDTO("Casa " + test.sequence.incrementAndGet(), 2L))),
+            budget("DELETE /properties/{propertyId}", 204, 6, 300, 100, test -> MockMvcRequestBuilders
+                .delete("/properties/{propertyId}", test.newPropertyWithRooms())),
+            budget("GET /properties/{id}/value", 200, 2, 200, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{id}/value", test.largePropertyId)),
+            budget("POST /properties/values", 200, 2, 600, 100, test -> test.post("/properties/values",
+                LongStream.rangeClosed(1, 50).boxed().collect(Collectors.toList()))),
+            budget("GET /properties/search", 200, 3, 600, 200, test -> MockMvcRequestBuilders
+                .get("/properties/search").param("districtId", "1").param("minArea", "50")
+                .param("sortBy", "value").param("direction", "desc").param("pageSize", "20")),
+            budget("GET /properties/rankings/area", 200, 2, 600, 200, test -> MockMvcRequestBuilders
+                .get("/properties/rankings/area").param("limit", "20")),
+            budget("GET /properties/rankings/value", 200, 2, 600, 200, test -> MockMvcRequestBuilders
+                .get("/properties/rankings/value").param("districtId", "1").param("limit", "20")),
+            budget("GET /properties/values/cache", 200, 0, 200, 100, test -> MockMvcRequestBuilders
+                .get("/properties/values/cache")),
+            budget("GET /properties/rooms/readModel", 200, 0, 200, 100, test -> MockMvcRequestBuilders
+                .get("/properties/rooms/readModel")),
+            budget("GET /properties/{id}/totalArea", 200, 2, 200, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{id}/totalArea", test.largePropertyId)),
+            budget("GET /properties/{propertyId}/largestRoom", 200, 3, 200, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}/largestRoom", test.largePropertyId)),
+            budget("GET /properties/{propertyId}/roomsByArea", 200, 3, 300, 100, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}/roomsByArea", test.largePropertyId)
+                .param("minArea", "40").param("maxArea", "41")),
+            budget("GET /properties/{propertyId}/roomsArea", 200, 3, 16_000, 500, test -> MockMvcRequestBuilders
+                .get("/properties/{propertyId}/roomsArea", test.largePropertyId)),
+
+            budget("GET /rooms?pageNumber", 200, 3, 600, 100, test -> MockMvcRequestBuilders
+                .get("/rooms").param("pageNumber", "10").param("pageSize", "20")),
+            budget("GET /rooms?cursor", 200, 3, 600, 100, test -> MockMvcRequestBuilders
+                .get("/rooms").param("cursor", "").param("pageSize", "20")),
+            budget("GET /rooms/{roomId}", 200, 2, 200, 100, test -> MockMvcRequestBuilders
+                .get("/rooms/{roomId}", test.firstRoomId)),
+            budget("POST /rooms/property/{propertyId}", 201, 8, 400, 100, test -> test.post(
+                "/rooms/property/" + test.largePropertyId, new UpsertRoomDTO("Quarto", 3, 4))),
+            budget("POST /rooms/property/{propertyId}/bulk", 201, 8, 600, 200, test -> test.post(
+                "/rooms/property/3/bulk", Collections.nCopies(10, new UpsertRoomDTO("Sala", 4, 5)))),
+            budget("PUT /rooms/{roomId}", 200, 7, 400, 100, test -> test.put(
+                "/rooms/" + test.firstRoomId, new UpsertRoomDTO("Quarto", 2 + test.sequence.incrementAndGet() % 20, 3))),
+            budget("DELETE /rooms/{roomId}", 204, 8, 300, 100, test -> MockMvcRequestBuilders
+                .delete("/rooms/{roomId}", test.newRoom())),
+
+            budget("GET /districts", 200, 1, 300, 100, test -> MockMvcRequestBuilders
+                .get("/districts").accept(MediaType.APPLICATION_JSON)),
+            budget("GET /districts?pageNumber", 200, 2, 300, 100, test -> MockMvcRequestBuilders
+                .get("/districts").param("pageNumber", "0").param("pageSize", "10")),
+            budget("GET /districts?cursor", 200, 1, 300, 100, test -> MockMvcRequestBuilders
+                .get("/districts").param("cursor", "").param("pageSize", "10")),
+            budget("GET /districts (NDJSON)", 200, UNBUDGETED, UNBUDGETED, 500, test -> MockMvcRequestBuilders
+                .get("/districts").accept(MediaType.APPLICATION_NDJSON)),
+            budget("GET /districts/stats", 200, 1, 800, 100, test -> MockMvcRequestBuilders
+                .get("/districts/stats")),
+            budget("GET /districts/{districtId}", 200, 2, 200, 100, test -> MockMvcRequestBuilders
+                .get("/districts/{districtId}", 1)),
+            budget("GET /districts/{districtId} (304)", 304, 1, 150, 100, test -> MockMvcRequestBuilders
+                .get("/districts/{districtId}", 1)
+                .header(HttpHeaders.IF_NONE_MATCH, test.districtETag())),
+            budget("GET /districts/{districtId}/stats", 200, 1, 200, 100, test -> MockMvcRequestBuilders
+                .get("/districts/{districtId}/stats", 1)),
+            budget("GET /districts/{districtId}/revaluation", 200, 0, 200, 100, test -> MockMvcRequestBuilders
+                .get("/districts/{districtId}/revaluation", REPRICED_DISTRICT)),
+            budget("POST /districts", 201, 3, 300, 100, test -> test.post("/districts",
+                new CreateDistrictDTO("Bairro Novo", new BigDecimal("5000")))),
+            budget("PUT /districts/{districtId}", 200, 3, 300, 100, test -> test.put("/districts/2",
+                new CreateDistrictDTO("Bairro " + test.sequence.incrementAndGet(), test.squareMeterValueOf(2)))),
+            budget("DELETE /districts/{districtId}", 204, 4, 300, 100, test -> MockMvcRequestBuilders
+                .delete("/districts/{districtId}", test.newDistrict()))
+        );
+    }
+
+    @BeforeAll
+    void seed() throws InterruptedException {
+        this.syntheticDataService.generate();
+        PropertyDTO large = this.propertyService.createProperty(new UpsertPropertyDTO("Mansão", 1L));
+        this.largePropertyId = large.getId();
+        this.roomService.createRooms(this.largePropertyId, IntStream.range(0, 1000)
+            .mapToObj(i -> new UpsertRoomDTO("Quarto", 1 + i % 25, 1 + i % 33))
+            .collect(Collectors.toList()));
+        this.firstRoomId = this.jdbcTemplate.queryForObject(
+            "select min(id) from room where property_id = 1", Long.class);
+
+        BigDecimal value = squareMeterValueOf(REPRICED_DISTRICT).add(BigDecimal.ONE);
+        this.districtService.updateDistrict(REPRICED_DISTRICT, new CreateDistrictDTO("Bairro Reprecificado", value));
+        while (this.districtService.getRevaluation(REPRICED_DISTRICT).getStatus() == RevaluationJobDTO.Status.RUNNING) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterAll
+    void teardown() {
+        this.jdbcTemplate.execute("delete from room");
+        this.dbService.knockDownDB();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    @DisplayName("Should serve the route within its budget of statements and allocations.")
+    void testStaysWithinBudget(Budget budget) throws Exception {
+        Measurement measurement = measure(budget);
+
+        if (budget.maxStatements != UNBUDGETED) {
+            assertThat(measurement.maxStatements).as("SQL statements of %s (%s)", budget.route, measurement)
+                .isLessThanOrEqualTo(budget.maxStatements);
+        }
+        if (budget.maxKilobytes != UNBUDGETED) {
+            assertThat(measurement.medianKilobytes).as("KB allocated by %s (%s)", budget.route, measurement)
+                .isLessThanOrEqualTo(budget.maxKilobytes);
+        }
+    }
+
+    @Tag("benchmark")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    @DisplayName("Should serve the route within its budget of median latency.")
+    void testStaysWithinLatencyBudget(Budget budget) throws Exception {
+        Measurement measurement = measure(budget);
+
+        assertThat(measurement.medianMillis).as("median ms of %s (%s)", budget.route, measurement)
+            .isLessThanOrEqualTo(budget.maxMillis);
+    }
+
+    private static class Measurement {
+        private final long maxStatements;
+        private final long medianKilobytes;
+        private final long medianMillis;
+
+        private Measurement(long maxStatements, long medianKilobytes, long medianMillis) {
+            this.maxStatements = maxStatements;
+            this.medianKilobytes = medianKilobytes;
+            this.medianMillis = medianMillis;
+        }
+
+        @Override
+        public String toString() {
+            return maxStatements + " statements, " + medianKilobytes + " KB, " + medianMillis + " ms";
+        }
+    }
+
+    /**
+     * The most statements, and the median allocations and latency, of the measured runs after the warmup.
+     */
+    private Measurement measure(Budget budget) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            perform(budget);
+        }
+
+        long[] statements = new long[MEASURED_RUNS];
+        long[] bytes = new long[MEASURED_RUNS];
+        long[] nanos = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long[] run = perform(budget);
+            statements[i] = run[0];
+            bytes[i] = run[1];
+            nanos[i] = run[2];
+        }
+        return new Measurement(
+            Arrays.stream(statements).max().orElseThrow(), median(bytes) / 1024, median(nanos) / 1_000_000);
+    }
+
+    /**
+     * Statements, bytes allocated on this thread and nanoseconds of one request.
+     */
+    private long[] perform(Budget budget) throws Exception {
+        RequestBuilder request = budget.request.apply(this);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        MvcResult result = this.mock.perform(request).andReturn();
+        String statements = result.getResponse().getHeader(SqlTrackingFilter.STATEMENTS_HEADER);
+        if (result.getRequest().isAsyncStarted()) {
+            result = this.mock.perform(asyncDispatch(result)).andReturn();
+        }
+
+        long nanos = System.nanoTime() - start;
+        long bytes = allocatedBytes() - allocatedBefore;
+        assertThat(result.getResponse().getStatus()).as("status of %s", budget.route)
+            .isEqualTo(budget.expectedStatus);
+        return new long[] {statements == null ? 0 : Long.parseLong(statements), bytes, nanos};
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private RequestBuilder post(String path, Object body) {
+        return MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON).content(json(body));
+    }
+
+    private RequestBuilder put(String path, Object body) {
+        return MockMvcRequestBuilders.put(path).contentType(MediaType.APPLICATION_JSON).content(json(body));
+    }
+
+    private String json(Object body) {
+        try {
+            return this.mapper.writeValueAsString(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BigDecimal squareMeterValueOf(long districtId) {
+        return this.districtService.getDistrictById(districtId).getSquareMeterValue();
+    }
+
+    private String propertyETag(String path) {
+        return etag(MockMvcRequestBuilders.get(path, this.largePropertyId));
+    }
+
+    private String districtETag() {
+        return etag(MockMvcRequestBuilders.get("/districts/{districtId}", 1));
+    }
+
+    private String etag(RequestBuilder request) {
+        try {
+            return this.mock.perform(request).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long newPropertyWithRooms() {
+        long propertyId = this.propertyService.createProperty(new UpsertPropertyDTO("Casa Velha", 1L)).getId();
+        this.roomService.createRooms(propertyId, Collections.nCopies(3, new UpsertRoomDTO("Sala", 4, 5)));
+        return propertyId;
+    }
+
+    private long newRoom() {
+        return this.roomService.createRoom(PROPERTIES, new UpsertRoomDTO("Banheiro", 2, 3)).getId();
+    }
+
+    private long newDistrict() {
+        return this.districtService.createDistrict(new CreateDistrictDTO("Bairro Vazio", new BigDecimal("3000"))).getId();
+    }
+}
@@ -1,20 +1,35 @@
 package desafio_quality.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.Property;
 import desafio_quality.repositories.PropertyRepository;
 import desafio_quality.services.DBService;
+import desafio_quality.services.PropertyService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,6 +50,12 @@ class IntegrationPropertyControllerTest {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setup() {
         System.out.println("Setting DB up...");
@@ -49,10 +70,83 @@ class IntegrationPropertyControllerTest {
         System.out.println("Complete!");
     }
 
+    private void awaitRevaluation(Long districtId) throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            String job = mock.perform(MockMvcRequestBuilders.get("/districts/" + districtId + "/revaluation"))
+                .andReturn().getResponse().getContentAsString();
+            if ("COMPLETED".equals(mapper.readTree(job).get("status").asText())) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Revaluation of district " + districtId + " did not complete.");
+    }
+
     private Long getFirstPropertyId() {
         return propertyRepository.findAll().get(0).getId();
     }
 
+    @Test
+    @DisplayName("Should list all properties as JSON when no media type is requested.")
+    void testGetAllProperties() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$", hasSize(4)));
+    }
+
+    @Test
+    @DisplayName("Should return a page of properties with their rooms.")
+    void testGetAllPropertiesPaginated() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .get("/properties?pageNumber=0&pageSize=3")
+            .accept(MediaType.APPLICATION_JSON);
+
+        mock.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(3)))
+            .andExpect(jsonPath("$.content[0].name").value("Bem Viver"))
+            .andExpect(jsonPath("$.content[0].rooms", hasSize(2)))
+            .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    @DisplayName("Should page through all properties following the next cursor.")
+    void testGetAllPropertiesWithCursor() throws Exception {
+        String firstPage = mock.perform(MockMvcRequestBuilders.get("/properties?cursor=&pageSize=3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(3)))
+            .andExpect(jsonPath("$.totalElements").doesNotExist())
+            .andReturn().getResponse().getContentAsString();
+        String nextCursor = mapper.readTree(firstPage).get("nextCursor").asText();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties?pageSize=3&includeCount=true&cursor=" + nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Bela Vista"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist())
+            .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    @DisplayName("Should stream every property as a line of JSON.")
+    void testStreamAllProperties() throws Exception {
+        MvcResult started = mock.perform(MockMvcRequestBuilders.get("/properties")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mock.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("Bem Viver", mapper.readTree(lines[0]).get("name").asText());
+        assertEquals(2, mapper.readTree(lines[0]).get("rooms").size());
+    }
+
     @Test
     @DisplayName("US-0001 - Should return the square meters of a property.")
     void testPropertyArea() throws Exception {
@@ -67,6 +161,79 @@ class IntegrationPropertyControllerTest {
             .andExpect(jsonPath("$.totalArea").value(170.0));
     }
 
+    @Test
+    @DisplayName("US-0001 - Should keep the total area up to date when rooms change.")
+    void testPropertyAreaAfterRoomChanges() throws Exception {
+        Long propertyId = getFirstPropertyId();
+
+        MockHttpServletRequestBuilder createRoom = MockMvcRequestBuilders
+            .post("/rooms/property/" + propertyId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(new UpsertRoomDTO("Varanda", 2.0, 5.0)));
+
+        String response = mock.perform(createRoom)
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        Long roomId = mapper.readTree(response).get("id").asLong();
+
+        MockHttpServletRequestBuilder totalArea = MockMvcRequestBuilders
+            .get("/properties/" + propertyId + "/totalArea")
+            .accept(MediaType.APPLICATION_JSON);
+
+        mock.perform(totalArea)
+            .andExpect(jsonPath("$.totalArea").value(180.0));
+
+        MockHttpServletRequestBuilder updateRoom = MockMvcRequestBuilders
+            .put("/rooms/" + roomId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(new UpsertRoomDTO("Varanda", 4.0, 5.0)));
+        mock.perform(updateRoom).andExpect(status().isOk());
+
+        mock.perform(totalArea)
+            .andExpect(jsonPath("$.totalArea").value(190.0));
+
+        mock.perform(MockMvcRequestBuilders.delete("/rooms/" + roomId))
+            .andExpect(status().isNoContent());
+
+        mock.perform(totalArea)
+            .andExpect(jsonPath("$.totalArea").value(170.0));
+    }
+
+    @Test
+    @DisplayName("US-0001 - Should add the area of rooms created in bulk to the total area.")
+    void testPropertyAreaAfterBulkRoomCreation() throws Exception {
+        Long propertyId = getFirstPropertyId();
+
+        MockHttpServletRequestBuilder createRooms = MockMvcRequestBuilders
+            .post("/rooms/property/" + propertyId + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(List.of(
+                new UpsertRoomDTO("Varanda", 2.0, 5.0),
+                new UpsertRoomDTO("Lavanderia", 2.0, 2.0))));
+
+        mock.perform(createRooms)
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$", hasSize(2)));
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + propertyId + "/totalArea"))
+            .andExpect(jsonPath("$.totalArea").value(184.0));
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + propertyId + "/rooms"))
+            .andExpect(jsonPath("$", hasSize(4)));
+    }
+
+    @Test
+    @DisplayName("US-0001 - Should rebuild the total areas from the rooms.")
+    void testReconcileTotalAreas() throws Exception {
+        Long propertyId = getFirstPropertyId();
+        propertyService.applyRoomChanges(propertyId, 0, 42.0);
+
+        propertyService.reconcileTotalAreas();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + propertyId + "/totalArea"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalArea").value(170.0));
+    }
+
     @Test
     @DisplayName("US-0001 - Should return exception message when testing the total area of a property with an invalid ID.")
     void testPropertyAreaWithInvalidId() throws Exception {
@@ -93,6 +260,53 @@ class IntegrationPropertyControllerTest {
             .andExpect(jsonPath("$.value").value("1451290.0"));
     }
 
+    @Test
+    @DisplayName("US-0002 - Should reprice a property when its rooms or its district's square meter value change.")
+    void testValueOfAPropertyAfterChanges() throws Exception {
+        Property property = propertyRepository.findAll().get(0);
+        Long propertyId = property.getId();
+        Long districtId = property.getDistrict().getId();
+        MockHttpServletRequestBuilder value = MockMvcRequestBuilders
+            .get("/properties/" + propertyId + "/value")
+            .accept(MediaType.APPLICATION_JSON);
+
+        mock.perform(value).andExpect(jsonPath("$.value").value("1451290.0"));
+
+        mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Varanda", 2.0, 5.0))))
+            .andExpect(status().isCreated());
+
+        mock.perform(value).andExpect(jsonPath("$.value").value("1536660.0"));
+
+        mock.perform(MockMvcRequestBuilders.put("/districts/" + districtId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new CreateDistrictDTO("Bela Vista", new BigDecimal("10000")))))
+            .andExpect(status().isOk());
+        awaitRevaluation(districtId);
+
+        mock.perform(value).andExpect(jsonPath("$.value").value("1800000.0"));
+    }
+
+    @Test
+    @DisplayName("US-0002 - Should return the values of many properties, reporting missing ones inline.")
+    void testValuesOfManyProperties() throws Exception {
+        Property property = propertyRepository.findAll().get(0);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .post("/properties/values")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(List.of(property.getId(), Long.MAX_VALUE)));
+
+        mock.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(property.getId()))
+            .andExpect(jsonPath("$[0].value").value("1451290.0"))
+            .andExpect(jsonPath("$[0].totalArea").value(property.getTotalArea()))
+            .andExpect(jsonPath("$[1].id").value(Long.MAX_VALUE))
+            .andExpect(jsonPath("$[1].error").value("Property with ID " + Long.MAX_VALUE + " does not exist."));
+    }
+
     @Test
     @DisplayName("US-0002 - Should return exception message when using an invalid property ID.")
     void testPropertyValueWithAnInvalidId() throws Exception {
@@ -121,6 +335,40 @@ class IntegrationPropertyControllerTest {
             .andExpect(jsonPath("$.length").value(8.0));
     }
 
+    @Test
+    @DisplayName("US-0003 - Should return the rooms of a property from the largest to the smallest.")
+    void testRoomsByArea() throws Exception {
+        Long propertyId = this.getFirstPropertyId();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + propertyId + "/roomsByArea"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].name", contains("Cozinha", "Quarto")))
+            .andExpect(jsonPath("$[0].area").value(120.0));
+    }
+
+    @Test
+    @DisplayName("US-0003 - Should return the rooms of a property with an area in the given range.")
+    void testRoomsByAreaInARange() throws Exception {
+        Long propertyId = this.getFirstPropertyId();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + propertyId + "/roomsByArea?minArea=40&maxArea=100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].name").value("Quarto"));
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + Long.MAX_VALUE + "/roomsByArea"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("US-0003 - Should read the rooms of a property by area from the room area index.")
+    void testRoomsByAreaUseIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT r.id FROM room r WHERE r.property_id = 1 " +
+            "AND r.area BETWEEN 10 AND 100 ORDER BY r.area DESC, r.id", String.class);
+
+        assertThat(plan).contains("IDX_ROOM_PROPERTY_AREA: PROPERTY_ID = 1").contains("AREA >= 10.0").contains("AREA <= 100.0");
+    }
+
     @Test
     @DisplayName("US-0003 - Should return exception message when property has no rooms.")
     void testLargestRoomWhenPropertyHasNoRooms() throws Exception {
@@ -154,6 +402,22 @@ class IntegrationPropertyControllerTest {
             .andExpect(jsonPath("$.rooms[0].area").value(50.0));
     }
 
+    @Test
+    @DisplayName("US-0004 - Return an empty list of areas for a property without rooms")
+    void testGetAreaOfAllRoomsWhenPropertyHasNoRooms() throws Exception {
+        Long propertyId = this.getFirstPropertyId() + 3L;
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .get("/properties/" + propertyId + "/roomsArea")
+            .accept(MediaType.APPLICATION_JSON);
+
+        mock.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(propertyId))
+            .andExpect(jsonPath("$.name").value("Bela Vista"))
+            .andExpect(jsonPath("$.rooms", hasSize(0)));
+    }
+
     @Test
     @DisplayName("US-0004 - Return the areas of each room of a property")
     void testFailureGetAreaOfAllRooms() throws Exception {
@@ -0,0 +1,97 @@
+package desafio_quality.integration;
+
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.entities.Room;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationPropertyQueryCountTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private long countStatementsOfGetAllProperties(int expectedProperties) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(expectedProperties)));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addProperties(int count) {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("5000")));
+        for (int i = 0; i < count; i++) {
+            Property property = new Property("Edifício " + i, district);
+            property.setRooms(List.of(
+                new Room("Quarto", 3.0, 4.0, property),
+                new Room("Sala", 5.0, 4.0, property)));
+            propertyRepository.save(property);
+        }
+    }
+
+    @Test
+    @DisplayName("Should list all properties with a constant number of SQL statements.")
+    void testGetAllPropertiesStatementCountIsConstant() throws Exception {
+        long baseline = countStatementsOfGetAllProperties(4);
+
+        addProperties(20);
+
+        long afterGrowth = countStatementsOfGetAllProperties(24);
+
+        assertEquals(1, baseline);
+        assertEquals(baseline, afterGrowth);
+    }
+}
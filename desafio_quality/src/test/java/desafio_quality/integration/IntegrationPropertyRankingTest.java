@@ -0,0 +1,101 @@
+package desafio_quality.integration;
+
+import desafio_quality.entities.District;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.services.DBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationPropertyRankingTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    @Test
+    @DisplayName("Should rank the properties by total area.")
+    void testLargestProperties() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/rankings/area?limit=3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[*].name", contains("Bem Viver", "Jardim Imperiale", "Vila Toscana")))
+            .andExpect(jsonPath("$[0].totalArea").value(170.0));
+    }
+
+    @Test
+    @DisplayName("Should rank the properties of a district by value.")
+    void testMostValuablePropertiesOfADistrict() throws Exception {
+        District district = districtRepository.findAll().stream()
+            .filter(d -> d.getName().equals("Itacorubi"))
+            .findFirst().orElseThrow();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/rankings/value?districtId=" + district.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].name", contains("Jardim Imperiale", "Bela Vista")))
+            .andExpect(jsonPath("$[0].value").value(822621.0))
+            .andExpect(jsonPath("$[0].districtId").value(district.getId()));
+    }
+
+    @Test
+    @DisplayName("Should not rank with a limit out of bounds.")
+    void testRankingWithInvalidLimit() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/rankings/value?limit=0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.limit[0].error").value("O limite deve ser de pelo menos 1 propriedade."));
+    }
+
+    @Test
+    @DisplayName("Should read the rankings from the rank indexes.")
+    void testRankingsUseIndexes() {
+        assertThat(explain("SELECT p.id FROM property p ORDER BY p.total_area DESC, p.id LIMIT 100"))
+            .contains("IDX_PROPERTY_AREA_RANK")
+            .contains("index sorted");
+        assertThat(explain("SELECT p.id FROM property p ORDER BY p.property_value DESC, p.id LIMIT 100"))
+            .contains("IDX_PROPERTY_VALUE_RANK")
+            .contains("index sorted");
+        assertThat(explain("SELECT p.id FROM property p WHERE p.district_id = 1 " +
+                "ORDER BY p.property_value DESC, p.id LIMIT 100"))
+            .contains("IDX_PROPERTY_DISTRICT_VALUE_RANK");
+    }
+}
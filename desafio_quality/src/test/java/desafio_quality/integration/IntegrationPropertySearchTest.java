@@ -0,0 +1,150 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationPropertySearchTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private Long getDistrictId(String name) {
+        return districtRepository.findAll().stream()
+            .filter(district -> district.getName().equals(name))
+            .map(District::getId)
+            .findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should find the properties of a district within an area range and under a value.")
+    void testSearchByDistrictAreaAndValue() throws Exception {
+        Long districtId = getDistrictId("Itacorubi");
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/search")
+                .param("districtId", districtId.toString())
+                .param("minArea", "80")
+                .param("maxArea", "120")
+                .param("maxValue", "1000000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("Jardim Imperiale"))
+            .andExpect(jsonPath("$.content[0].totalArea").value(111.0))
+            .andExpect(jsonPath("$.content[0].roomCount").value(2))
+            .andExpect(jsonPath("$.content[0].districtId").value(districtId));
+    }
+
+    @Test
+    @DisplayName("Should find the properties by room count and name, sorted with id as tie-breaker.")
+    void testSearchByRoomCountSorted() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/search")
+                .param("minRooms", "1")
+                .param("sortBy", "roomCount")
+                .param("direction", "desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[*].name", contains("Bem Viver", "Vila Toscana", "Jardim Imperiale")));
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/search")
+                .param("name", "bela")
+                .param("maxRooms", "0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Bela Vista"));
+    }
+
+    @Test
+    @DisplayName("Should count the rooms added to and removed from a property.")
+    void testSearchFollowsRoomChanges() throws Exception {
+        Long propertyId = propertyRepository.findAll().stream()
+            .filter(property -> property.getName().equals("Bela Vista"))
+            .findFirst().orElseThrow().getId();
+
+        String room = mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Sala", 4.0, 5.0))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/search").param("name", "bela").param("minRooms", "1"))
+            .andExpect(jsonPath("$.content[0].roomCount").value(1))
+            .andExpect(jsonPath("$.content[0].totalArea").value(20.0));
+
+        mock.perform(MockMvcRequestBuilders.delete("/rooms/" + mapper.readTree(room).get("id").asLong()))
+            .andExpect(status().isNoContent());
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/search").param("name", "bela").param("minRooms", "1"))
+            .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    @DisplayName("Should page through the search results.")
+    void testSearchPaging() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/search")
+                .param("sortBy", "value")
+                .param("direction", "desc")
+                .param("pageNumber", "1")
+                .param("pageSize", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(4))
+            .andExpect(jsonPath("$.totalPages").value(2))
+            .andExpect(jsonPath("$.content[*].name", contains("Vila Toscana", "Bela Vista")));
+    }
+
+    @Test
+    @DisplayName("Should not search with invalid filters.")
+    void testSearchWithInvalidFilters() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/search")
+                .param("minArea", "-1")
+                .param("sortBy", "district"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.minArea[0].error").value("A área mínima não pode ser negativa."))
+            .andExpect(jsonPath("$.sortBy[0].error")
+                .value("A ordenação deve ser por id, name, totalArea, value ou roomCount."));
+    }
+}
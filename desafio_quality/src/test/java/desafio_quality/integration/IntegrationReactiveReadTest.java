@@ -0,0 +1,356 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CursorPageDTO;
+import desafio_quality.dtos.ExceptionDTO;
+import desafio_quality.dtos.PropertySearchDTO;
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.entities.Property;
+import desafio_quality.metrics.ServiceMetricsAspect;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.ReactivePropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.DistrictService;
+import desafio_quality.services.PropertyService;
+import desafio_quality.services.ReactivePropertyService;
+import desafio_quality.services.RoomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Boots the reactive stack and checks that each of its read endpoints answers with exactly the JSON the
+ * blocking services, and so the servlet controllers, produce for the same data.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ExtendWith(SpringExtension.class)
+class IntegrationReactiveReadTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private DistrictService districtService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReactivePropertyRepository reactivePropertyRepository;
+
+    @Autowired
+    private ReactivePropertyService reactivePropertyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Property property;
+    private Property propertyWithoutRooms;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+        List<Property> properties = this.propertyRepository.findAll();
+        this.property = properties.get(0);
+        this.propertyWithoutRooms = properties.get(properties.size() - 1);
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private String get(String uri) {
+        return new String(this.client.get().uri(uri)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult().getResponseBodyContent(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the blocking service in a transaction, as open-in-view does for the servlet controllers.
+     */
+    private <T> T blocking(Supplier<T> call) {
+        return this.transactionTemplate.execute(status -> call.get());
+    }
+
+    private void assertSameJson(String uri, Supplier<Object> call) throws Exception {
+        JSONAssert.assertEquals(uri, this.mapper.writeValueAsString(blocking(call)), get(uri), JSONCompareMode.STRICT);
+    }
+
+    private void assertSameError(String uri, HttpStatus status, Runnable blocking) {
+        RuntimeException expected = catchThrowableOfType(blocking::run, RuntimeException.class);
+        assertThat(expected).isNotNull();
+
+        this.client.get().uri(uri)
+            .exchange()
+            .expectStatus().isEqualTo(status)
+            .expectBody(ExceptionDTO.class)
+            .value(body -> assertThat(body.getMessage()).isEqualTo(expected.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should answer every property read with the JSON of the blocking service.")
+    void testPropertyReads() throws Exception {
+        Long id = this.property.getId();
+
+        assertSameJson("/properties", () -> this.propertyService.getAllProperties());
+        assertSameJson("/properties?pageNumber=1&pageSize=2", () -> this.propertyService.getAllProperties(1, 2));
+        assertSameJson("/properties?cursor=&pageSize=3&includeCount=true",
+            () -> this.propertyService.getPropertiesAfter("", 3, true));
+        String cursor = CursorPageDTO.encodeCursor(id);
+        assertSameJson("/properties?cursor=" + cursor, () -> this.propertyService.getPropertiesAfter(cursor, null, false));
+        assertSameJson("/properties/" + id, () -> this.propertyService.getPropertyById(id));
+        assertSameJson("/properties/" + id + "/rooms", () -> this.propertyService.getPropertyRooms(id));
+        assertSameJson("/properties/" + id + "/totalArea", () -> this.propertyService.getTotalArea(id));
+        assertSameJson("/properties/" + id + "/value", () -> this.propertyService.getValue(id));
+        assertSameJson("/properties/" + id + "/largestRoom", () -> this.propertyService.getLargestRoom(id));
+        assertSameJson("/properties/" + id + "/roomsArea", () -> this.propertyService.getRoomsArea(id));
+        assertSameJson("/properties/" + id + "/roomsByArea", () -> this.propertyService.getRoomsByArea(id, null, null));
+        assertSameJson("/properties/" + id + "/roomsByArea?minArea=60&maxArea=200",
+            () -> this.propertyService.getRoomsByArea(id, 60.0, 200.0));
+
+        Long districtId = this.property.getDistrict().getId();
+        assertSameJson("/properties/rankings/area", () -> this.propertyService.getLargestProperties(null, 100));
+        assertSameJson("/properties/rankings/value?limit=2&districtId=" + districtId,
+            () -> this.propertyService.getMostValuableProperties(districtId, 2));
+        assertSameJson("/properties/search", () -> this.propertyService.searchProperties(new PropertySearchDTO()));
+        assertSameJson("/properties/search?name=VI&minArea=10&maxRooms=5&sortBy=value&direction=desc&pageSize=2",
+            () -> this.propertyService.searchProperties(search()));
+        assertThat(blocking(() -> this.propertyService.searchProperties(search())).getTotalElements()).isEqualTo(2);
+        assertSameJson("/properties/values/cache", () -> this.propertyService.getValueCacheStats());
+        assertSameJson("/properties/rooms/readModel", () -> this.propertyService.getRoomReadModelStats());
+
+        Long emptyId = this.propertyWithoutRooms.getId();
+        assertSameJson("/properties/" + emptyId, () -> this.propertyService.getPropertyById(emptyId));
+        assertSameJson("/properties/" + emptyId + "/roomsArea", () -> this.propertyService.getRoomsArea(emptyId));
+        assertSameJson("/properties/" + emptyId + "/roomsByArea",
+            () -> this.propertyService.getRoomsByArea(emptyId, null, null));
+    }
+
+    private static PropertySearchDTO search() {
+        PropertySearchDTO search = new PropertySearchDTO();
+        search.setName("VI");
+        search.setMinArea(10.0);
+        search.setMaxRooms(5);
+        search.setSortBy("value");
+        search.setDirection("desc");
+        search.setPageSize(2);
+        return search;
+    }
+
+    @Test
+    @DisplayName("Should value a batch of properties like the blocking service, in the order asked.")
+    void testBatchValuation() throws Exception {
+        List<Long> ids = List.of(this.propertyWithoutRooms.getId(), 999_999L, this.property.getId(),
+            this.property.getId());
+
+        String body = new String(this.client.post().uri("/properties/values")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(ids)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult().getResponseBodyContent(), StandardCharsets.UTF_8);
+
+        JSONAssert.assertEquals(this.mapper.writeValueAsString(blocking(() -> this.propertyService.getValues(ids))),
+            body, JSONCompareMode.STRICT);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid parameters with the messages of the servlet controllers.")
+    void testValidation() {
+        assertBadRequest("/properties/rankings/area?limit=0", "limit",
+            "O limite deve ser de pelo menos 1 propriedade.");
+        assertBadRequest("/properties/search?sortBy=address", "sortBy",
+            "A ordenação deve ser por id, name, totalArea, value ou roomCount.");
+        assertBadRequest("/rooms?cursor=&pageSize=" + Integer.MAX_VALUE, "pageSize",
+            "A página não pode exceder 100 cômodos.");
+
+        this.client.post().uri("/properties/values")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(List.of())
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.propertyIds[0].error").isEqualTo("A lista de IDs não pode estar vazia.");
+    }
+
+    private void assertBadRequest(String uri, String field, String message) {
+        this.client.get().uri(uri)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$." + field + "[0].error").isEqualTo(message);
+    }
+
+    @Test
+    @DisplayName("Should run the database queries off Netty's event loop.")
+    void testQueriesOffEventLoop() {
+        String thread = this.reactivePropertyRepository.findValueById(this.property.getId())
+            .map(value -> Thread.currentThread().getName())
+            .block();
+
+        assertThat(thread).startsWith("r2dbc-");
+    }
+
+    @Test
+    @DisplayName("Should time each subscription to a reactive service call, with the exception it signals.")
+    void testTimesReactiveServiceCallsOnSubscription() {
+        long succeeded = serviceCalls("getValue", "none");
+        long failed = serviceCalls("getValue", "ResourceNotFoundException");
+
+        Mono<PropertyValueDTO> value = this.reactivePropertyService.getValue(this.property.getId());
+        assertThat(serviceCalls("getValue", "none")).isEqualTo(succeeded);
+
+        value.block();
+        value.block();
+        this.reactivePropertyService.getValue(Long.MAX_VALUE).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(serviceCalls("getValue", "none")).isEqualTo(succeeded + 2);
+        assertThat(serviceCalls("getValue", "ResourceNotFoundException")).isEqualTo(failed + 1);
+    }
+
+    private long serviceCalls(String method, String exception) {
+        Timer timer = this.meterRegistry.find(ServiceMetricsAspect.METRIC)
+            .tag("service", "ReactivePropertyService")
+            .tag("method", method)
+            .tag("exception", exception)
+            .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("Should answer every room and district read with the JSON of the blocking services.")
+    void testRoomAndDistrictReads() throws Exception {
+        Long roomId = blocking(() -> this.propertyService.getPropertyRooms(this.property.getId())).get(0).getId();
+        Long districtId = this.property.getDistrict().getId();
+
+        assertSameJson("/rooms", () -> this.roomService.getAllRooms(null, null));
+        assertSameJson("/rooms?pageNumber=1&pageSize=4", () -> this.roomService.getAllRooms(1, 4));
+        assertSameJson("/rooms?cursor=&includeCount=true", () -> this.roomService.getRoomsAfter("", null, true));
+        assertSameJson("/rooms/" + roomId, () -> this.roomService.getRoomById(roomId));
+
+        assertSameJson("/districts", () -> this.districtService.getAllDistricts());
+        assertSameJson("/districts?pageNumber=0&pageSize=2", () -> this.districtService.getAllDistricts(0, 2));
+        assertSameJson("/districts?cursor=&pageSize=2", () -> this.districtService.getDistrictsAfter("", 2, false));
+        assertSameJson("/districts/stats", () -> this.districtService.getAllStats());
+        assertSameJson("/districts/" + districtId, () -> this.districtService.getDistrictById(districtId));
+        assertSameJson("/districts/" + districtId + "/stats", () -> this.districtService.getStats(districtId));
+    }
+
+    @Test
+    @DisplayName("Should stream properties and districts as NDJSON, one line per element.")
+    void testNdjsonStreams() throws Exception {
+        assertThat(ndjson("/properties")).isEqualTo(ndjsonOf(blocking(this.propertyService::getAllProperties)));
+        assertThat(ndjson("/districts")).isEqualTo(ndjsonOf(this.districtService.getAllDistricts()));
+    }
+
+    private List<String> ndjson(String uri) {
+        String body = new String(this.client.get().uri(uri)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody().returnResult().getResponseBodyContent(), StandardCharsets.UTF_8);
+        return List.of(body.split("\n"));
+    }
+
+    private List<String> ndjsonOf(List<?> elements) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (Object element : elements) {
+            lines.add(this.mapper.writeValueAsString(element));
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("Should send the ETags of the blocking services and answer If-None-Match with 304.")
+    void testETags() {
+        Long id = this.property.getId();
+        Long districtId = this.property.getDistrict().getId();
+
+        assertNotModified("/properties/" + id, this.propertyService.getPropertyETag(id));
+        assertNotModified("/properties/" + id + "/rooms", this.propertyService.getPropertyRoomsETag(id));
+        assertNotModified("/districts/" + districtId, this.districtService.getDistrictETag(districtId));
+    }
+
+    private void assertNotModified(String uri, String eTag) {
+        this.client.get().uri(uri)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + eTag + "\"");
+
+        this.client.get().uri(uri)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + eTag + "\"")
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail with the status and message of the blocking services.")
+    void testErrors() {
+        Long missing = 999_999L;
+        Long emptyId = this.propertyWithoutRooms.getId();
+
+        assertSameError("/properties/" + missing, HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getPropertyETag(missing));
+        assertSameError("/properties/" + missing + "/rooms", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getPropertyRoomsETag(missing));
+        assertSameError("/properties/" + missing + "/value", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getValue(missing));
+        assertSameError("/properties/" + missing + "/roomsByArea", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getRoomsByArea(missing, null, null));
+        assertSameError("/properties/" + missing + "/largestRoom", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getLargestRoom(missing));
+        assertSameError("/properties/" + emptyId + "/largestRoom", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.propertyService.getLargestRoom(emptyId));
+        assertSameError("/rooms/" + missing, HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.roomService.getRoomETag(missing));
+        assertSameError("/districts/" + missing + "/stats", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.districtService.getStats(missing));
+        assertSameError("/districts/" + missing + "/revaluation", HttpStatus.UNPROCESSABLE_ENTITY,
+            () -> this.districtService.getRevaluation(missing));
+        assertSameError("/properties?cursor=bm90LWEtY3Vyc29y", HttpStatus.BAD_REQUEST,
+            () -> this.propertyService.getPropertiesAfter("bm90LWEtY3Vyc29y", null, false));
+    }
+}
@@ -0,0 +1,201 @@
+package desafio_quality.integration;
+
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.ErrorMessageDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.dtos.RoomDTO;
+import desafio_quality.dtos.SnapshotDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.Property;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the reactive stack and checks that its write endpoints go through the blocking services: the writes
+ * are visible to the reactive reads, answer with the same ETags and preconditions, and fail like the servlet
+ * controllers.
+ */
+@SpringBootTest(properties = {
+    "spring.main.web-application-type=reactive",
+    "properties.snapshot.path=target/snapshots/reactive-write.snapshot"
+})
+@AutoConfigureWebTestClient
+@ExtendWith(SpringExtension.class)
+class IntegrationReactiveWriteTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private Property property;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+        this.property = this.propertyRepository.findAll().get(0);
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    @Test
+    @DisplayName("Should create, update and delete a property through the blocking service.")
+    void testPropertyWrites() {
+        Long districtId = this.property.getDistrict().getId();
+
+        PropertyDTO created = this.client.post().uri("/properties")
+            .bodyValue(new UpsertPropertyDTO("Casa Nova", districtId))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(PropertyDTO.class).returnResult().getResponseBody();
+        assertThat(created.getName()).isEqualTo("Casa Nova");
+
+        String eTag = this.propertyService.getPropertyETag(created.getId());
+        this.client.put().uri("/properties/" + created.getId())
+            .header(HttpHeaders.IF_MATCH, "\"stale\"")
+            .bodyValue(new UpsertPropertyDTO("Casa Reformada", districtId))
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        this.client.put().uri("/properties/" + created.getId())
+            .header(HttpHeaders.IF_MATCH, "\"" + eTag + "\"")
+            .bodyValue(new UpsertPropertyDTO("Casa Reformada", districtId))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + this.propertyService.getPropertyETag(created.getId()) + "\"")
+            .expectBody(PropertyDTO.class).value(body -> assertThat(body.getName()).isEqualTo("Casa Reformada"));
+
+        this.client.get().uri("/properties/" + created.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(PropertyDTO.class).value(body -> assertThat(body.getName()).isEqualTo("Casa Reformada"));
+
+        this.client.delete().uri("/properties/" + created.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+        this.client.get().uri("/properties/" + created.getId())
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @DisplayName("Should create, update and delete rooms and keep the totals of their property.")
+    void testRoomWrites() {
+        Long propertyId = this.property.getId();
+        double totalArea = this.propertyService.getTotalArea(propertyId).getTotalArea();
+
+        RoomDTO room = this.client.post().uri("/rooms/property/" + propertyId)
+            .bodyValue(new UpsertRoomDTO("Escritorio", 2.0, 3.0))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(RoomDTO.class).returnResult().getResponseBody();
+        this.client.post().uri("/rooms/property/" + propertyId + "/bulk")
+            .bodyValue(List.of(new UpsertRoomDTO("Closet", 1.0, 2.0), new UpsertRoomDTO("Lavabo", 1.0, 1.0)))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(new ParameterizedTypeReference<List<RoomDTO>>() { })
+            .value(rooms -> assertThat(rooms).hasSize(2));
+
+        this.client.put().uri("/rooms/" + room.getId())
+            .bodyValue(new UpsertRoomDTO("Escritorio", 4.0, 3.0))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists(HttpHeaders.ETAG);
+        this.client.delete().uri("/rooms/" + room.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+
+        this.client.get().uri("/properties/" + propertyId + "/totalArea")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.totalArea").isEqualTo(totalArea + 3.0);
+    }
+
+    @Test
+    @DisplayName("Should create, reprice and delete a district, starting its revaluation.")
+    void testDistrictWrites() throws InterruptedException {
+        DistrictDTO district = this.client.post().uri("/districts")
+            .bodyValue(new CreateDistrictDTO("Vila Nova", new BigDecimal("1000")))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(DistrictDTO.class).returnResult().getResponseBody();
+
+        this.client.put().uri("/districts/" + district.getId())
+            .bodyValue(new CreateDistrictDTO("Vila Nova", new BigDecimal("1500")))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists(HttpHeaders.ETAG)
+            .expectBody(DistrictDTO.class)
+            .value(body -> assertThat(body.getSquareMeterValue()).isEqualByComparingTo("1500"));
+        this.client.get().uri("/districts/" + district.getId() + "/revaluation")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(RevaluationJobDTO.class).value(job -> assertThat(job.getDistrictId()).isEqualTo(district.getId()));
+
+        this.client.delete().uri("/districts/" + district.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+        this.client.get().uri("/districts/" + district.getId())
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid bodies with the messages of the servlet controllers.")
+    void testValidation() {
+        this.client.post().uri("/properties")
+            .bodyValue(Map.of("name", "Casa Nova"))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody(new ParameterizedTypeReference<Map<String, List<ErrorMessageDTO>>>() { })
+            .value(errors -> assertThat(errors.get("districtId").get(0).getError())
+                .isEqualTo("O id do district não pode estar vazio."));
+
+        this.client.post().uri("/rooms/property/" + this.property.getId() + "/bulk")
+            .bodyValue(List.of())
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should write a snapshot of the database.")
+    void testSnapshot() {
+        this.client.post().uri("/snapshot")
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(SnapshotDTO.class)
+            .value(snapshot -> assertThat(snapshot.getPropertyCount()).isEqualTo(this.propertyRepository.count()));
+    }
+}
@@ -0,0 +1,115 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.CreateDistrictDTO;
+import desafio_quality.dtos.RevaluationJobDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.entities.Room;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RevaluationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "properties.revaluation.chunk-size=2")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationRevaluationTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private RevaluationService revaluationService;
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private RevaluationJobDTO awaitRevaluation(Long districtId) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            RevaluationJobDTO job = revaluationService.getLatestJob(districtId);
+            if (job.getStatus() != RevaluationJobDTO.Status.RUNNING) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Revaluation of district " + districtId + " did not complete.");
+    }
+
+    @Test
+    @DisplayName("Should revalue every property of a district in chunks after its price changes.")
+    void testRevalueDistrictInChunks() throws Exception {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("1000")));
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Property property = new Property("Casa " + i, district);
+            property.setRooms(List.of(new Room("Sala", 2.0, 5.0, property)));
+            properties.add(propertyRepository.save(property));
+        }
+
+        mock.perform(MockMvcRequestBuilders.put("/districts/" + district.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new CreateDistrictDTO("Centro", new BigDecimal("1500.50")))))
+            .andExpect(status().isOk());
+
+        RevaluationJobDTO job = awaitRevaluation(district.getId());
+
+        assertEquals(RevaluationJobDTO.Status.COMPLETED, job.getStatus());
+        assertEquals(5, job.getTotalProperties());
+        assertEquals(5, job.getRevaluedProperties());
+        assertEquals(3, job.getCompletedChunks());
+
+        for (Property property : properties) {
+            mock.perform(MockMvcRequestBuilders.get("/properties/" + property.getId() + "/value"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value(15005.0));
+        }
+
+        mock.perform(MockMvcRequestBuilders.get("/districts/" + district.getId() + "/revaluation"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.revaluedProperties").value(5));
+    }
+
+    @Test
+    @DisplayName("Should return exception message when the district has never been revalued.")
+    void testRevaluationOfDistrictNeverRevalued() throws Exception {
+        District district = districtRepository.save(new District("Centro", new BigDecimal("1000")));
+
+        mock.perform(MockMvcRequestBuilders.get("/districts/" + district.getId() + "/revaluation"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,201 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.RoomAreaDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.entities.District;
+import desafio_quality.entities.Property;
+import desafio_quality.exceptions.PropertyHasNoRoomsException;
+import desafio_quality.exceptions.ResourceNotFoundException;
+import desafio_quality.repositories.DistrictRepository;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.RoomRepository;
+import desafio_quality.services.DBService;
+import desafio_quality.services.RoomReadModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "properties.room-read-model.enabled=true",
+    "properties.room-read-model.compaction-threshold=2"
+})
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationRoomReadModelTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomReadModel roomReadModel;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private void assertReadModelMatchesDatabase(Long propertyId) {
+        List<PropertyRepository.RoomAreaView> rows = propertyRepository.findRoomAreasById(propertyId);
+        if (rows.isEmpty()) {
+            assertThatThrownBy(() -> roomReadModel.getRoomsArea(propertyId))
+                .isInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> roomReadModel.getLargestRoom(propertyId))
+                .isInstanceOf(ResourceNotFoundException.class);
+            return;
+        }
+
+        PropertyRoomsAreaDTO roomsArea = roomReadModel.getRoomsArea(propertyId);
+        assertThat(roomsArea.getName()).isEqualTo(rows.get(0).getPropertyName());
+        assertThat(roomsArea.getRooms()).usingRecursiveComparison().isEqualTo(rows.stream()
+            .filter(row -> Objects.nonNull(row.getRoomId()))
+            .map(row -> new RoomAreaDTO(row.getRoomId(), row.getRoomName(), row.getArea()))
+            .collect(Collectors.toList()));
+
+        assertThat(roomReadModel.getTotalArea(propertyId).getTotalArea())
+            .isEqualTo(propertyRepository.findTotalAreaById(propertyId).orElseThrow().getTotalArea());
+        assertThat(roomReadModel.getRoomsByArea(propertyId, 10.0, 60.0))
+            .usingRecursiveComparison()
+            .isEqualTo(roomRepository.findByPropertyIdAndAreaBetween(propertyId, 10.0, 60.0));
+
+        if (roomsArea.getRooms().isEmpty()) {
+            assertThatThrownBy(() -> roomReadModel.getLargestRoom(propertyId))
+                .isInstanceOf(PropertyHasNoRoomsException.class);
+        } else {
+            assertThat(roomReadModel.getLargestRoom(propertyId))
+                .usingRecursiveComparison()
+                .isEqualTo(roomRepository.findLargestByPropertyId(propertyId, PageRequest.of(0, 1)).get(0));
+        }
+    }
+
+    private Long post(String path, Object body) throws Exception {
+        String response = mock.perform(MockMvcRequestBuilders.post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response).get("id").asLong();
+    }
+
+    @Test
+    @DisplayName("Should load every property and room on startup and when the database is seeded again.")
+    void testLoadsEveryRoom() throws Exception {
+        mock.perform(MockMvcRequestBuilders.get("/properties/rooms/readModel"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ready").value(true))
+            .andExpect(jsonPath("$.propertyCount").value(4))
+            .andExpect(jsonPath("$.roomCount").value(6))
+            .andExpect(jsonPath("$.pendingPropertyCount").value(0));
+
+        for (Property property : propertyRepository.findAll()) {
+            assertReadModelMatchesDatabase(property.getId());
+        }
+        assertReadModelMatchesDatabase(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Should answer like the database after every kind of write, across compactions.")
+    void testFollowsWrites() throws Exception {
+        District district = districtRepository.findAll().get(0);
+        Property existing = propertyRepository.findAll().get(0);
+
+        Long propertyId = post("/properties", new UpsertPropertyDTO("Casa Nova", district.getId()));
+        assertReadModelMatchesDatabase(propertyId);
+
+        mock.perform(MockMvcRequestBuilders.post("/rooms/property/" + propertyId + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(
+                    new UpsertRoomDTO("Quarto", 3.0, 4.0),
+                    new UpsertRoomDTO("Sala", 5.0, 4.0)))))
+            .andExpect(status().isCreated());
+        Long roomId = post("/rooms/property/" + propertyId, new UpsertRoomDTO("Cozinha", 2.5, 3.0));
+        assertReadModelMatchesDatabase(propertyId);
+
+        mock.perform(MockMvcRequestBuilders.put("/rooms/" + roomId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Copa", 5.0, 4.0))))
+            .andExpect(status().isOk());
+        assertReadModelMatchesDatabase(propertyId);
+
+        post("/rooms/property/" + existing.getId(), new UpsertRoomDTO("Varanda", 6.0, 10.0));
+        mock.perform(MockMvcRequestBuilders.put("/properties/" + propertyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertPropertyDTO("Casa Velha", district.getId()))))
+            .andExpect(status().isOk());
+        mock.perform(MockMvcRequestBuilders.delete("/rooms/" + roomId))
+            .andExpect(status().isNoContent());
+        assertReadModelMatchesDatabase(propertyId);
+        assertReadModelMatchesDatabase(existing.getId());
+
+        mock.perform(MockMvcRequestBuilders.delete("/properties/" + propertyId))
+            .andExpect(status().isNoContent());
+        assertReadModelMatchesDatabase(propertyId);
+
+        for (Property property : propertyRepository.findAll()) {
+            assertReadModelMatchesDatabase(property.getId());
+        }
+        assertThat(roomReadModel.getStats().getPendingPropertyCount()).isLessThanOrEqualTo(2);
+        assertThat(roomReadModel.getStats().getPropertyCount()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should serve the area endpoints from the read model.")
+    void testServesAreaEndpoints() throws Exception {
+        Property property = propertyRepository.findAll().stream()
+            .filter(p -> p.getName().equals("Bem Viver"))
+            .findFirst().orElseThrow();
+
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + property.getId() + "/totalArea"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalArea").value(170.0));
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + property.getId() + "/largestRoom"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Cozinha"));
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + property.getId() + "/roomsArea"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rooms.length()").value(2));
+        mock.perform(MockMvcRequestBuilders.get("/properties/" + Long.MAX_VALUE + "/largestRoom"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,125 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.PropertyDTO;
+import desafio_quality.dtos.SnapshotDTO;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.exceptions.SnapshotException;
+import desafio_quality.services.DBService;
+import desafio_quality.services.DistrictService;
+import desafio_quality.services.PropertyService;
+import desafio_quality.services.SnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "properties.snapshot.path=target/snapshots/integration.snapshot",
+    "properties.snapshot.mapping-window=64"
+})
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationSnapshotTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private DistrictService districtService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    @Test
+    @DisplayName("Should restore the districts, properties and rooms a snapshot was written from.")
+    void testRestoresWhatWasWritten() throws Exception {
+        List<DistrictDTO> districts = districtService.getAllDistricts();
+        List<PropertyDTO> properties = propertyService.getAllProperties();
+
+        mock.perform(MockMvcRequestBuilders.post("/snapshot"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.districtCount").value(3))
+            .andExpect(jsonPath("$.propertyCount").value(4))
+            .andExpect(jsonPath("$.roomCount").value(6));
+
+        dbService.knockDownDB();
+        SnapshotDTO restored = snapshotService.restore();
+
+        assertThat(restored.getRoomCount()).isEqualTo(6);
+        assertThat(districtService.getAllDistricts()).usingRecursiveComparison()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .ignoringCollectionOrder()
+            .isEqualTo(districts);
+        assertThat(propertyService.getAllProperties()).usingRecursiveComparison()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .ignoringCollectionOrder()
+            .isEqualTo(properties);
+        assertThat(districtService.getStats(districts.get(0).getId()).getPropertyCount()).isPositive();
+
+        Long districtId = districts.get(0).getId();
+        mock.perform(MockMvcRequestBuilders.post("/properties")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertPropertyDTO("Casa Nova", districtId))))
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should refuse to restore into a database that already holds data.")
+    void testRefusesNonEmptyDatabase() {
+        snapshotService.write();
+
+        assertThatThrownBy(() -> snapshotService.restore())
+            .isInstanceOf(SnapshotException.class)
+            .hasMessageContaining("empty database");
+    }
+
+    @Test
+    @DisplayName("Should refuse a file that is not a snapshot.")
+    void testRefusesUnknownFile() throws Exception {
+        Files.createDirectories(Paths.get("target/snapshots"));
+        Files.write(Paths.get("target/snapshots/integration.snapshot"), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        dbService.knockDownDB();
+
+        assertThatThrownBy(() -> snapshotService.restore())
+            .isInstanceOf(SnapshotException.class);
+    }
+}
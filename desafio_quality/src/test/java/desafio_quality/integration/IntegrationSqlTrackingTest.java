@@ -0,0 +1,69 @@
+package desafio_quality.integration;
+
+import desafio_quality.entities.Property;
+import desafio_quality.metrics.SqlTrackingFilter;
+import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.services.DBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationSqlTrackingTest {
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @BeforeEach
+    void setup() {
+        this.dbService.instantiateDB();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    private static int header(MvcResult result, String name) {
+        return Integer.parseInt(result.getResponse().getHeader(name));
+    }
+
+    @Test
+    @DisplayName("Should count the statements, entity loads and collection loads of each request.")
+    void testCountsPerRequest() throws Exception {
+        Property property = propertyRepository.findAll().get(0);
+
+        MvcResult rooms = mock.perform(MockMvcRequestBuilders.get("/properties/{propertyId}/rooms", property.getId()))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertThat(header(rooms, SqlTrackingFilter.STATEMENTS_HEADER)).isPositive();
+        assertThat(header(rooms, SqlTrackingFilter.ENTITY_LOADS_HEADER)).isGreaterThanOrEqualTo(2);
+
+        MvcResult missing = mock.perform(MockMvcRequestBuilders.get("/properties/{propertyId}", Long.MAX_VALUE))
+            .andExpect(status().isUnprocessableEntity())
+            .andReturn();
+        assertThat(header(missing, SqlTrackingFilter.STATEMENTS_HEADER)).isPositive();
+        assertThat(header(missing, SqlTrackingFilter.ENTITY_LOADS_HEADER)).isZero();
+        assertThat(header(missing, SqlTrackingFilter.COLLECTION_LOADS_HEADER)).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package desafio_quality.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import desafio_quality.dtos.UpsertPropertyDTO;
+import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.services.DBService;
+import desafio_quality.services.SyntheticDataService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "properties.synthetic-data.districts=7",
+    "properties.synthetic-data.properties=2345",
+    "properties.synthetic-data.threads=3",
+    "properties.synthetic-data.chunk-size=500"
+})
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class IntegrationSyntheticDataTest {
+
+    private static final String CHECKSUM = "select count(*) as rows, sum(id * 31 + property_id) as ids, " +
+            "sum(width * 7 + length) as dimensions, sum(length(name)) as names from room";
+
+    @Autowired
+    private MockMvc mock;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private DBService dbService;
+
+    @Autowired
+    private SyntheticDataService syntheticDataService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void teardown() {
+        this.dbService.knockDownDB();
+    }
+
+    @Test
+    @DisplayName("Should generate the configured dataset with dense ids and consistent totals.")
+    void testGeneratesConsistentDataset() throws Exception {
+        long rooms = syntheticDataService.generate();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from district", Long.class)).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from property", Long.class)).isEqualTo(2345);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room", Long.class)).isEqualTo(rooms);
+        assertThat(jdbcTemplate.queryForObject("select max(id) from room", Long.class)).isEqualTo(rooms);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from property p where p.room_count <> " +
+                "(select count(*) from room r where r.property_id = p.id) or abs(p.total_area - " +
+                "(select sum(r.area) from room r where r.property_id = p.id)) > 1e-6", Long.class)).isZero();
+
+        mock.perform(MockMvcRequestBuilders.get("/districts/{districtId}/stats", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.propertyCount").isNumber());
+
+        mock.perform(MockMvcRequestBuilders.post("/properties")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertPropertyDTO("Casa Nova", 1L))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(greaterThan(2345)));
+        mock.perform(MockMvcRequestBuilders.post("/rooms/property/{propertyId}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new UpsertRoomDTO("Quarto", 3, 4))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(greaterThan((int) rooms)));
+    }
+
+    @Test
+    @DisplayName("Should generate the same rows on every run with the same seed.")
+    void testIsReproducible() {
+        syntheticDataService.generate();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(CHECKSUM);
+        dbService.knockDownDB();
+
+        syntheticDataService.generate();
+
+        assertThat(jdbcTemplate.queryForList(CHECKSUM)).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Should refuse to generate into a database that already holds data.")
+    void testRefusesNonEmptyDatabase() {
+        dbService.instantiateDB();
+
+        assertThatThrownBy(() -> syntheticDataService.generate())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("empty database");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from property", Long.class)).isEqualTo(4);
+    }
+}
@@ -1,11 +1,18 @@
 package desafio_quality.unit.controllers;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -16,17 +23,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import desafio_quality.controllers.DistrictController;
 import desafio_quality.dtos.CreateDistrictDTO;
 import desafio_quality.dtos.DistrictDTO;
+import desafio_quality.dtos.DistrictStatsDTO;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.services.DistrictService;
+import desafio_quality.services.Versioned;
 
 @WebMvcTest(controllers = DistrictController.class)
 @AutoConfigureMockMvc
@@ -63,6 +77,43 @@ class DistrictControllerTest {
             .andExpect(jsonPath("$.squareMeterValue").value("1000"));
     }
 
+    @Test
+    @DisplayName("Should return the totals of a district.")
+    void testGetStatsOfADistrict() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .get("/districts/1/stats")
+            .accept(MediaType.APPLICATION_JSON);
+
+        when(districtService.getStats(1L)).thenReturn(
+            new DistrictStatsDTO(1L, "Bela Vista", 2, 5, 120.0, new BigDecimal("1024440.00")));
+
+        mock.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.districtId").value(1))
+            .andExpect(jsonPath("$.propertyCount").value(2))
+            .andExpect(jsonPath("$.roomCount").value(5))
+            .andExpect(jsonPath("$.totalArea").value(120.0))
+            .andExpect(jsonPath("$.totalValue").value(1024440.0));
+    }
+
+    @Test
+    @DisplayName("Should return the totals of every district.")
+    void testGetStatsOfAllDistricts() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .get("/districts/stats")
+            .accept(MediaType.APPLICATION_JSON);
+
+        when(districtService.getAllStats()).thenReturn(List.of(
+            new DistrictStatsDTO(1L, "Bela Vista", 2, 5, 120.0, new BigDecimal("1024440.00")),
+            new DistrictStatsDTO(2L, "Pinheiros", 0, 0, 0.0, BigDecimal.ZERO)));
+
+        mock.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[1].name").value("Pinheiros"))
+            .andExpect(jsonPath("$[1].propertyCount").value(0));
+    }
+
     @Test
     @DisplayName("Should not create a district with incorrect data.")
     void testPostAnInvalidDistrict() throws Exception {
@@ -101,7 +152,7 @@ class DistrictControllerTest {
                 createDistrictDTO.getName(),
                 createDistrictDTO.getSquareMeterValue());
 
-        when(districtService.updateDistrict(any(Long.class), any(CreateDistrictDTO.class))).thenReturn(districtDTO);
+        when(districtService.updateDistrict(any(Long.class), any(CreateDistrictDTO.class), isNull())).thenReturn(new Versioned<>(districtDTO, "1"));
 
         mock.perform(request)
                 .andExpect(status().isOk())
@@ -125,7 +176,7 @@ class DistrictControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(districtJSON);
 
-        when(districtService.updateDistrict(any(Long.class), any(CreateDistrictDTO.class))).thenThrow(ResourceNotFoundException.class);
+        when(districtService.updateDistrict(any(Long.class), any(CreateDistrictDTO.class), isNull())).thenThrow(ResourceNotFoundException.class);
 
         mock.perform(request)
                 .andExpect(status().isUnprocessableEntity());
@@ -152,6 +203,24 @@ class DistrictControllerTest {
             .andExpect(jsonPath("$.squareMeterValue").value("1000"));
     }
 
+    @Test
+    @DisplayName("Should return Not Modified without loading the district when its ETag matches.")
+    void testGetOfAnUnmodifiedDistrict() throws Exception {
+        Long districtId = 1L;
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .get("/districts/" + districtId)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+            .accept(MediaType.APPLICATION_JSON);
+
+        when(districtService.getDistrictETag(districtId)).thenReturn("2");
+
+        mock.perform(request)
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        verify(districtService, never()).getDistrictById(any(Long.class));
+    }
+
     @Test
     @DisplayName("Should return Unprocessable Entity when searching a district with a non existent ID.")
     void testGetDistrictByInvalidId() throws Exception {
@@ -229,4 +298,48 @@ class DistrictControllerTest {
         mock.perform(request)
                 .andExpect(status().isUnprocessableEntity());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a page of districts.")
+    void testGetAllDistrictsPaginated() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/districts?pageNumber=0&pageSize=2")
+                .accept(MediaType.APPLICATION_JSON);
+
+        List<DistrictDTO> districts = List.of(
+                new DistrictDTO(1L, "Costa e Silva", new BigDecimal("1000")),
+                new DistrictDTO(2L, "Bom Retiro", new BigDecimal("2000")));
+        Page<DistrictDTO> page = new PageImpl<>(districts, PageRequest.of(0, 2), 3);
+        when(districtService.getAllDistricts(0, 2)).thenReturn(page);
+
+        mock.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    @DisplayName("Should stream every district as a line of JSON.")
+    void testStreamAllDistricts() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/districts")
+                .accept(MediaType.APPLICATION_NDJSON);
+
+        doAnswer(invocation -> {
+            Consumer<DistrictDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new DistrictDTO(1L, "Costa e Silva", new BigDecimal("1000")));
+            consumer.accept(new DistrictDTO(2L, "Bom Retiro", new BigDecimal("2000")));
+            return null;
+        }).when(districtService).streamAllDistricts(any());
+
+        MvcResult started = mock.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mock.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Costa e Silva\",\"squareMeterValue\":1000}\n" +
+                        "{\"id\":2,\"name\":\"Bom Retiro\",\"squareMeterValue\":2000}\n"));
+    }
+}
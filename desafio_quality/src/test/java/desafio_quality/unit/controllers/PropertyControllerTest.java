@@ -3,6 +3,8 @@ package desafio_quality.unit.controllers;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,9 +30,11 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import desafio_quality.controllers.PropertyController;
+import desafio_quality.dtos.CacheStatsDTO;
 import desafio_quality.dtos.DistrictDTO;
 import desafio_quality.dtos.PropertyDTO;
 import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
 import desafio_quality.dtos.PropertyValueDTO;
 import desafio_quality.dtos.RoomAreaDTO;
 import desafio_quality.dtos.RoomDTO;
@@ -37,6 +42,7 @@ import desafio_quality.dtos.UpsertPropertyDTO;
 import desafio_quality.exceptions.PropertyHasNoRoomsException;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.services.PropertyService;
+import desafio_quality.services.Versioned;
 
 @WebMvcTest(controllers = PropertyController.class)
 @AutoConfigureMockMvc
@@ -68,6 +74,64 @@ class PropertyControllerTest {
                 .andExpect(jsonPath("$.value").value("200000.0"));
     }
 
+    @Test
+    @DisplayName("Should return the values of many properties at once.")
+    void testValuesOfManyProperties() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post("/properties/values")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(1L, 2L)));
+
+        when(propertyService.getValues(any())).thenReturn(List.of(
+                new PropertyValuationDTO(1L, new BigDecimal("200000.00"), 100.0),
+                PropertyValuationDTO.missing(2L)));
+
+        mock.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].value").value(200000.0))
+                .andExpect(jsonPath("$[0].totalArea").value(100.0))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].value").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Property with ID 2 does not exist."));
+    }
+
+    @Test
+    @DisplayName("Should not value an empty list of properties.")
+    void testValuesOfNoProperties() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post("/properties/values")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("[]");
+
+        mock.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.propertyIds[0].error").value("A lista de IDs não pode estar vazia."));
+
+        verify(propertyService, never()).getValues(any());
+    }
+
+    @Test
+    @DisplayName("Should return the statistics of the property value cache.")
+    void testValueCacheStats() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/properties/values/cache")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(propertyService.getValueCacheStats()).thenReturn(new CacheStatsDTO(2, 3, 2, 1, 0.6));
+
+        mock.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hitCount").value(3))
+                .andExpect(jsonPath("$.missCount").value(2))
+                .andExpect(jsonPath("$.evictionCount").value(1))
+                .andExpect(jsonPath("$.hitRate").value(0.6));
+    }
+
     @Test
     @DisplayName("Should return UNPROCESSABLE_ENTITY when getting the value of a non existent property.")
     void testValueOfAPropertyNonExistent() throws Exception {
@@ -140,7 +204,7 @@ class PropertyControllerTest {
                 districtDTO,
                 roomDTOList);
 
-        when(propertyService.updateProperty(any(Long.class), any(UpsertPropertyDTO.class))).thenReturn(propertyDTO);
+        when(propertyService.updateProperty(any(Long.class), any(UpsertPropertyDTO.class), isNull())).thenReturn(new Versioned<>(propertyDTO, "1"));
 
         mock.perform(request)
                 .andExpect(status().isOk())
@@ -170,7 +234,7 @@ class PropertyControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(propertyUpdateJson);
 
-        when(propertyService.updateProperty(any(Long.class), any(UpsertPropertyDTO.class))).thenThrow(ResourceNotFoundException.class);
+        when(propertyService.updateProperty(any(Long.class), any(UpsertPropertyDTO.class), isNull())).thenThrow(ResourceNotFoundException.class);
 
         mock.perform(request)
                 .andExpect(status().isUnprocessableEntity());
@@ -286,6 +350,58 @@ class PropertyControllerTest {
                 .andExpect(jsonPath("$.id").value(propertyId));
     }
 
+    @Test
+    @DisplayName("Should return the ETag of a property along with it.")
+    void testGetOfAPropertyReturnsETag() throws Exception {
+        Long propertyId = 1L;
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/properties/" + propertyId)
+                .accept(MediaType.APPLICATION_JSON);
+
+        PropertyDTO propertyDTO = new PropertyDTO(propertyId, "propriedade", new DistrictDTO(), List.of());
+
+        when(propertyService.getPropertyETag(propertyId)).thenReturn("3.1");
+        when(propertyService.getPropertyById(any(Long.class))).thenReturn(propertyDTO);
+
+        mock.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.1\""))
+                .andExpect(jsonPath("$.id").value(propertyId));
+    }
+
+    @Test
+    @DisplayName("Should return Not Modified without loading the property when its ETag matches.")
+    void testGetOfAnUnmodifiedProperty() throws Exception {
+        Long propertyId = 1L;
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/properties/" + propertyId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3.1\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(propertyService.getPropertyETag(propertyId)).thenReturn("3.1");
+
+        mock.perform(request)
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(propertyService, never()).getPropertyById(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should return Not Modified without loading the rooms of a property when their ETag matches.")
+    void testGetOfUnmodifiedRoomsOfAProperty() throws Exception {
+        Long propertyId = 1L;
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/properties/" + propertyId + "/rooms")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(propertyService.getPropertyRoomsETag(propertyId)).thenReturn("3");
+
+        mock.perform(request)
+                .andExpect(status().isNotModified());
+        verify(propertyService, never()).getPropertyRooms(any(Long.class));
+    }
+
     @Test
     @DisplayName("Should return Unprocessable Entity when updating a property with a non existent ID.")
     void testFailureGetOfAProperty() throws Exception {
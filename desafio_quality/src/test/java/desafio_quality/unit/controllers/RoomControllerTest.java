@@ -3,6 +3,7 @@ package desafio_quality.unit.controllers;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -22,6 +23,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -29,10 +31,14 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import desafio_quality.controllers.RoomController;
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.RoomDTO;
 import desafio_quality.dtos.UpsertRoomDTO;
+import desafio_quality.exceptions.InvalidCursorException;
+import desafio_quality.exceptions.PreconditionFailedException;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.services.RoomService;
+import desafio_quality.services.Versioned;
 
 @WebMvcTest(controllers = RoomController.class)
 @AutoConfigureMockMvc
@@ -127,6 +133,52 @@ class RoomControllerTest {
                 .andExpect(status().isUnprocessableEntity());
     }
 
+    @Test
+    @DisplayName("Should create many rooms at once")
+    public void testCreateRooms() throws Exception {
+        Long propertyId = 1L;
+        List<UpsertRoomDTO> rooms = List.of(
+                new UpsertRoomDTO("Quarto", 3., 4.),
+                new UpsertRoomDTO("Sala", 5., 4.));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post("/rooms/property/" + propertyId + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(rooms));
+
+        when(this.roomService.createRooms(any(Long.class), any())).thenReturn(List.of(
+                new RoomDTO(1L, "Quarto", 3., 4.),
+                new RoomDTO(2L, "Sala", 5., 4.)));
+
+        mock.perform(request)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name").value("Sala"));
+    }
+
+    @Test
+    @DisplayName("Should not create any room when one of them is invalid")
+    public void testCreateRoomsWithAnInvalidRoom() throws Exception {
+        Long propertyId = 1L;
+        List<UpsertRoomDTO> rooms = List.of(
+                new UpsertRoomDTO("Quarto", 3., 4.),
+                new UpsertRoomDTO("sala", 5., 40.));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post("/rooms/property/" + propertyId + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(rooms));
+
+        mock.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['upsertRoomDtos[1].name'][0].error")
+                        .value("O nome do cômodo deve começar com uma letra maiúscula."))
+                .andExpect(jsonPath("$['upsertRoomDtos[1].length'][0].error")
+                        .value("O comprimento máximo permitido por cômodo é de 33 metros."));
+
+        verify(this.roomService, never()).createRooms(any(Long.class), any());
+    }
+
     @Test
     @DisplayName("Should return a List of rooms")
     public void testGetRoom() throws Exception {
@@ -145,6 +197,50 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(3)));
     }
 
+    @Test
+    @DisplayName("Should return a page of rooms and the next cursor when using cursor pagination")
+    public void testGetRoomsWithCursor() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/rooms?cursor=&pageSize=3")
+                .accept(MediaType.APPLICATION_JSON);
+
+        List<RoomDTO> rooms = this.createListOfRooms(3);
+        CursorPageDTO<RoomDTO> page = new CursorPageDTO<>(rooms, CursorPageDTO.encodeCursor(3L), null);
+        when(this.roomService.getRoomsAfter(eq(""), eq(3), eq(false))).thenReturn(page);
+
+        mock.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").value(CursorPageDTO.encodeCursor(3L)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return Bad Request when the cursor page size exceeds the maximum")
+    public void testGetRoomsWithCursorAndOversizedPage() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/rooms?cursor=&pageSize=" + Integer.MAX_VALUE)
+                .accept(MediaType.APPLICATION_JSON);
+
+        mock.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.pageSize[0].error").value("A página não pode exceder 100 cômodos."));
+    }
+
+    @Test
+    @DisplayName("Should return Bad Request when the cursor is not valid")
+    public void testGetRoomsWithInvalidCursor() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get("/rooms?cursor=invalid")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(this.roomService.getRoomsAfter(any(String.class), any(), any(Boolean.class)))
+                .thenThrow(new InvalidCursorException("invalid"));
+
+        mock.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("Should return ok status and updated entity when using a valid ID.")
     void testUpdateRoomsWithValidID() throws Exception {
         Long roomId = 1L;
@@ -164,7 +260,7 @@ class RoomControllerTest {
             upsertRoomDto.getWidth(),
             upsertRoomDto.getLength());
 
-        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class))).thenReturn(roomDto);
+        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class), isNull())).thenReturn(new Versioned<>(roomDto, "1"));
 
         mock.perform(request)
             .andExpect(status().isOk())
@@ -188,12 +284,44 @@ class RoomControllerTest {
             .accept(MediaType.APPLICATION_JSON)
             .content(roomUpdateJson);
 
-        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class))).thenThrow(ResourceNotFoundException.class);
+        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class), isNull())).thenThrow(ResourceNotFoundException.class);
 
         mock.perform(request)
             .andExpect(status().isUnprocessableEntity());
     }
 
+    @Test
+    @DisplayName("Should pass If-Match on to the update and answer with the new ETag.")
+    void testUpdateARoomIfMatch() throws Exception {
+        Long roomId = 1L;
+        UpsertRoomDTO upsertRoomDto = new UpsertRoomDTO("Quarto", 5.0, 3.0);
+        RoomDTO roomDto = new RoomDTO(roomId, upsertRoomDto.getName(), upsertRoomDto.getWidth(), upsertRoomDto.getLength());
+
+        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class), eq("\"3\""))).thenReturn(new Versioned<>(roomDto, "4"));
+
+        mock.perform(MockMvcRequestBuilders.put("/rooms/" + roomId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(upsertRoomDto)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("Should return Precondition Failed when If-Match no longer matches the room.")
+    void testUpdateARoomPreconditionFailed() throws Exception {
+        UpsertRoomDTO upsertRoomDto = new UpsertRoomDTO("Quarto", 5.0, 3.0);
+
+        when(roomService.updateRoom(any(Long.class), any(UpsertRoomDTO.class), any(String.class)))
+            .thenThrow(new PreconditionFailedException("Room 1"));
+
+        mock.perform(MockMvcRequestBuilders.put("/rooms/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(upsertRoomDto)))
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("Should delete a room from a valid id.")
     void testDeleteARoom() throws Exception {
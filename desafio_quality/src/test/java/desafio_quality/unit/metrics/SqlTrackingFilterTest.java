@@ -0,0 +1,126 @@
+package desafio_quality.unit.metrics;
+
+import desafio_quality.metrics.RequestSqlStats;
+import desafio_quality.metrics.SqlTrackingFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SqlTrackingFilterTest {
+
+    private static final String SELECT_ROOMS = "select r.id, r.name from room r where r.property_id=?";
+
+    private static MockFilterChain chain(int roomQueries) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/properties/{propertyId}");
+                RequestSqlStats stats = RequestSqlStats.current();
+                stats.statementPrepared("select p.id from property p where p.id=?");
+                for (int i = 0; i < roomQueries; i++) {
+                    stats.statementPrepared(SELECT_ROOMS);
+                    stats.entityLoaded();
+                }
+                stats.collectionLoaded();
+                response.getWriter().write("{}");
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should return the counts of the request in headers and record them as metrics.")
+    void testReportsCounts() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/properties/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlTrackingFilter(registry, true, 10).doFilter(request, response, chain(3));
+
+        assertEquals("4", response.getHeader(SqlTrackingFilter.STATEMENTS_HEADER));
+        assertEquals("3", response.getHeader(SqlTrackingFilter.ENTITY_LOADS_HEADER));
+        assertEquals("1", response.getHeader(SqlTrackingFilter.COLLECTION_LOADS_HEADER));
+        DistributionSummary statements = registry.get("http.server.requests.sql.statements")
+                .tag("uri", "/properties/{propertyId}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(4, statements.totalAmount());
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    @DisplayName("Should record every request of a method, uri and status on the same summaries.")
+    void testReusesSummaries() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlTrackingFilter filter = new SqlTrackingFilter(registry, false, 10);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/properties/1"), new MockHttpServletResponse(), chain(1));
+        filter.doFilter(new MockHttpServletRequest("GET", "/properties/2"), new MockHttpServletResponse(), chain(2));
+
+        DistributionSummary statements = registry.get("http.server.requests.sql.statements")
+                .tag("uri", "/properties/{propertyId}").summary();
+        assertEquals(2, statements.count());
+        assertEquals(5, statements.totalAmount());
+        assertEquals(1, registry.find("http.server.requests.entity.loads").summaries().size());
+    }
+
+    @Test
+    @DisplayName("Should leave the headers out when they are turned off.")
+    void testOmitsHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlTrackingFilter(new SimpleMeterRegistry(), false, 10)
+                .doFilter(new MockHttpServletRequest("GET", "/properties/1"), response, chain(3));
+
+        assertFalse(response.containsHeader(SqlTrackingFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should warn about a statement repeated beyond the threshold, with the endpoint and its shape.")
+    void testWarnsAboutRepeatedStatements(CapturedOutput output) throws Exception {
+        SqlTrackingFilter filter = new SqlTrackingFilter(new SimpleMeterRegistry(), true, 10);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/properties/1"), new MockHttpServletResponse(), chain(10));
+        assertFalse(output.getOut().contains("Suspected N+1"));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/properties/1"), new MockHttpServletResponse(), chain(11));
+        assertTrue(output.getOut().contains(
+                "Suspected N+1 on GET /properties/{propertyId}: the same statement ran 11 times out of 12: " + SELECT_ROOMS));
+    }
+
+    @Test
+    @DisplayName("Should group statements that differ only in literals, spacing or IN list padding.")
+    void testShapes() {
+        assertEquals("select * from room where id in (?) and name=?",
+                RequestSqlStats.shapeOf("select *  from room\n where id in (?, ?, ?, ?) and name='Sala'"));
+        assertEquals(RequestSqlStats.shapeOf("select * from room where property_id=12"),
+                RequestSqlStats.shapeOf("select * from room where property_id=7"));
+
+        RequestSqlStats stats = RequestSqlStats.begin();
+        stats.statementPrepared("select * from room where id in (?, ?)");
+        stats.statementPrepared("select * from room where id in (?, ?, ?, ?)");
+        stats.statementPrepared("select * from property where id=?");
+        RequestSqlStats.end();
+        Map.Entry<String, Integer> repeated = stats.getMostRepeatedStatement();
+        assertEquals("select * from room where id in (?)", repeated.getKey());
+        assertEquals(2, repeated.getValue());
+    }
+}
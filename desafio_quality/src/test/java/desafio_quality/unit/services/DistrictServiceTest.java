@@ -25,6 +25,9 @@ import desafio_quality.entities.District;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.repositories.DistrictRepository;
 import desafio_quality.services.DistrictService;
+import desafio_quality.services.DistrictStatsService;
+import desafio_quality.services.PropertyValueCache;
+import desafio_quality.services.RevaluationService;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
@@ -36,6 +39,15 @@ public class DistrictServiceTest {
     @MockBean
     private DistrictRepository districtRepository;
 
+    @MockBean
+    private PropertyValueCache propertyValueCache;
+
+    @MockBean
+    private RevaluationService revaluationService;
+
+    @MockBean
+    private DistrictStatsService districtStatsService;
+
     @Test
     @DisplayName("Should update a district with a specific ID.")
     void testUpdateDistrictWithValidId() {
@@ -44,7 +56,7 @@ public class DistrictServiceTest {
         District district = new District("Bom Retiro", new BigDecimal("2000"));
 
         when(districtRepository.findById(any(Long.class))).thenReturn(Optional.of(district));
-        when(districtRepository.save(any(District.class))).thenReturn(district);
+        when(districtRepository.saveAndFlush(any(District.class))).thenReturn(district);
 
         CreateDistrictDTO createDistrictDTORoomDTO = new CreateDistrictDTO(district.getName(), district.getSquareMeterValue());
 
@@ -55,6 +67,36 @@ public class DistrictServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Should start revaluing the district's properties when its price changes.")
+    void testUpdateDistrictPriceStartsRevaluation() {
+        Long districtId = 1L;
+
+        District district = new District("Bom Retiro", new BigDecimal("2000"));
+
+        when(districtRepository.findById(any(Long.class))).thenReturn(Optional.of(district));
+        when(districtRepository.saveAndFlush(any(District.class))).thenReturn(district);
+
+        districtService.updateDistrict(districtId, new CreateDistrictDTO("Bom Retiro", new BigDecimal("2500")));
+
+        verify(revaluationService).revalueDistrict(districtId);
+    }
+
+    @Test
+    @DisplayName("Should not revalue the district's properties when only its name changes.")
+    void testUpdateDistrictNameKeepsValues() {
+        Long districtId = 1L;
+
+        District district = new District("Bom Retiro", new BigDecimal("2000"));
+
+        when(districtRepository.findById(any(Long.class))).thenReturn(Optional.of(district));
+        when(districtRepository.saveAndFlush(any(District.class))).thenReturn(district);
+
+        districtService.updateDistrict(districtId, new CreateDistrictDTO("Bom Retiro Novo", new BigDecimal("2000.00")));
+
+        verify(revaluationService, never()).revalueDistrict(any(Long.class));
+    }
+
     @DisplayName("Should delete a district with a specific ID.")
     void testDeleteDistrictWithValidID() {
         Long districtId = 1L;
@@ -96,6 +138,23 @@ public class DistrictServiceTest {
             .isEqualTo(expectedDistrict);
     }
 
+    @Test
+    @DisplayName("Should make the ETag of a district from its version without loading it.")
+    void testGetDistrictETag() {
+        when(districtRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals("3", districtService.getDistrictETag(1L));
+        verify(districtRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should not make the ETag of a district with an invalid ID.")
+    void testGetDistrictETagWithInvalidId() {
+        when(districtRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> districtService.getDistrictETag(2L));
+    }
+
     @Test
     @DisplayName("Should return exception when getting a district with an invalid ID.")
     void testGetDistrictWithInvalidId() {
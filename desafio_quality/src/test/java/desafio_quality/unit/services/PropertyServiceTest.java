@@ -12,18 +12,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import desafio_quality.dtos.DistrictDTO;
 import desafio_quality.dtos.PropertyAreaDTO;
 import desafio_quality.dtos.PropertyDTO;
 import desafio_quality.dtos.PropertyRoomsAreaDTO;
+import desafio_quality.dtos.PropertySummaryDTO;
+import desafio_quality.dtos.PropertyValuationDTO;
 import desafio_quality.dtos.PropertyValueDTO;
 import desafio_quality.dtos.RoomAreaDTO;
 import desafio_quality.dtos.RoomDTO;
@@ -36,8 +42,12 @@ import desafio_quality.exceptions.PropertyHasNoRoomsException;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.repositories.DistrictRepository;
 import desafio_quality.repositories.PropertyRepository;
+import desafio_quality.repositories.RoomRepository;
 import desafio_quality.services.DistrictService;
+import desafio_quality.services.DistrictStatsService;
 import desafio_quality.services.PropertyService;
+import desafio_quality.services.PropertyValueCache;
+import desafio_quality.services.RoomReadModel;
 
 
 @ExtendWith(SpringExtension.class)
@@ -56,20 +66,57 @@ public class PropertyServiceTest {
     @MockBean
     private DistrictRepository districtRepository;
 
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private DistrictStatsService districtStatsService;
+
+    @MockBean
+    private RoomReadModel roomReadModel;
+
+    @Autowired
+    private PropertyValueCache propertyValueCache;
+
+    @BeforeEach
+    void clearValueCache() {
+        propertyValueCache.invalidateAll();
+    }
+
+    private static PropertyRepository.ValuationView valuationView(Long districtId, BigDecimal value) {
+        return new PropertyRepository.ValuationView() {
+            public Long getDistrictId() { return districtId; }
+            public BigDecimal getValue() { return value; }
+            public Long getVersion() { return 0L; }
+        };
+    }
+
+    private static PropertyRepository.VersionView versionView(Long version, Long districtVersion) {
+        return new PropertyRepository.VersionView() {
+            public Long getVersion() { return version; }
+            public Long getDistrictVersion() { return districtVersion; }
+        };
+    }
+
+    private static PropertyRepository.RoomAreaView roomAreaView(
+            Long propertyId, String propertyName, Long roomId, String roomName, Double area) {
+        return new PropertyRepository.RoomAreaView() {
+            public Long getPropertyId() { return propertyId; }
+            public String getPropertyName() { return propertyName; }
+            public Long getRoomId() { return roomId; }
+            public String getRoomName() { return roomName; }
+            public Double getArea() { return area; }
+        };
+    }
+
 
     @Test
     @DisplayName("Should return a dto of property value.")
     void testGetValueWithValidId() {
         Long propertyId = 1L;
 
-        District district = new District("Bom Retiro", new BigDecimal("2000"));
-        Property property = new Property("Minha casa", district);
-        List<Room> rooms = List.of(
-                new Room("Quarto", 1.0, 1.0, property),
-                new Room("Cozinha", 1.0, 1.0, property),
-                new Room("Sala", 1.0, 1.0, property));
-        property.setRooms(rooms);
-        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
+        when(propertyRepository.findValuationById(any(Long.class)))
+                .thenReturn(Optional.of(valuationView(1L, new BigDecimal("6000"))));
 
         PropertyValueDTO propertyValueDTO = propertyService.getValue(propertyId);
 
@@ -77,11 +124,76 @@ public class PropertyServiceTest {
         assertThat(propertyValueDTO).usingRecursiveComparison().isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("Should value many properties in chunks, reporting missing ids inline.")
+    void testGetValuesInChunks() {
+        List<Long> propertyIds = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            propertyIds.add(id);
+        }
+        propertyIds.add(1000L);
+        propertyIds.add(1L);
+
+        when(propertyRepository.findValuationsByIdIn(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<PropertyValuationDTO> found = new ArrayList<>();
+            ids.stream().filter(id -> id <= 600)
+                    .forEach(id -> found.add(new PropertyValuationDTO(id, new BigDecimal("2000"), 1.0)));
+            return found;
+        });
+
+        List<PropertyValuationDTO> valuations = propertyService.getValues(propertyIds);
+
+        verify(propertyRepository, times(2)).findValuationsByIdIn(any());
+        assertEquals(602, valuations.size());
+        assertEquals(1L, valuations.get(0).getId());
+        assertEquals(new BigDecimal("2000"), valuations.get(0).getValue());
+        assertEquals(1000L, valuations.get(600).getId());
+        assertThat(valuations.get(600).getValue()).isNull();
+        assertEquals("Property with ID 1000 does not exist.", valuations.get(600).getError());
+        assertEquals(1L, valuations.get(601).getId());
+    }
+
+    @Test
+    @DisplayName("Should rank only the properties of the district when one is given.")
+    void testGetLargestPropertiesOfADistrict() {
+        PropertySummaryDTO ranked = new PropertySummaryDTO(1L, "Bem Viver", 3L, 170.0, new BigDecimal("1451290.00"), 2);
+        when(propertyRepository.findLargestByDistrictId(any(Long.class), any(Pageable.class)))
+                .thenReturn(List.of(ranked));
+
+        List<PropertySummaryDTO> ranking = propertyService.getLargestProperties(3L, 10);
+
+        assertThat(ranking).containsExactly(ranked);
+        verify(propertyRepository).findLargestByDistrictId(3L, PageRequest.of(0, 10));
+        verify(propertyRepository, never()).findLargest(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated values from the cache until a room of the property changes.")
+    void testGetValueIsCachedUntilInvalidated() {
+        Long propertyId = 1L;
+        when(propertyRepository.findValuationById(any(Long.class)))
+                .thenReturn(Optional.of(valuationView(1L, new BigDecimal("6000"))))
+                .thenReturn(Optional.of(valuationView(1L, new BigDecimal("8000"))));
+
+        propertyService.getValue(propertyId);
+        PropertyValueDTO cached = propertyService.getValue(propertyId);
+
+        assertEquals(new BigDecimal("6000"), cached.getValue());
+        verify(propertyRepository, times(1)).findValuationById(propertyId);
+
+        propertyService.applyRoomChanges(propertyId, 0, 1.0);
+        PropertyValueDTO refreshed = propertyService.getValue(propertyId);
+
+        assertEquals(new BigDecimal("8000"), refreshed.getValue());
+        verify(propertyRepository, times(2)).findValuationById(propertyId);
+    }
+
     @Test
     @DisplayName("Should return exception when getting a value.")
     void testGetValueWithInvalidId() {
         Long propertyId = 1L;
-        when(propertyRepository.findById(any(Long.class))).thenThrow(ResourceNotFoundException.class);
+        when(propertyRepository.findValuationById(any(Long.class))).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             propertyService.getValue(propertyId);
@@ -125,12 +237,7 @@ public class PropertyServiceTest {
         // given - cenário
         Long propertyId = 1L;
 
-        District district = new District("Bom Retiro", new BigDecimal("2000"));
-        Property property = new Property("Minha casa", district);
-        List<Room> rooms = List.of(new Room("Quarto", 2.0, 2.0, property));
-        property.setRooms(rooms);
-
-        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
+        when(propertyRepository.findTotalAreaById(any(Long.class))).thenReturn(Optional.of(new PropertyAreaDTO(4.0)));
         // when - execução
 
         PropertyAreaDTO propertyAreaDTO = propertyService.getTotalArea(propertyId);
@@ -212,8 +319,9 @@ public class PropertyServiceTest {
         Long propertyId = 1L;
 
         District district = new District("Bom Retiro", new BigDecimal("2000"));
+        Property property = new Property("Bem Viver", district);
 
-        when(propertyRepository.existsById(any(Long.class))).thenReturn(true);
+        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
 
         doNothing().when(propertyRepository).deleteById(any(Long.class));
 
@@ -221,6 +329,90 @@ public class PropertyServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Should apply the added rooms, area and value of a property to the totals of its district.")
+    void testApplyRoomChangesUpdatesDistrictStats() {
+        Long propertyId = 1L;
+
+        when(districtStatsService.isSummaryTableEnabled()).thenReturn(true);
+        when(propertyRepository.findValuationByIdForUpdate(propertyId))
+                .thenReturn(Optional.of(valuationView(3L, new BigDecimal("6000.00"))));
+        when(propertyRepository.findValuationById(propertyId))
+                .thenReturn(Optional.of(valuationView(3L, new BigDecimal("8000.00"))));
+
+        propertyService.applyRoomChanges(propertyId, 2, 1.0);
+
+        verify(propertyRepository).incrementRoomTotals(propertyId, 2, 1.0);
+        verify(districtStatsService).applyDelta(3L, 0, 2, 1.0, new BigDecimal("2000.00"));
+    }
+
+    @Test
+    @DisplayName("Should read the valuation before the room totals update with the property locked.")
+    void testApplyRoomChangesLocksPropertyBeforeUpdate() {
+        Long propertyId = 1L;
+
+        when(districtStatsService.isSummaryTableEnabled()).thenReturn(true);
+        when(propertyRepository.findValuationByIdForUpdate(propertyId))
+                .thenReturn(Optional.of(valuationView(3L, new BigDecimal("6000.00"))));
+        when(propertyRepository.findValuationById(propertyId))
+                .thenReturn(Optional.of(valuationView(3L, new BigDecimal("8000.00"))));
+
+        propertyService.applyRoomChanges(propertyId, 2, 1.0);
+
+        InOrder inOrder = inOrder(propertyRepository);
+        inOrder.verify(propertyRepository).findValuationByIdForUpdate(propertyId);
+        inOrder.verify(propertyRepository).incrementRoomTotals(propertyId, 2, 1.0);
+        inOrder.verify(propertyRepository).findValuationById(propertyId);
+        verify(districtStatsService, times(1)).applyDelta(any(), anyLong(), anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    @DisplayName("Should move the version of a property when one of its rooms is renamed.")
+    void testApplyRoomChangesMovesVersionOfRenamedRoom() {
+        propertyService.applyRoomChanges(1L, 0, 0);
+
+        verify(propertyRepository).incrementVersion(1L);
+        verify(propertyRepository, never()).incrementRoomTotals(any(Long.class), anyInt(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Should make the ETag of a property from its version and its district's version.")
+    void testGetPropertyETag() {
+        when(propertyRepository.findVersionsById(1L)).thenReturn(Optional.of(versionView(4L, 2L)));
+
+        assertEquals("4.2", propertyService.getPropertyETag(1L));
+        assertEquals("4", propertyService.getPropertyRoomsETag(1L));
+        verify(propertyRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should not make the ETag of a property with an invalid ID.")
+    void testGetPropertyETagWithInvalidId() {
+        when(propertyRepository.findVersionsById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> propertyService.getPropertyETag(1L));
+    }
+
+    @Test
+    @DisplayName("Should refresh the room read model when the rooms of a property change.")
+    void testApplyRoomChangesRefreshesRoomReadModel() {
+        propertyService.applyRoomChanges(1L, 0, 0);
+
+        verify(roomReadModel).propertyChanged(1L);
+    }
+
+    @Test
+    @DisplayName("Should serve the largest room from the room read model once it is loaded.")
+    void testGetLargestRoomFromRoomReadModel() {
+        RoomDTO room = new RoomDTO(2L, "Sala", 5.0, 4.0);
+
+        when(roomReadModel.isReady()).thenReturn(true);
+        when(roomReadModel.getLargestRoom(1L)).thenReturn(room);
+
+        assertThat(propertyService.getLargestRoom(1L)).isSameAs(room);
+        verifyNoInteractions(roomRepository);
+    }
+
     @Test
     @DisplayName("Should not delete a property with an invalid ID.")
     void testDeletePropertyWithInvalidID() {
@@ -282,14 +474,8 @@ public class PropertyServiceTest {
     void testGetLargestRoom() {
         Long propertyId = 1L;
 
-        District district = new District("Some District", new BigDecimal("2000"));
-        Property property = new Property("Some House", district);
-        List<Room> rooms = List.of(
-                new Room("Room", 1.0, 2.0, property),
-                new Room("Kitchen", 2.0, 3.0, property),
-                new Room("Bathroom", 3.0, 4.0, property));
-        property.setRooms(rooms);
-        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
+        when(roomRepository.findLargestByPropertyId(any(Long.class), any(Pageable.class)))
+                .thenReturn(List.of(new RoomDTO(3L, "Bathroom", 3., 4.)));
 
         RoomDTO largestRoom = propertyService.getLargestRoom(propertyId);
 
@@ -302,7 +488,8 @@ public class PropertyServiceTest {
     void testFailToGetLargestRoom() {
         Long propertyId = 1L;
 
-        when(propertyRepository.findById(any(Long.class))).thenThrow(ResourceNotFoundException.class);
+        when(roomRepository.findLargestByPropertyId(any(Long.class), any(Pageable.class))).thenReturn(List.of());
+        when(propertyRepository.existsById(any(Long.class))).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class, () -> {
             propertyService.getLargestRoom(propertyId);
@@ -314,10 +501,8 @@ public class PropertyServiceTest {
     void testFailToGetLargestRoom2() {
         Long propertyId = 1L;
 
-        District district = new District("Some District", new BigDecimal("2000"));
-        Property property = new Property("Some House", district);
-        property.setRooms(new ArrayList<>());
-        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
+        when(roomRepository.findLargestByPropertyId(any(Long.class), any(Pageable.class))).thenReturn(List.of());
+        when(propertyRepository.existsById(any(Long.class))).thenReturn(true);
 
         assertThrows(PropertyHasNoRoomsException.class, () -> {
             propertyService.getLargestRoom(propertyId);
@@ -331,7 +516,7 @@ public class PropertyServiceTest {
         Property property1 = new Property("Some House 1", district);
         Property property2 = new Property("Some House 2", district);
         Property property3 = new Property("Some House 3", district);
-        when(propertyRepository.findAll()).thenReturn(List.of(property1, property2, property3));
+        when(propertyRepository.findAllWithDistrictAndRooms()).thenReturn(List.of(property1, property2, property3));
 
         List<PropertyDTO> listOfProperties = propertyService.getAllProperties();
 
@@ -350,13 +535,10 @@ public class PropertyServiceTest {
     void testGetRoomsAreaByValidPropertyId() {
         Long propertyId = 1L;
 
-        District district = new District("Bom Retiro", new BigDecimal("2000"));
-        Property property = new Property("Minha casa", district);
-        List<Room> rooms = List.of(
-                new Room("Quarto", 2.0, 1.0, property),
-                new Room("Cozinha", 4.0, 2.0, property),
-                new Room("Sala", 2.0, 3.0, property));
-        property.setRooms(rooms);
+        List<PropertyRepository.RoomAreaView> rows = List.of(
+                roomAreaView(propertyId, "Minha casa", 1L, "Quarto", 2.0),
+                roomAreaView(propertyId, "Minha casa", 2L, "Cozinha", 8.0),
+                roomAreaView(propertyId, "Minha casa", 3L, "Sala", 6.0));
 
         List<RoomAreaDTO> roomAreaDTOList = List.of(
             new RoomAreaDTO(1L, "Quarto", 2.0),
@@ -364,10 +546,10 @@ public class PropertyServiceTest {
             new RoomAreaDTO(3L, "Sala", 6.0)
         );
 
-        when(propertyRepository.findById(any(Long.class))).thenReturn(Optional.of(property));
+        when(propertyRepository.findRoomAreasById(any(Long.class))).thenReturn(rows);
 
         PropertyRoomsAreaDTO expectPropertyRoomsAreaDTO =
-            new PropertyRoomsAreaDTO(propertyId, property.getName(), roomAreaDTOList);
+            new PropertyRoomsAreaDTO(propertyId, "Minha casa", roomAreaDTOList);
 
         PropertyRoomsAreaDTO actualPropertyRoomsAreaDTO =
             propertyService.getRoomsArea(propertyId);
@@ -384,7 +566,7 @@ public class PropertyServiceTest {
     void testGetRoomsAreaByInvalidPropertyId() {
         Long propertyId = 2L;
 
-        when(propertyRepository.findById(any(Long.class))).thenThrow(ResourceNotFoundException.class);
+        when(propertyRepository.findRoomAreasById(any(Long.class))).thenReturn(List.of());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             propertyService.getRoomsArea(propertyId);
@@ -0,0 +1,91 @@
+package desafio_quality.unit.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import desafio_quality.dtos.PropertyValueDTO;
+import desafio_quality.services.PropertyValueCache;
+
+public class PropertyValueCacheTest {
+
+    private static final Long propertyId = 1L;
+    private static final Long districtId = 10L;
+    private static final BigDecimal oldValue = new BigDecimal("1000.00");
+    private static final BigDecimal newValue = new BigDecimal("2000.00");
+
+    private final PropertyValueCache cache = new PropertyValueCache(100);
+
+    private PropertyValueCache.Entry entryOf(BigDecimal value) {
+        return new PropertyValueCache.Entry(districtId, new PropertyValueDTO(value));
+    }
+
+    /**
+     * Starts a load that reads the old value, runs the invalidation while that load is still computing and
+     * only then lets it store its result.
+     */
+    private BigDecimal loadOldValueAcross(Consumer<PropertyValueCache> invalidation) throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        CompletableFuture<PropertyValueDTO> reader = CompletableFuture.supplyAsync(() ->
+            this.cache.get(propertyId, id -> {
+                reading.countDown();
+                try {
+                    invalidated.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return entryOf(oldValue);
+            }));
+
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        invalidation.accept(this.cache);
+        invalidated.countDown();
+
+        return reader.get(5, TimeUnit.SECONDS).getValue();
+    }
+
+    @Test
+    @DisplayName("Should not keep a valuation loaded across its district invalidation.")
+    void testDistrictInvalidationDuringLoad() throws Exception {
+        BigDecimal loaded = loadOldValueAcross(cache -> cache.invalidateDistrict(districtId));
+
+        assertThat(loaded).isEqualTo(oldValue);
+        assertThat(this.cache.get(propertyId, id -> entryOf(newValue)).getValue()).isEqualTo(newValue);
+    }
+
+    @Test
+    @DisplayName("Should not keep a valuation loaded across a full invalidation.")
+    void testFullInvalidationDuringLoad() throws Exception {
+        loadOldValueAcross(PropertyValueCache::invalidateAll);
+
+        assertThat(this.cache.get(propertyId, id -> entryOf(newValue)).getValue()).isEqualTo(newValue);
+    }
+
+    @Test
+    @DisplayName("Should keep serving a valuation loaded after its district invalidation.")
+    void testLoadAfterDistrictInvalidation() {
+        this.cache.get(propertyId, id -> entryOf(oldValue));
+        this.cache.invalidateDistrict(districtId);
+
+        assertThat(this.cache.get(propertyId, id -> entryOf(newValue)).getValue()).isEqualTo(newValue);
+        assertThat(this.cache.get(propertyId, id -> entryOf(oldValue)).getValue()).isEqualTo(newValue);
+    }
+
+    @Test
+    @DisplayName("Should keep the valuations of other districts when one district is invalidated.")
+    void testDistrictInvalidationKeepsOtherDistricts() {
+        this.cache.get(propertyId, id -> new PropertyValueCache.Entry(20L, new PropertyValueDTO(oldValue)));
+        this.cache.invalidateDistrict(districtId);
+
+        assertThat(this.cache.get(propertyId, id -> entryOf(newValue)).getValue()).isEqualTo(oldValue);
+    }
+}
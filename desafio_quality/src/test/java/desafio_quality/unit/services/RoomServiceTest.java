@@ -3,12 +3,19 @@ package desafio_quality.unit.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -17,17 +24,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import desafio_quality.dtos.CursorPageDTO;
 import desafio_quality.dtos.RoomDTO;
 import desafio_quality.dtos.UpsertRoomDTO;
 import desafio_quality.entities.District;
 import desafio_quality.entities.Property;
 import desafio_quality.entities.Room;
+import desafio_quality.exceptions.InvalidCursorException;
+import desafio_quality.exceptions.PreconditionFailedException;
 import desafio_quality.exceptions.ResourceNotFoundException;
 import desafio_quality.repositories.RoomRepository;
 import desafio_quality.services.PropertyService;
 import desafio_quality.services.RoomService;
+import desafio_quality.services.Versioned;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
@@ -88,6 +101,25 @@ public class RoomServiceTest {
         assertThat(roomDTO).usingRecursiveComparison().ignoringFields("id", "property.id").isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("Should create many rooms and add their areas to the property.")
+    void testCreateRooms() {
+        Long propertyId = 1L;
+        District district = new District("Some District", new BigDecimal("10000"));
+        Property property = new Property("Some House", district);
+        List<UpsertRoomDTO> roomUpserts = List.of(
+            new UpsertRoomDTO("Quarto", 2., 5.),
+            new UpsertRoomDTO("Sala", 3., 4.));
+
+        when(propertyService.findPropertyById(any(Long.class))).thenReturn(property);
+        when(roomRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<RoomDTO> roomDTOs = roomService.createRooms(propertyId, roomUpserts);
+
+        assertThat(roomDTOs).extracting(RoomDTO::getName).containsExactly("Quarto", "Sala");
+        verify(propertyService).applyRoomChanges(propertyId, 2, 22.0);
+    }
+
     @Test
     @DisplayName("Should throw an exception when trying to create room and property does not exist.")
     void testFailureOfCreateRoom() {
@@ -140,6 +172,58 @@ public class RoomServiceTest {
         assertThat(roomDTO).usingRecursiveComparison().ignoringFields("id").isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("Should apply the area difference to the property when updating a room.")
+    void testUpdateRoomAppliesAreaDelta() {
+        Long roomId = 1L;
+
+        District district = new District("Bom Retiro", new BigDecimal("2000"));
+        Property property = new Property("Minha casa", district);
+        Room room = new Room("Quarto", 2.0, 3.0, property);
+
+        when(roomRepository.findById(any(Long.class))).thenReturn(Optional.of(room));
+        when(roomRepository.save(any(Room.class))).thenReturn(room);
+
+        roomService.updateRoom(roomId, new UpsertRoomDTO("Quarto", 4.0, 3.0));
+
+        verify(propertyService).applyRoomChanges(property.getId(), 0, 6.0);
+    }
+
+    @Test
+    @DisplayName("Should not update a room whose version no longer matches If-Match.")
+    void testUpdateRoomIfMatchMismatch() {
+        Long roomId = 1L;
+
+        District district = new District("Bom Retiro", new BigDecimal("2000"));
+        Property property = new Property("Minha casa", district);
+        Room room = new Room("Quarto", 2.0, 3.0, property);
+
+        when(roomRepository.findById(any(Long.class))).thenReturn(Optional.of(room));
+
+        assertThrows(PreconditionFailedException.class,
+            () -> roomService.updateRoom(roomId, new UpsertRoomDTO("Quarto", 4.0, 3.0), "\"7\""));
+        verify(roomRepository, never()).save(any(Room.class));
+        verify(propertyService, never()).applyRoomChanges(any(), anyInt(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Should update a room whose version matches If-Match and return its new ETag.")
+    void testUpdateRoomIfMatch() {
+        Long roomId = 1L;
+
+        District district = new District("Bom Retiro", new BigDecimal("2000"));
+        Property property = new Property("Minha casa", district);
+        Room room = new Room("Quarto", 2.0, 3.0, property);
+
+        when(roomRepository.findById(any(Long.class))).thenReturn(Optional.of(room));
+        when(roomRepository.save(any(Room.class))).thenReturn(room);
+
+        Versioned<RoomDTO> updated = roomService.updateRoom(roomId, new UpsertRoomDTO("Quarto", 4.0, 3.0), "\"0\"");
+
+        assertThat(updated.getBody().getWidth()).isEqualTo(4.0);
+        assertThat(updated.getETag()).isEqualTo("0");
+    }
+
     @Test
     @DisplayName("Should return exception when updating a room with invalid ID.")
     void testUpdateRoomWithInvalidId(){
@@ -158,6 +242,52 @@ public class RoomServiceTest {
             () -> roomService.updateRoom(roomId, upsertRoomDTO));
     }
 
+    @Test
+    @DisplayName("Should return a page of rooms after the cursor and the cursor of the next page.")
+    void testGetRoomsAfterCursor() {
+        List<RoomDTO> rooms = List.of(
+            new RoomDTO(4L, "Quarto", 1.0, 1.0),
+            new RoomDTO(5L, "Sala", 1.0, 1.0),
+            new RoomDTO(6L, "Cozinha", 1.0, 1.0));
+        when(roomRepository.findAllAfter(eq(3L), any(Pageable.class))).thenReturn(rooms);
+
+        CursorPageDTO<RoomDTO> page = roomService.getRoomsAfter(CursorPageDTO.encodeCursor(3L), 2, false);
+
+        assertThat(page.getContent()).extracting(RoomDTO::getId).containsExactly(4L, 5L);
+        assertEquals(5L, CursorPageDTO.decodeCursor(page.getNextCursor()));
+        assertNull(page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should return the last page of rooms without a next cursor and with the total count.")
+    void testGetRoomsAfterCursorLastPage() {
+        when(roomRepository.findAllAfter(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(new RoomDTO(1L, "Quarto", 1.0, 1.0)));
+        when(roomRepository.count()).thenReturn(1L);
+
+        CursorPageDTO<RoomDTO> page = roomService.getRoomsAfter("", 2, true);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertNull(page.getNextCursor());
+        assertEquals(1L, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should cap the cursor page size so it never fetches more than the maximum page.")
+    void testGetRoomsAfterCapsPageSize() {
+        when(roomRepository.findAllAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        roomService.getRoomsAfter("", Integer.MAX_VALUE, false);
+
+        verify(roomRepository).findAllAfter(0L, PageRequest.of(0, CursorPageDTO.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the cursor is not valid.")
+    void testGetRoomsAfterInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> roomService.getRoomsAfter("not-a-cursor", 2, false));
+    }
+
     @Test
     @DisplayName("Should delete a room given a valid id.")
     void testDeleteRoomWithAValidId(){
@@ -0,0 +1,73 @@
+package desafio_quality.unit.synthetic;
+
+import desafio_quality.synthetic.SyntheticDataset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticDatasetTest {
+
+    private static List<String> rooms(SyntheticDataset dataset, long propertyId) {
+        List<String> rooms = new ArrayList<>();
+        dataset.rooms(propertyId, (name, width, length) -> rooms.add(name + " " + width + "x" + length));
+        return rooms;
+    }
+
+    @Test
+    @DisplayName("Should generate the same rows for the same seed, whatever order they are asked in.")
+    void testIsDeterministic() {
+        SyntheticDataset first = new SyntheticDataset(42, 100);
+        SyntheticDataset second = new SyntheticDataset(42, 100);
+
+        for (long id = 1000; id >= 1; id--) {
+            assertEquals(first.propertyName(id), second.propertyName(id));
+            assertEquals(first.districtOf(id), second.districtOf(id));
+            assertEquals(rooms(first, id), rooms(second, id));
+        }
+        assertEquals(first.squareMeterValue(7), second.squareMeterValue(7));
+        assertNotEquals(rooms(first, 1), rooms(new SyntheticDataset(43, 100), 1));
+    }
+
+    @Test
+    @DisplayName("Should keep room counts and dimensions within the limits of the API.")
+    void testStaysWithinLimits() {
+        SyntheticDataset dataset = new SyntheticDataset(42, 100);
+        long rooms = 0;
+        for (long id = 1; id <= 20_000; id++) {
+            int count = dataset.rooms(id, (name, width, length) -> {
+                assertTrue(width >= 1 && width <= 25, "width " + width);
+                assertTrue(length >= 1 && length <= 33, "length " + length);
+                assertTrue(Character.isUpperCase(name.charAt(0)));
+            });
+            assertEquals(dataset.roomCount(id), count);
+            assertTrue(count >= 1 && count <= SyntheticDataset.MAX_ROOMS_PER_PROPERTY);
+            assertTrue(dataset.propertyName(id).length() <= 30);
+            long districtId = dataset.districtOf(id);
+            assertTrue(districtId >= 1 && districtId <= 100);
+            rooms += count;
+        }
+        double roomsPerProperty = rooms / 20_000.0;
+        assertTrue(roomsPerProperty > 4 && roomsPerProperty < 7, "rooms per property " + roomsPerProperty);
+    }
+
+    @Test
+    @DisplayName("Should name districts uniquely and price them between R$ 1,500 and R$ 40,000.")
+    void testDistricts() {
+        SyntheticDataset dataset = new SyntheticDataset(42, 1000);
+        List<String> names = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            names.add(dataset.districtName(id));
+            BigDecimal value = dataset.squareMeterValue(id);
+            assertTrue(value.compareTo(new BigDecimal("1500")) >= 0 && value.compareTo(new BigDecimal("40000")) <= 0);
+            assertTrue(dataset.districtName(id).length() <= 45);
+        }
+        assertEquals(names.size(), names.stream().distinct().count());
+    }
+}
@@ -0,0 +1,66 @@
+package desafio_quality.unit.valuation;
+
+import desafio_quality.valuation.FixedPointValuation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FixedPointValuationTest {
+
+    private static BigDecimal bigDecimalValueOf(double totalArea, BigDecimal squareMeterValue) {
+        return BigDecimal.valueOf(totalArea).setScale(4, RoundingMode.HALF_UP)
+                .multiply(squareMeterValue)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    @DisplayName("Should value like the BigDecimal formula for sums of room areas.")
+    void testMatchesBigDecimalFormula() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double totalArea = 0;
+            for (int room = random.nextInt(20); room >= 0; room--) {
+                totalArea += (1 + random.nextInt(2400) / 100.0) * (1 + random.nextInt(3200) / 100.0);
+            }
+            BigDecimal squareMeterValue = BigDecimal.valueOf(random.nextInt(5_000_000), 2);
+
+            assertEquals(bigDecimalValueOf(totalArea, squareMeterValue),
+                    FixedPointValuation.valueOf(totalArea, squareMeterValue));
+        }
+    }
+
+    @Test
+    @DisplayName("Should round areas on a tie half up, from their decimal representation.")
+    void testRoundsTiesHalfUp() {
+        assertEquals(1, FixedPointValuation.toSquareCentimeters(0.00005));
+        assertEquals(10_001, FixedPointValuation.toSquareCentimeters(1.00005));
+        assertEquals(12_345, FixedPointValuation.toSquareCentimeters(1.23449999));
+        assertEquals(new BigDecimal("0.01"), FixedPointValuation.valueOf(0.00005, new BigDecimal("100.00")));
+    }
+
+    @Test
+    @DisplayName("Should round cents half up.")
+    void testRoundsCentsHalfUp() {
+        assertEquals(1, FixedPointValuation.valueInCents(5_000, 1));
+        assertEquals(0, FixedPointValuation.valueInCents(4_999, 1));
+        assertEquals(-1, FixedPointValuation.valueInCents(-5_000, 1));
+    }
+
+    @Test
+    @DisplayName("Should fall back to BigDecimal when the longs cannot hold the inputs.")
+    void testFallsBackToBigDecimal() {
+        BigDecimal fractionalCents = new BigDecimal("1234.567");
+        BigDecimal huge = new BigDecimal("9999999999999.99");
+
+        assertThrows(ArithmeticException.class, () -> FixedPointValuation.toCents(fractionalCents));
+        assertThrows(ArithmeticException.class, () -> FixedPointValuation.valueInCents(Long.MAX_VALUE / 2, 3));
+        assertEquals(bigDecimalValueOf(12.5, fractionalCents), FixedPointValuation.valueOf(12.5, fractionalCents));
+        assertEquals(bigDecimalValueOf(1e9, huge), FixedPointValuation.valueOf(1e9, huge));
+    }
+}